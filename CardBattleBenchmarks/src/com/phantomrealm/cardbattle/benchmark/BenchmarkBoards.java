@@ -0,0 +1,91 @@
+package com.phantomrealm.cardbattle.benchmark;
+
+import java.util.Random;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.CardFactory;
+
+/**
+ * Builds the boards measured by the benchmarks. Every board is filled from a seeded generator,
+ *  so each run of the suite measures exactly the same positions.
+ * 
+ * @author matthewpape
+ */
+class BenchmarkBoards {
+	
+	/**
+	 * Seed of every generator used to set up a benchmark
+	 */
+	static final long SEED = 42;
+	
+	private static final int ATTACK_MAX = 5;
+	private static final int DEFENSE_MAX = 4;
+	private static final int ATTACK_MIN = 1;
+	private static final int DEFENSE_MIN = 0;
+	
+	/**
+	 * Creates an empty board of a given size
+	 * @param boardSize the width and height of the board, eg "3x5"
+	 * @return
+	 */
+	static Board createEmptyBoard(String boardSize) {
+		String[] dimensions = boardSize.split("x");
+		return new Board(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+	}
+	
+	/**
+	 * Creates a board of a given size with a test card in every slot, each owned by a random
+	 *  player, without resolving any of the conflicts between them
+	 * @param boardSize the width and height of the board, eg "3x5"
+	 * @param random
+	 * @return
+	 */
+	static Board createFullBoard(String boardSize, Random random) {
+		Board board = createEmptyBoard(boardSize);
+		for (int row = 0; row < board.getHeight(); ++row) {
+			for (int col = 0; col < board.getWidth(); ++col) {
+				PlayerIdentity owner = random.nextBoolean() ? PlayerIdentity.LEFT_PLAYER : PlayerIdentity.RIGHT_PLAYER;
+				board.executeMove(CardFactory.generateTestCard(ATTACK_MAX, DEFENSE_MAX, ATTACK_MIN, DEFENSE_MIN, random), owner, new Position(row, col));
+			}
+		}
+		return board;
+	}
+	
+	/**
+	 * Creates a board of a given size where each player holds the outermost slot of every row on
+	 *  their side, as after the first rounds of a game
+	 * @param boardSize the width and height of the board, eg "3x5"
+	 * @param random
+	 * @return
+	 */
+	static Board createOpeningBoard(String boardSize, Random random) {
+		Board board = createEmptyBoard(boardSize);
+		for (int row = 0; row < board.getHeight(); ++row) {
+			board.executeMove(CardFactory.generateTestCard(ATTACK_MAX, DEFENSE_MAX, ATTACK_MIN, DEFENSE_MIN, random), PlayerIdentity.LEFT_PLAYER, new Position(row, 0));
+			board.executeMove(CardFactory.generateTestCard(ATTACK_MAX, DEFENSE_MAX, ATTACK_MIN, DEFENSE_MIN, random), PlayerIdentity.RIGHT_PLAYER, new Position(row, board.getWidth() - 1));
+		}
+		return board;
+	}
+	
+	/**
+	 * Creates a full board of a given size in a super stalemate, where the players take turns
+	 *  to own every slot of a row, so each controls half of the rows and neither has a majority
+	 * @param boardSize the width and height of the board, eg "3x100", which must have an even
+	 *  number of rows
+	 * @param random
+	 * @return
+	 */
+	static Board createSuperStalemateBoard(String boardSize, Random random) {
+		Board board = createEmptyBoard(boardSize);
+		for (int row = 0; row < board.getHeight(); ++row) {
+			PlayerIdentity owner = row % 2 == 0 ? PlayerIdentity.LEFT_PLAYER : PlayerIdentity.RIGHT_PLAYER;
+			for (int col = 0; col < board.getWidth(); ++col) {
+				board.executeMove(CardFactory.generateTestCard(ATTACK_MAX, DEFENSE_MAX, ATTACK_MIN, DEFENSE_MIN, random), owner, new Position(row, col));
+			}
+		}
+		return board;
+	}
+
+}
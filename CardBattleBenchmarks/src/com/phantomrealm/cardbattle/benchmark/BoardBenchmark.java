@@ -0,0 +1,122 @@
+package com.phantomrealm.cardbattle.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+import com.phantomrealm.cardbattle.util.RandomSource;
+
+/**
+ * Measures the operations a game or search performs on a Board. Conflicts and stalemates are
+ *  resolved on a fresh copy of a full board each time, since resolving them changes the board,
+ *  so those results include the cost of cloneBoard. A single conflict is measured as a search
+ *  meets it, applying a move next to an enemy card and undoing it again.
+ * 
+ * @author matthewpape
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+	
+	private static final int CARD_MASK = 63;
+	
+	@Param({ "3x3", "5x5", "3x15" })
+	public String boardSize;
+	
+	private Board mFullBoard;
+	private Board mOpeningBoard;
+	private Board mMoveBoard;
+	private Position mMove;
+	private Board mConflictBoard;
+	private Position mConflictMove;
+	private Card[] mCards;
+	private int[] mMoveBuffer;
+	private int mNextCard;
+	
+	@Setup
+	public void setUp() {
+		RandomSource random = new RandomSource(BenchmarkBoards.SEED);
+		mFullBoard = BenchmarkBoards.createFullBoard(boardSize, random);
+		mOpeningBoard = BenchmarkBoards.createOpeningBoard(boardSize, random);
+		mMoveBoard = BenchmarkBoards.createEmptyBoard(boardSize);
+		mMove = new Position(mMoveBoard.getHeight() / 2, 0);
+		Deck deck = DeckFactory.generateTestDeck(CARD_MASK + 1, random);
+		mCards = deck.toArray(new Card[deck.size()]);
+		mMoveBuffer = new int[mFullBoard.getWidth() * mFullBoard.getHeight()];
+		// none of the test cards has a bonus effect, so every conflict takes the plain path
+		mConflictBoard = BenchmarkBoards.createEmptyBoard(boardSize);
+		mConflictBoard.executeMove(mCards[0], PlayerIdentity.LEFT_PLAYER, new Position(mMove.getRow(), 0));
+		mConflictMove = new Position(mMove.getRow(), 1);
+	}
+	
+	@Benchmark
+	public Board cloneBoard() {
+		return mFullBoard.clone();
+	}
+	
+	@Benchmark
+	public long executeMove() {
+		// the same slot is played into over and over, replacing the card before
+		mMoveBoard.executeMove(mCards[mNextCard++ & CARD_MASK], PlayerIdentity.LEFT_PLAYER, mMove);
+		return mMoveBoard.getHash();
+	}
+	
+	@Benchmark
+	public Board resolveBoardConflicts() {
+		Board board = mFullBoard.clone();
+		board.resolveBoardConflicts();
+		return board;
+	}
+	
+	@Benchmark
+	public long resolveConflict() {
+		int undoMarker = mConflictBoard.applyMove(mCards[mNextCard++ & CARD_MASK], PlayerIdentity.RIGHT_PLAYER, mConflictMove);
+		long hash = mConflictBoard.getHash();
+		mConflictBoard.undoMove(undoMarker);
+		return hash;
+	}
+	
+	@Benchmark
+	public Board resolveBoardStalemates() {
+		Board board = mFullBoard.clone();
+		board.resolveBoardStalemates();
+		return board;
+	}
+	
+	@Benchmark
+	public PlayerIdentity getWinner() {
+		return mFullBoard.getWinner();
+	}
+	
+	@Benchmark
+	public List<Position> getPossibleMoves() {
+		return mOpeningBoard.getPossibleMoves(PlayerIdentity.LEFT_PLAYER);
+	}
+	
+	@Benchmark
+	public int getPossibleMovesBuffer() {
+		return mOpeningBoard.getPossibleMoves(PlayerIdentity.LEFT_PLAYER, mMoveBuffer);
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.phantomrealm.cardbattle.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.util.RandomSource;
+
+/**
+ * Measures wiping a full board after a super stalemate, which defeats every card on it. Boards
+ *  are tall and narrow, so the cost of each defeated card is easy to see as the number of
+ *  slots grows. The board is wiped on a fresh copy each time, so the results include the cost
+ *  of cloning it.
+ * 
+ * @author matthewpape
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardWipeBenchmark {
+	
+	@Param({ "3x10", "3x100" })
+	public String boardSize;
+	
+	private Board mStalemateBoard;
+	
+	@Setup
+	public void setUp() {
+		mStalemateBoard = BenchmarkBoards.createSuperStalemateBoard(boardSize, new RandomSource(BenchmarkBoards.SEED));
+		Board board = mStalemateBoard.clone();
+		board.resolveBoardSuperStalemate();
+		if (board.getOccupiedCount() != 0) {
+			throw new IllegalStateException(boardSize + " board is not in a super stalemate");
+		}
+	}
+	
+	@Benchmark
+	public Board wipeBoard() {
+		Board board = mStalemateBoard.clone();
+		board.resolveBoardSuperStalemate();
+		return board;
+	}
+
+}
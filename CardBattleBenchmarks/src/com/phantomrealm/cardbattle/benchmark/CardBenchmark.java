@@ -0,0 +1,52 @@
+package com.phantomrealm.cardbattle.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.card.CardFactory;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+
+/**
+ * Measures generating test cards and decks, which dominates setting up large batches of games
+ * 
+ * @author matthewpape
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBenchmark {
+	
+	@Param({ "20", "100" })
+	public int deckSize;
+	
+	@Benchmark
+	public Card generateTestCard() {
+		return CardFactory.generateTestCard();
+	}
+	
+	@Benchmark
+	public Deck generateTestDeck() {
+		return DeckFactory.generateTestDeck(deckSize);
+	}
+	
+	@Benchmark
+	public Deck generateTestArchetypeDeck() {
+		return DeckFactory.generateTestArchetypeDeck(deckSize);
+	}
+
+}
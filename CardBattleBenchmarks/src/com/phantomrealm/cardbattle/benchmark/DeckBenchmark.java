@@ -0,0 +1,66 @@
+package com.phantomrealm.cardbattle.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckCursor;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+import com.phantomrealm.cardbattle.util.RandomSource;
+
+/**
+ * Measures copying decks and drawing from cursors over them, as searches do at every position.
+ *  Each pop is undone straight away so that the cursor never runs out.
+ * 
+ * @author matthewpape
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+	
+	@Param({ "20", "100" })
+	public int deckSize;
+	
+	private Deck mDeck;
+	private DeckCursor mCursor;
+	
+	@Setup
+	public void setUp() {
+		mDeck = DeckFactory.generateTestDeck(deckSize, new RandomSource(BenchmarkBoards.SEED));
+		mCursor = new DeckCursor(mDeck);
+	}
+	
+	@Benchmark
+	public Deck cloneDeck() {
+		return mDeck.clone();
+	}
+	
+	@Benchmark
+	public DeckCursor forkCursor() {
+		return mCursor.fork();
+	}
+	
+	@Benchmark
+	public Card popCursor() {
+		Card card = mCursor.pop();
+		mCursor.undoPop();
+		return card;
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.phantomrealm.cardbattle.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.phantomrealm.cardbattle.controller.game.EmptyGameControllerListener;
+import com.phantomrealm.cardbattle.controller.game.Game;
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.controller.player.algorithmic.OrderedPlayer;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+import com.phantomrealm.cardbattle.util.RandomSource;
+
+/**
+ * Measures playing whole headless games between two OrderedPlayers, either a round at a time
+ *  through takePlayerTurn, resolveBoard and getWinner or in one call to playToCompletion. Each
+ *  game starts from copies of the same decks, so the results include the cost of cloneDeck.
+ *  Playing rounds with an EmptyGameControllerListener is how games were played before a null
+ *  listener skipped dispatch, so comparing it with playToCompletion and no listener measures
+ *  the listener-free fast path.
+ * 
+ * @author matthewpape
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+	
+	private static final int DECK_SIZE = 100;
+	
+	@Param({ "3x3", "5x5", "3x15" })
+	public String boardSize;
+	
+	@Param({ "none", "empty" })
+	public String listener;
+	
+	private Deck mLeftDeck;
+	private Deck mRightDeck;
+	
+	@Setup
+	public void setUp() {
+		RandomSource random = new RandomSource(BenchmarkBoards.SEED);
+		mLeftDeck = DeckFactory.generateTestDeck(DECK_SIZE, random);
+		mRightDeck = DeckFactory.generateTestDeck(DECK_SIZE, random);
+	}
+	
+	@Benchmark
+	public PlayerIdentity playRounds() {
+		Game game = createGame();
+		while (game.getWinner() == null) {
+			game.takePlayerTurn();
+			game.resolveBoard();
+		}
+		return game.getWinner();
+	}
+	
+	@Benchmark
+	public PlayerIdentity playToCompletion() {
+		return createGame().playToCompletion();
+	}
+	
+	private Game createGame() {
+		OrderedPlayer leftPlayer = new OrderedPlayer(PlayerIdentity.LEFT_PLAYER, mLeftDeck.clone());
+		OrderedPlayer rightPlayer = new OrderedPlayer(PlayerIdentity.RIGHT_PLAYER, mRightDeck.clone());
+		Game.Builder builder = new Game.Builder(leftPlayer, rightPlayer, BenchmarkBoards.createEmptyBoard(boardSize));
+		if (listener.equals("empty")) {
+			builder.setGameControllerListener(new EmptyGameControllerListener());
+		}
+		return builder.build();
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.phantomrealm.cardbattle.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.controller.player.minimax.CardCountDisparityPlayer;
+import com.phantomrealm.cardbattle.controller.player.minimax.MiniMaxPlayer;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+import com.phantomrealm.cardbattle.util.RandomSource;
+
+/**
+ * Measures a MiniMaxPlayer picking a move from the opening position of a game. The player has
+ *  no transposition table, so every call searches the whole tree again.
+ * 
+ * @author matthewpape
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+	
+	private static final int DECK_SIZE = 100;
+	
+	@Param({ "3x3", "5x5", "3x15" })
+	public String boardSize;
+	
+	@Param({ "1", "3", "5" })
+	public int depth;
+	
+	private MiniMaxPlayer mPlayer;
+	private Deck mOpponentDeck;
+	private Board mBoard;
+	
+	@Setup
+	public void setUp() {
+		RandomSource random = new RandomSource(BenchmarkBoards.SEED);
+		mPlayer = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, DeckFactory.generateTestDeck(DECK_SIZE, random), depth);
+		mOpponentDeck = DeckFactory.generateTestDeck(DECK_SIZE, random);
+		mBoard = BenchmarkBoards.createOpeningBoard(boardSize, random);
+	}
+	
+	@Benchmark
+	public Position getMove() {
+		return mPlayer.getMove(mBoard, mOpponentDeck);
+	}
+
+}
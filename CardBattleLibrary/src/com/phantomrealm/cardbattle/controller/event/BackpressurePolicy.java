@@ -0,0 +1,27 @@
+package com.phantomrealm.cardbattle.controller.event;
+
+/**
+ * What a GameEventBus does with a new event when its buffer is already full
+ * 
+ * @author matthewpape
+ */
+public enum BackpressurePolicy {
+	/**
+	 * The game waits until the subscribers have caught up, so no events are lost. The wait
+	 *  goes on even if the publishing thread is interrupted, which finds its interrupt status
+	 *  still set once the event has been published.
+	 */
+	BLOCK,
+	
+	/**
+	 * The new event is discarded and counted as dropped
+	 */
+	DROP,
+	
+	/**
+	 * The new event replaces the newest pending event for the same position in the current
+	 *  turn if it is of the same kind, or an end of turn which is the newest pending event,
+	 *  and is dropped otherwise
+	 */
+	COALESCE;
+}
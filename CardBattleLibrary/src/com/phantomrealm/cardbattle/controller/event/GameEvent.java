@@ -0,0 +1,85 @@
+package com.phantomrealm.cardbattle.controller.event;
+
+import com.phantomrealm.cardbattle.controller.game.GameControllerListener;
+import com.phantomrealm.cardbattle.controller.game.TurnListener;
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.AttackType;
+
+/**
+ * Mutable record of a single event in a GameEventBus. Records are allocated once with the bus
+ *  and overwritten as events are published, so publishing never allocates.
+ * 
+ * @author matthewpape
+ */
+class GameEvent {
+	
+	static final int CARD_MOVED = 0;
+	static final int CARD_DEFEATED = 1;
+	static final int TURN_ENDED = 2;
+	
+	private int mType;
+	private PlayerIdentity mPlayer;
+	private Position mPosition;
+	private AttackType mAttackType;
+	
+	/**
+	 * Overwrites the event
+	 * @param type CARD_MOVED, CARD_DEFEATED or TURN_ENDED
+	 * @param player null unless the type is CARD_MOVED
+	 * @param position null if the type is TURN_ENDED
+	 * @param attackType null unless the type is CARD_DEFEATED
+	 */
+	void set(int type, PlayerIdentity player, Position position, AttackType attackType) {
+		mType = type;
+		mPlayer = player;
+		mPosition = position;
+		mAttackType = attackType;
+	}
+	
+	/**
+	 * Overwrites the event with a copy of another
+	 * @param event
+	 */
+	void copy(GameEvent event) {
+		set(event.mType, event.mPlayer, event.mPosition, event.mAttackType);
+	}
+	
+	/**
+	 * Gets the type of the event
+	 * @return
+	 */
+	int getType() {
+		return mType;
+	}
+	
+	/**
+	 * Indicates whether or not the event is about a given position
+	 * @param position
+	 * @return false if the event is the end of a turn
+	 */
+	boolean isAt(Position position) {
+		return mType != TURN_ENDED && mPosition.equals(position);
+	}
+	
+	/**
+	 * Sends the event to a listener, which is only told the turn has ended if it is a TurnListener
+	 * @param listener
+	 */
+	void dispatch(GameControllerListener listener) {
+		switch (mType) {
+		case CARD_MOVED:
+			listener.onCardMoved(mPlayer, mPosition);
+			break;
+		case CARD_DEFEATED:
+			listener.onCardDefeated(mPosition, mAttackType);
+			break;
+		default:
+			if (listener instanceof TurnListener) {
+				((TurnListener) listener).onTurnEnded();
+			}
+			break;
+		}
+	}
+
+}
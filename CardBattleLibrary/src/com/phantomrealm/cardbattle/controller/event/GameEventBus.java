@@ -0,0 +1,404 @@
+package com.phantomrealm.cardbattle.controller.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.phantomrealm.cardbattle.controller.game.GameControllerListener;
+import com.phantomrealm.cardbattle.controller.game.TurnListener;
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.AttackType;
+
+/**
+ * GameControllerListener which hands events to its subscribers on a thread of its own, so a
+ *  slow subscriber does not hold up the game. Events are copied into a ring of preallocated
+ *  records and drained by the consumer thread in batches, each subscriber seeing every event
+ *  in the order it was published. The consumer is woken at the end of each turn or once a
+ *  whole batch is waiting, so events published outside of a Game may wait until the next
+ *  flush. Subscribers which are TurnListeners are also told when each turn of a game has
+ *  ended. What happens when the ring fills up depends on the
+ *  BackpressurePolicy of the bus.
+ * 
+ * @author matthewpape
+ */
+public class GameEventBus implements TurnListener, AutoCloseable {
+	
+	/**
+	 * Used to build a GameEventBus instance
+	 * 
+	 * @author matthewpape
+	 */
+	public static class Builder {
+		
+		private int mCapacity = DEFAULT_CAPACITY;
+		private int mBatchSize = DEFAULT_BATCH_SIZE;
+		private BackpressurePolicy mPolicy = BackpressurePolicy.BLOCK;
+		private List<GameControllerListener> mSubscribers = new ArrayList<GameControllerListener>();
+		
+		/**
+		 * Sets the number of events which may be waiting for the subscribers at once
+		 * @param capacity rounded up to a power of two
+		 * @return
+		 */
+		public Builder setCapacity(int capacity) {
+			if (capacity < 1 || capacity > MAX_CAPACITY) {
+				throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+			}
+			mCapacity = capacity;
+			return this;
+		}
+		
+		/**
+		 * Sets the most events the consumer thread takes from the ring at once, which is also
+		 *  how many may wait within a turn before the consumer is woken
+		 * @param batchSize
+		 * @return
+		 */
+		public Builder setBatchSize(int batchSize) {
+			if (batchSize < 1) {
+				throw new IllegalArgumentException("batch size must be positive");
+			}
+			mBatchSize = batchSize;
+			return this;
+		}
+		
+		/**
+		 * Sets what happens to new events while the ring is full
+		 * @param policy null for BLOCK
+		 * @return
+		 */
+		public Builder setBackpressurePolicy(BackpressurePolicy policy) {
+			mPolicy = policy != null ? policy : BackpressurePolicy.BLOCK;
+			return this;
+		}
+		
+		/**
+		 * Adds a subscriber to be sent every event
+		 * @param subscriber
+		 * @return
+		 */
+		public Builder addSubscriber(GameControllerListener subscriber) {
+			mSubscribers.add(subscriber);
+			return this;
+		}
+		
+		/**
+		 * Creates the bus and starts its consumer thread
+		 * @return
+		 */
+		public GameEventBus build() {
+			GameEventBus bus = new GameEventBus(mCapacity, mBatchSize, mPolicy, mSubscribers);
+			bus.mConsumer.start();
+			return bus;
+		}
+	
+	}
+	
+	private static final int DEFAULT_CAPACITY = 1024;
+	private static final int DEFAULT_BATCH_SIZE = 64;
+	private static final int MAX_CAPACITY = 1 << 30;
+	
+	private final GameEvent[] mRing;
+	private final int mMask;
+	private final GameEvent[] mBatch;
+	private final BackpressurePolicy mPolicy;
+	private final Thread mConsumer;
+	private volatile GameControllerListener[] mSubscribers;
+	
+	private final ReentrantLock mLock;
+	private final Condition mNotEmpty;
+	private final Condition mNotFull;
+	private final Condition mDispatched;
+	// sequence numbers of events, guarded by mLock: those before mHead have been taken by the
+	// consumer, those before mDispatchedCount have been sent, and mTail is the next to publish
+	private long mHead;
+	private long mTail;
+	private long mDispatchedCount;
+	private long mDroppedCount;
+	private long mCoalescedCount;
+	private boolean mClosed;
+	
+	/**
+	 * Creates a bus whose consumer thread has not been started yet
+	 * @param capacity
+	 * @param batchSize
+	 * @param policy
+	 * @param subscribers
+	 */
+	private GameEventBus(int capacity, int batchSize, BackpressurePolicy policy, List<GameControllerListener> subscribers) {
+		int ringSize = Integer.highestOneBit(capacity);
+		if (ringSize < capacity) {
+			ringSize <<= 1;
+		}
+		mRing = createEvents(ringSize);
+		mMask = ringSize - 1;
+		mBatch = createEvents(Math.min(batchSize, ringSize));
+		mPolicy = policy;
+		mSubscribers = subscribers.toArray(new GameControllerListener[subscribers.size()]);
+		
+		mLock = new ReentrantLock();
+		mNotEmpty = mLock.newCondition();
+		mNotFull = mLock.newCondition();
+		mDispatched = mLock.newCondition();
+		
+		mConsumer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				consume();
+			}
+		}, "GameEventBus");
+		mConsumer.setDaemon(true);
+	}
+	
+	@Override
+	public void onCardMoved(PlayerIdentity player, Position move) {
+		publish(GameEvent.CARD_MOVED, player, move, null);
+	}
+	
+	@Override
+	public void onCardDefeated(Position position, AttackType enemyAttackType) {
+		publish(GameEvent.CARD_DEFEATED, null, position, enemyAttackType);
+	}
+	
+	@Override
+	public void onTurnEnded() {
+		publish(GameEvent.TURN_ENDED, null, null, null);
+	}
+	
+	/**
+	 * Adds a subscriber to be sent every event published from now on
+	 * @param subscriber
+	 */
+	public synchronized void subscribe(GameControllerListener subscriber) {
+		GameControllerListener[] subscribers = Arrays.copyOf(mSubscribers, mSubscribers.length + 1);
+		subscribers[mSubscribers.length] = subscriber;
+		mSubscribers = subscribers;
+	}
+	
+	/**
+	 * Stops sending events to a subscriber, although it may still be sent the batch which is
+	 *  being dispatched
+	 * @param subscriber
+	 * @return false if it was not subscribed
+	 */
+	public synchronized boolean unsubscribe(GameControllerListener subscriber) {
+		List<GameControllerListener> subscribers = new ArrayList<GameControllerListener>(Arrays.asList(mSubscribers));
+		boolean removed = subscribers.remove(subscriber);
+		mSubscribers = subscribers.toArray(new GameControllerListener[subscribers.size()]);
+		return removed;
+	}
+	
+	/**
+	 * Gets the number of events which may be waiting for the subscribers at once
+	 * @return
+	 */
+	public int getCapacity() {
+		return mRing.length;
+	}
+	
+	/**
+	 * Gets what happens to new events while the ring is full
+	 * @return
+	 */
+	public BackpressurePolicy getBackpressurePolicy() {
+		return mPolicy;
+	}
+	
+	/**
+	 * Gets the number of events which were discarded, either because the ring was full or
+	 *  because they were published after the bus was closed
+	 * @return
+	 */
+	public long getDroppedCount() {
+		mLock.lock();
+		try {
+			return mDroppedCount;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Gets the number of events which took the place of a pending event while the ring was full
+	 * @return
+	 */
+	public long getCoalescedCount() {
+		mLock.lock();
+		try {
+			return mCoalescedCount;
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Waits until every event published so far has been sent to the subscribers
+	 * @throws InterruptedException
+	 */
+	public void flush() throws InterruptedException {
+		if (Thread.currentThread() == mConsumer) {
+			throw new IllegalStateException("subscribers cannot flush the bus");
+		}
+		mLock.lock();
+		try {
+			long target = mTail;
+			mNotEmpty.signal();
+			while (mDispatchedCount < target && mConsumer.isAlive()) {
+				mDispatched.await();
+			}
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Stops accepting events and waits for the consumer thread to send the ones still pending.
+	 *  If the calling thread is interrupted while waiting, it returns early with its interrupt
+	 *  status set, and the consumer goes on sending the pending events by itself.
+	 */
+	@Override
+	public void close() {
+		mLock.lock();
+		try {
+			mClosed = true;
+			mNotEmpty.signalAll();
+			mNotFull.signalAll();
+		} finally {
+			mLock.unlock();
+		}
+		if (Thread.currentThread() != mConsumer) {
+			try {
+				mConsumer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Copies an event into the ring, applying the backpressure policy if it is full. Under
+	 *  BLOCK, a publisher which is interrupted goes on waiting and returns with its interrupt
+	 *  status set.
+	 * @param type
+	 * @param player
+	 * @param position
+	 * @param attackType
+	 */
+	private void publish(int type, PlayerIdentity player, Position position, AttackType attackType) {
+		mLock.lock();
+		try {
+			while (!mClosed && mTail - mHead == mRing.length) {
+				if (mPolicy == BackpressurePolicy.BLOCK) {
+					// an interrupt is left set for after the event is published, rather than losing it
+					mNotFull.awaitUninterruptibly();
+					continue;
+				} else if (mPolicy == BackpressurePolicy.COALESCE && coalesce(type, player, position, attackType)) {
+					++mCoalescedCount;
+					return;
+				}
+				++mDroppedCount;
+				return;
+			}
+			if (mClosed) {
+				++mDroppedCount;
+				return;
+			}
+			
+			mRing[(int) mTail & mMask].set(type, player, position, attackType);
+			++mTail;
+			// the consumer is only woken once it has a whole batch or a whole turn to send
+			if (type == GameEvent.TURN_ENDED || mTail - mHead >= mBatch.length) {
+				mNotEmpty.signal();
+			}
+		} finally {
+			mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Overwrites the newest pending event for the same position if it is of the same kind, or
+	 *  the newest pending event if both are ends of turns. Nothing older is ever replaced, so
+	 *  subscribers still see the events of each position in order and events never move from
+	 *  one turn to another.
+	 * @param type
+	 * @param player
+	 * @param position
+	 * @param attackType
+	 * @return false if no event could be replaced
+	 */
+	private boolean coalesce(int type, PlayerIdentity player, Position position, AttackType attackType) {
+		for (long sequence = mTail - 1; sequence >= mHead; --sequence) {
+			GameEvent event = mRing[(int) sequence & mMask];
+			if (type == GameEvent.TURN_ENDED || event.getType() == GameEvent.TURN_ENDED || event.isAt(position)) {
+				if (event.getType() != type) {
+					return false;
+				}
+				event.set(type, player, position, attackType);
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Body of the consumer thread, which takes batches of events from the ring and sends them
+	 *  to the subscribers outside of the lock, until the bus is closed and the ring is empty
+	 */
+	private void consume() {
+		while (true) {
+			int count;
+			mLock.lock();
+			try {
+				if (mDispatchedCount != mHead) {
+					mDispatchedCount = mHead;
+					mDispatched.signalAll();
+				}
+				while (mHead == mTail && !mClosed) {
+					mNotEmpty.awaitUninterruptibly();
+				}
+				if (mHead == mTail) {
+					mDispatched.signalAll();
+					return;
+				}
+				
+				count = (int) Math.min(mTail - mHead, mBatch.length);
+				for (int i = 0; i < count; ++i) {
+					mBatch[i].copy(mRing[(int) (mHead + i) & mMask]);
+				}
+				mHead += count;
+				mNotFull.signalAll();
+			} finally {
+				mLock.unlock();
+			}
+			
+			GameControllerListener[] subscribers = mSubscribers;
+			for (int i = 0; i < count; ++i) {
+				for (GameControllerListener subscriber : subscribers) {
+					try {
+						mBatch[i].dispatch(subscriber);
+					} catch (RuntimeException e) {
+						// report it without losing the thread, so the other subscribers still hear of later events
+						mConsumer.getUncaughtExceptionHandler().uncaughtException(mConsumer, e);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Allocates empty event records
+	 * @param count
+	 * @return
+	 */
+	private static GameEvent[] createEvents(int count) {
+		GameEvent[] events = new GameEvent[count];
+		for (int i = 0; i < count; ++i) {
+			events[i] = new GameEvent();
+		}
+		return events;
+	}
+
+}
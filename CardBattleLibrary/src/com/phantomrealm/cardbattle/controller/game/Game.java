@@ -30,6 +30,11 @@ public class Game {
 			mBoard = board;
 		}
 		
+		/**
+		 * Sets the listener to be called on specific game events
+		 * @param listener null if no events should be dispatched at all
+		 * @return
+		 */
 		public Builder setGameControllerListener(GameControllerListener listener) {
 			mListener = listener;
 			return this;
@@ -43,10 +48,27 @@ public class Game {
 		
 	}
 	
+	/**
+	 * Result of step when neither player has won yet
+	 */
+	public static final int IN_PROGRESS = 0;
+	
+	/**
+	 * Result of step when the left player has won
+	 */
+	public static final int LEFT_PLAYER_WON = 1;
+	
+	/**
+	 * Result of step when the right player has won
+	 */
+	public static final int RIGHT_PLAYER_WON = 2;
+	
 	private Player mLeftPlayer;
 	private Player mRightPlayer;
 	private Board mBoard;
 	private PlayerIdentity mCurrentPlayer;
+	// null unless the listener also wants to know when each turn is over
+	private TurnListener mTurnListener;
 	
 	/**
 	 * Creates a game instance with the given players and board
@@ -63,10 +85,13 @@ public class Game {
 	
 	/**
 	 * Sets the listener to be called on specific game events
-	 * @param listener
+	 * @param listener null if no events should be dispatched at all, in which case the board
+	 *  skips building and sending them entirely. A TurnListener is also told at the end of
+	 *  every resolveBoard.
 	 */
 	public void setGameControllerListener(GameControllerListener listener) {
-		mBoard.setGameControllerListener(listener != null ? listener : new EmptyGameControllerListener());
+		mBoard.setGameControllerListener(listener);
+		mTurnListener = listener instanceof TurnListener ? (TurnListener) listener : null;
 	}
 
 	/**
@@ -90,11 +115,15 @@ public class Game {
 	
 	/**
 	 * The second step in each round of play
-	 *  Resolve all conflicts and, if necessary, stalemates on the board
+	 *  Resolve all conflicts and, if necessary, stalemates and super stalemates on the board
 	 */
 	public void resolveBoard() {
 		mBoard.resolveBoardConflicts();
 		mBoard.resolveBoardStalemates();
+		mBoard.resolveBoardSuperStalemate();
+		if (mTurnListener != null) {
+			mTurnListener.onTurnEnded();
+		}
 	}
 	
 	/**
@@ -119,4 +148,72 @@ public class Game {
 		return winner;
 	}
 	
+	/**
+	 * Plays a full round in one call: the next player takes their turn, the board is resolved,
+	 *  and the winner is checked, as takePlayerTurn, resolveBoard and getWinner would. Does
+	 *  nothing once the game has been won. The winner is worked out again at the start of every
+	 *  step, which costs next to nothing since the board keeps count of the rows each player
+	 *  controls, so the board and decks may also be changed between steps.
+	 * @return IN_PROGRESS, LEFT_PLAYER_WON or RIGHT_PLAYER_WON
+	 */
+	public int step() {
+		PlayerIdentity winner = getWinner();
+		if (winner != null) {
+			return getResult(winner);
+		}
+		return playRound();
+	}
+	
+	/**
+	 * Plays rounds until one of the players has won
+	 * @return the player who won
+	 */
+	public PlayerIdentity playToCompletion() {
+		int result = step();
+		// nothing else can change the board or decks until this returns, so the winner found at
+		//  the end of each round still holds at the start of the next
+		while (result == IN_PROGRESS) {
+			result = playRound();
+		}
+		return getWinner(result);
+	}
+	
+	/**
+	 * Plays a round of a game which has not been won yet
+	 * @return the result at the end of the round
+	 */
+	private int playRound() {
+		takePlayerTurn();
+		resolveBoard();
+		return getResult(getWinner());
+	}
+	
+	/**
+	 * Gets the player who has won according to a result of step
+	 * @param result
+	 * @return null if the result is IN_PROGRESS
+	 */
+	public static PlayerIdentity getWinner(int result) {
+		switch (result) {
+		case LEFT_PLAYER_WON:
+			return PlayerIdentity.LEFT_PLAYER;
+		case RIGHT_PLAYER_WON:
+			return PlayerIdentity.RIGHT_PLAYER;
+		default:
+			return null;
+		}
+	}
+	
+	/**
+	 * Gets the result of step for a given winner
+	 * @param winner may be null
+	 * @return
+	 */
+	private static int getResult(PlayerIdentity winner) {
+		if (winner == null) {
+			return IN_PROGRESS;
+		}
+		return winner == PlayerIdentity.LEFT_PLAYER ? LEFT_PLAYER_WON : RIGHT_PLAYER_WON;
+	}
+	
 }
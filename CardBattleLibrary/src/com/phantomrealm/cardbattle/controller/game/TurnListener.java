@@ -0,0 +1,14 @@
+package com.phantomrealm.cardbattle.controller.game;
+
+/**
+ * GameControllerListener which is also told when each turn of the game is over
+ * 
+ * @author matthewpape
+ */
+public interface TurnListener extends GameControllerListener {
+	/**
+	 * Signifies that a player has taken their turn and the board has been resolved, so all of
+	 *  the events of that turn have already been sent
+	 */
+	public void onTurnEnded();
+}
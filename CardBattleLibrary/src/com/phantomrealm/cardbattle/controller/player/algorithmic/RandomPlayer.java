@@ -7,6 +7,7 @@ import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
 import com.phantomrealm.cardbattle.model.board.Board;
 import com.phantomrealm.cardbattle.model.board.Position;
 import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.util.RandomSource;
 
 /**
  * A player who selects a psuedo-random position of the possible choices for its next move
@@ -14,6 +15,8 @@ import com.phantomrealm.cardbattle.model.deck.Deck;
  * @author matthewpape
  */
 public class RandomPlayer extends AlgorithmicPlayer {
+	
+	private Random mRandom;
 
 	/**
 	 * Creates a RandomPlayer with a given identity and deck
@@ -23,6 +26,23 @@ public class RandomPlayer extends AlgorithmicPlayer {
 	public RandomPlayer(PlayerIdentity identity, Deck deck) {
 		super(identity, deck);
 	}
+	
+	/**
+	 * Gets the generator the player picks its moves with
+	 * @return null if the player uses the RandomSource of the thread it is called on
+	 */
+	public Random getRandom() {
+		return mRandom;
+	}
+	
+	/**
+	 * Sets the generator the player picks its moves with
+	 * @param random which must not be shared with other threads, or null to use the
+	 *  RandomSource of the thread the player is called on
+	 */
+	public void setRandom(Random random) {
+		mRandom = random;
+	}
 
 	/* (non-Javadoc)
 	 * @see com.phantomrealm.cardbattle.model.player.algorithmic.AlgorithmicPlayer#generateMove()
@@ -30,7 +50,7 @@ public class RandomPlayer extends AlgorithmicPlayer {
 	@Override
 	protected Position generateMove(Board board) {
 		List<Position> availableMoves = board.getPossibleMoves(getIdentity());
-		Random randomGenerator = new Random();
+		Random randomGenerator = RandomSource.orCurrent(mRandom);
 		return availableMoves.get(randomGenerator.nextInt(availableMoves.size()));
 	}
 
@@ -0,0 +1,205 @@
+package com.phantomrealm.cardbattle.controller.player.mcts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Position;
+
+/**
+ * A position in the tree of a Monte Carlo search, reached by a single move from its parent.
+ *  Nodes are only ever updated by one thread at a time.
+ *
+ * @author matthewpape
+ */
+class MonteCarloNode {
+	
+	private MonteCarloNode mParent;
+	private final Position mMove;
+	private final PlayerIdentity mMover;
+	private final long mKey;
+	private final PlayerIdentity mWinner;
+	private final List<MonteCarloNode> mChildren;
+	private List<Position> mUntriedMoves;
+	private int mVisits;
+	private int mWins;
+	
+	/**
+	 * Creates a node for the position reached by a given move
+	 * @param parent null for the root of the tree
+	 * @param move null for the root of the tree
+	 * @param mover the player who made the move, or the player who moved last for the root
+	 * @param key identifies the position reached by the move
+	 * @param winner the player who won the game with the move, or null if the game goes on
+	 */
+	MonteCarloNode(MonteCarloNode parent, Position move, PlayerIdentity mover, long key, PlayerIdentity winner) {
+		mParent = parent;
+		mMove = move;
+		mMover = mover;
+		mKey = key;
+		mWinner = winner;
+		mChildren = new ArrayList<MonteCarloNode>();
+	}
+	
+	/**
+	 * Gets the node this node was reached from
+	 * @return null for the root of the tree
+	 */
+	MonteCarloNode getParent() {
+		return mParent;
+	}
+	
+	/**
+	 * Gets the move which leads to this node from its parent
+	 * @return
+	 */
+	Position getMove() {
+		return mMove;
+	}
+	
+	/**
+	 * Gets the player who made the move which leads to this node
+	 * @return
+	 */
+	PlayerIdentity getMover() {
+		return mMover;
+	}
+	
+	/**
+	 * Gets the key which identifies the position of this node
+	 * @return
+	 */
+	long getKey() {
+		return mKey;
+	}
+	
+	/**
+	 * Gets the player who won the game by reaching this node
+	 * @return null if the game goes on
+	 */
+	PlayerIdentity getWinner() {
+		return mWinner;
+	}
+	
+	/**
+	 * Gets the nodes which have been expanded from this node, in the order they were expanded
+	 * @return
+	 */
+	List<MonteCarloNode> getChildren() {
+		return mChildren;
+	}
+	
+	/**
+	 * Gets the number of playouts which passed through this node
+	 * @return
+	 */
+	int getVisits() {
+		return mVisits;
+	}
+	
+	/**
+	 * Gets the number of playouts through this node which were won by the player who moved
+	 *  into it
+	 * @return
+	 */
+	int getWins() {
+		return mWins;
+	}
+	
+	/**
+	 * Indicates whether or not the moves of this node have been listed yet
+	 * @return
+	 */
+	boolean hasUntriedMoves() {
+		return mUntriedMoves != null;
+	}
+	
+	/**
+	 * Sets the moves which may be expanded from this node, in the order they should be tried
+	 * @param moves
+	 */
+	void setUntriedMoves(List<Position> moves) {
+		mUntriedMoves = moves;
+	}
+	
+	/**
+	 * Indicates whether or not every move from this node has been expanded
+	 * @return
+	 */
+	boolean isFullyExpanded() {
+		return mUntriedMoves != null && mUntriedMoves.isEmpty();
+	}
+	
+	/**
+	 * Removes the next move which has not been expanded yet
+	 * @return
+	 */
+	Position takeUntriedMove() {
+		return mUntriedMoves.remove(0);
+	}
+	
+	/**
+	 * Adds a child for a move which has just been expanded
+	 * @param child
+	 */
+	void addChild(MonteCarloNode child) {
+		mChildren.add(child);
+	}
+	
+	/**
+	 * Selects the child with the highest upper confidence bound (UCT), which balances playouts
+	 *  between the children which have won the most and the children which have been tried
+	 *  the least. Ties go to the earliest child.
+	 * @param exploration weight given to trying less visited children
+	 * @return
+	 */
+	MonteCarloNode selectChild(double exploration) {
+		MonteCarloNode bestChild = null;
+		double bestBound = Double.NEGATIVE_INFINITY;
+		double logVisits = Math.log(mVisits);
+		for (MonteCarloNode child : mChildren) {
+			double bound = (double) child.mWins / child.mVisits + exploration * Math.sqrt(logVisits / child.mVisits);
+			if (bound > bestBound) {
+				bestBound = bound;
+				bestChild = child;
+			}
+		}
+		return bestChild;
+	}
+	
+	/**
+	 * Records the results of playouts which passed through this node
+	 * @param visits
+	 * @param wins the number of the playouts won by the player who moved into this node
+	 */
+	void update(int visits, int wins) {
+		mVisits += visits;
+		mWins += wins;
+	}
+	
+	/**
+	 * Finds a node two moves below this one which represents a given position, so that the
+	 *  playouts through it may be reused
+	 * @param key
+	 * @return null if no such node has been expanded
+	 */
+	MonteCarloNode findGrandchild(long key) {
+		for (MonteCarloNode child : mChildren) {
+			for (MonteCarloNode grandchild : child.mChildren) {
+				if (grandchild.mKey == key) {
+					return grandchild;
+				}
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Detaches this node from its parent, so that it may become the root of a new tree and the
+	 *  rest of the old tree may be discarded
+	 */
+	void detach() {
+		mParent = null;
+	}
+
+}
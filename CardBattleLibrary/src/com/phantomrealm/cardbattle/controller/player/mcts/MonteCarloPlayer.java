@@ -0,0 +1,323 @@
+package com.phantomrealm.cardbattle.controller.player.mcts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.phantomrealm.cardbattle.controller.player.BasePlayer;
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+
+/**
+ * A player who uses Monte Carlo tree search to pick its next move. Rather than searching every
+ *  move to a fixed depth, the player plays out many games to the end, spending more playouts on
+ *  the moves which have won the most so far. This scales to boards which are too tall for a
+ *  MiniMaxPlayer to look more than a couple of moves ahead.
+ *
+ * @author matthewpape
+ */
+public class MonteCarloPlayer extends BasePlayer {
+	
+	private static final int DEFAULT_ITERATION_BUDGET = 1000;
+	private static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+	private static final RolloutPolicy DEFAULT_ROLLOUT_POLICY = RolloutPolicy.RANDOM;
+	private static final ParallelMode DEFAULT_PARALLEL_MODE = ParallelMode.ROOT;
+	private static final long NANOS_PER_MILLI = 1000000L;
+	private int mIterationBudget;
+	private long mTimeBudget;
+	private double mExploration;
+	private RolloutPolicy mRolloutPolicy;
+	private ForkJoinPool mForkJoinPool;
+	private ParallelMode mParallelMode;
+	private boolean mReusingTree;
+	private MonteCarloNode[] mRoots;
+	private int mIterationCount;
+	
+	/**
+	 * Creates a new Monte Carlo player with a default iteration budget
+	 * @param identity
+	 * @param deck
+	 */
+	public MonteCarloPlayer(PlayerIdentity identity, Deck deck) {
+		this(identity, deck, DEFAULT_ITERATION_BUDGET);
+	}
+	
+	/**
+	 * Creates a new Monte Carlo player with a given iteration budget
+	 * @param identity
+	 * @param deck
+	 * @param iterationBudget must be >= 1
+	 */
+	public MonteCarloPlayer(PlayerIdentity identity, Deck deck, int iterationBudget) {
+		super(identity, deck);
+		mIterationBudget = Math.max(iterationBudget, 1);
+		mExploration = DEFAULT_EXPLORATION;
+		mRolloutPolicy = DEFAULT_ROLLOUT_POLICY;
+		mParallelMode = DEFAULT_PARALLEL_MODE;
+		mReusingTree = true;
+	}
+	
+	/**
+	 * Gets the number of iterations performed for each call to getMove
+	 * @return
+	 */
+	public int getIterationBudget() {
+		return mIterationBudget;
+	}
+	
+	/**
+	 * Sets the number of iterations performed for each call to getMove, each of which plays out
+	 *  one game (or one game per thread, for ParallelMode.LEAF)
+	 * @param iterationBudget must be >= 1
+	 */
+	public void setIterationBudget(int iterationBudget) {
+		mIterationBudget = Math.max(iterationBudget, 1);
+	}
+	
+	/**
+	 * Gets the time allowed for each call to getMove
+	 * @return milliseconds, or 0 if the search is limited by iterations instead
+	 */
+	public long getTimeBudget() {
+		return mTimeBudget;
+	}
+	
+	/**
+	 * Sets the time allowed for each call to getMove. With a time budget, the iteration budget
+	 *  is ignored and getMove instead performs iterations until the budget runs out. At least
+	 *  one iteration is always performed.
+	 * @param milliseconds 0 or less limits the search by iterations instead
+	 */
+	public void setTimeBudget(long milliseconds) {
+		mTimeBudget = Math.max(milliseconds, 0);
+	}
+	
+	/**
+	 * Gets the weight given to trying less visited moves when selecting a path down the tree
+	 * @return
+	 */
+	public double getExploration() {
+		return mExploration;
+	}
+	
+	/**
+	 * Sets the weight given to trying less visited moves when selecting a path down the tree.
+	 *  Higher values spread playouts more evenly, lower values focus on the moves which have
+	 *  won the most so far.
+	 * @param exploration negative values restore the default (the square root of 2)
+	 */
+	public void setExploration(double exploration) {
+		mExploration = exploration >= 0 ? exploration : DEFAULT_EXPLORATION;
+	}
+	
+	/**
+	 * Gets the policy used to pick moves while playing out games
+	 * @return
+	 */
+	public RolloutPolicy getRolloutPolicy() {
+		return mRolloutPolicy;
+	}
+	
+	/**
+	 * Sets the policy used to pick moves while playing out games
+	 * @param rolloutPolicy null restores the default policy (RANDOM)
+	 */
+	public void setRolloutPolicy(RolloutPolicy rolloutPolicy) {
+		mRolloutPolicy = rolloutPolicy != null ? rolloutPolicy : DEFAULT_ROLLOUT_POLICY;
+	}
+	
+	/**
+	 * Gets the pool used to play out games in parallel
+	 * @return null if games are played out one at a time
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		return mForkJoinPool;
+	}
+	
+	/**
+	 * Sets the pool used to play out games in parallel, one per thread of the pool. A pool may
+	 *  be shared between players.
+	 * @param forkJoinPool null plays out games one at a time
+	 */
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		mForkJoinPool = forkJoinPool;
+		mRoots = null;
+	}
+	
+	/**
+	 * Gets the way playouts are spread between the threads of the pool
+	 * @return
+	 */
+	public ParallelMode getParallelMode() {
+		return mParallelMode;
+	}
+	
+	/**
+	 * Sets the way playouts are spread between the threads of the pool
+	 * @param parallelMode null restores the default mode (ROOT)
+	 */
+	public void setParallelMode(ParallelMode parallelMode) {
+		mParallelMode = parallelMode != null ? parallelMode : DEFAULT_PARALLEL_MODE;
+		mRoots = null;
+	}
+	
+	/**
+	 * Indicates whether or not the tree is kept between calls to getMove
+	 * @return
+	 */
+	public boolean isReusingTree() {
+		return mReusingTree;
+	}
+	
+	/**
+	 * Sets whether or not the tree is kept between calls to getMove. When kept, the playouts
+	 *  already made through the current position are reused, as long as the position was reached
+	 *  by the player's previous move and a reply which had been expanded. Positions are identified
+	 *  by the board and the number of cards left in each deck, so the tree should be cleared
+	 *  before a new game against a different deck.
+	 * @param reusingTree
+	 */
+	public void setReusingTree(boolean reusingTree) {
+		mReusingTree = reusingTree;
+		mRoots = null;
+	}
+	
+	/**
+	 * Discards the tree kept from previous calls to getMove
+	 */
+	public void clearTree() {
+		mRoots = null;
+	}
+	
+	/**
+	 * Gets the number of iterations performed during the most recent call to getMove
+	 * @return
+	 */
+	public int getIterationCount() {
+		return mIterationCount;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.phantomrealm.cardbattle.model.player.BasePlayer#getMove(com.phantomrealm.cardbattle.model.board.Board, com.phantomrealm.cardbattle.model.deck.Deck)
+	 */
+	@Override
+	public Position getMove(Board board, Deck opponentDeck) {
+		long deadline = System.nanoTime() + mTimeBudget * NANOS_PER_MILLI;
+		long key = MonteCarloState.getPositionKey(board, getDeck().size(), opponentDeck.size());
+		boolean rootParallel = mForkJoinPool != null && mParallelMode == ParallelMode.ROOT;
+		int treeCount = rootParallel ? mForkJoinPool.getParallelism() : 1;
+		MonteCarloNode[] roots = new MonteCarloNode[treeCount];
+		for (int i = 0; i < treeCount; ++i) {
+			roots[i] = findRoot(i, key);
+		}
+		
+		if (rootParallel) {
+			// the iteration budget is shared between trees, rounding up
+			int iterations = (mIterationBudget + treeCount - 1) / treeCount;
+			mIterationCount = searchInParallel(board, opponentDeck, roots, iterations, deadline);
+		} else {
+			MonteCarloState state = new MonteCarloState(getIdentity(), board, getDeck(), opponentDeck);
+			MonteCarloSearch search = new MonteCarloSearch(this, state, roots[0], mForkJoinPool);
+			search.run(mTimeBudget > 0 ? 0 : mIterationBudget, mTimeBudget > 0, deadline);
+			mIterationCount = search.getIterationCount();
+		}
+		mRoots = mReusingTree ? roots : null;
+		return getMostVisitedMove(board, roots);
+	}
+	
+	/**
+	 * Grows a separate tree on each thread of the pool
+	 * @param board
+	 * @param opponentDeck
+	 * @param roots the root of each tree
+	 * @param iterations the number of iterations for each tree
+	 * @param deadline value of System.nanoTime() at which the search stops
+	 * @return the total number of iterations performed
+	 */
+	private int searchInParallel(Board board, Deck opponentDeck, MonteCarloNode[] roots, final int iterations, final long deadline) {
+		final List<MonteCarloSearch> searches = new ArrayList<MonteCarloSearch>();
+		for (MonteCarloNode root : roots) {
+			MonteCarloState state = new MonteCarloState(getIdentity(), board, getDeck(), opponentDeck);
+			searches.add(new MonteCarloSearch(this, state, root, null));
+		}
+		final boolean timed = mTimeBudget > 0;
+		mForkJoinPool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected void compute() {
+				List<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+				for (final MonteCarloSearch search : searches) {
+					tasks.add(new RecursiveAction() {
+						private static final long serialVersionUID = 1L;
+						
+						@Override
+						protected void compute() {
+							search.run(timed ? 0 : iterations, timed, deadline);
+						}
+					});
+				}
+				invokeAll(tasks);
+			}
+		});
+		int iterationCount = 0;
+		for (MonteCarloSearch search : searches) {
+			iterationCount += search.getIterationCount();
+		}
+		return iterationCount;
+	}
+	
+	/**
+	 * Finds the root for a tree in the given position, reusing the tree kept from the previous
+	 *  call to getMove if it reached this position
+	 * @param index the index of the tree, for ParallelMode.ROOT
+	 * @param key identifies the current position
+	 * @return
+	 */
+	private MonteCarloNode findRoot(int index, long key) {
+		if (mRoots != null && index < mRoots.length) {
+			MonteCarloNode oldRoot = mRoots[index];
+			if (oldRoot.getKey() == key) {
+				return oldRoot;
+			}
+			MonteCarloNode root = oldRoot.findGrandchild(key);
+			if (root != null) {
+				root.detach();
+				return root;
+			}
+		}
+		// the root stands for the opponent's last move, so that the player moves next
+		return new MonteCarloNode(null, null, PlayerIdentity.not(getIdentity()), key, null);
+	}
+	
+	/**
+	 * Gets the move which was played out the most, adding up the visits from every tree. Ties
+	 *  go to the earliest move.
+	 * @param board
+	 * @param roots
+	 * @return
+	 */
+	private Position getMostVisitedMove(Board board, MonteCarloNode[] roots) {
+		Position bestMove = null;
+		int bestVisits = -1;
+		for (Position move : board.getPossibleMoves(getIdentity())) {
+			int visits = 0;
+			for (MonteCarloNode root : roots) {
+				for (MonteCarloNode child : root.getChildren()) {
+					if (child.getMove().equals(move)) {
+						visits += child.getVisits();
+					}
+				}
+			}
+			if (visits > bestVisits) {
+				bestVisits = visits;
+				bestMove = move;
+			}
+		}
+		return bestMove;
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.phantomrealm.cardbattle.controller.player.mcts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Position;
+
+/**
+ * Grows a single Monte Carlo tree on behalf of a MonteCarloPlayer. Each iteration selects a
+ *  path down the tree by UCT, expands one new node, plays out the game from that node, and
+ *  adds the result to every node on the path.
+ *
+ * @author matthewpape
+ */
+class MonteCarloSearch {
+	
+	private final PlayerIdentity mIdentity;
+	private final RolloutPolicy mRolloutPolicy;
+	private final double mExploration;
+	private final ForkJoinPool mLeafPool;
+	private final MonteCarloState mState;
+	private final MonteCarloNode mRoot;
+	private int mIterationCount;
+	
+	/**
+	 * Creates a search using the settings of a given player
+	 * @param player
+	 * @param state the game in the position of the root, which is restored after every iteration
+	 * @param root
+	 * @param leafPool used to play out each new node once per thread, or null to play it out once
+	 */
+	MonteCarloSearch(MonteCarloPlayer player, MonteCarloState state, MonteCarloNode root, ForkJoinPool leafPool) {
+		mIdentity = player.getIdentity();
+		mRolloutPolicy = player.getRolloutPolicy();
+		mExploration = player.getExploration();
+		mLeafPool = leafPool;
+		mState = state;
+		mRoot = root;
+	}
+	
+	/**
+	 * Gets the number of iterations performed by this search
+	 * @return
+	 */
+	int getIterationCount() {
+		return mIterationCount;
+	}
+	
+	/**
+	 * Performs iterations until either budget runs out. At least one iteration is always performed.
+	 * @param iterations 0 or less for no limit on the number of iterations
+	 * @param checkDeadline false if only the number of iterations is limited
+	 * @param deadline value of System.nanoTime() at which the search stops
+	 */
+	void run(int iterations, boolean checkDeadline, long deadline) {
+		while (iterations <= 0 || mIterationCount < iterations) {
+			if (checkDeadline && mIterationCount > 0 && System.nanoTime() - deadline >= 0) {
+				break;
+			}
+			iterate();
+			++mIterationCount;
+		}
+	}
+	
+	/**
+	 * Performs a single iteration of selection, expansion, playout and backpropagation
+	 */
+	private void iterate() {
+		// selection
+		MonteCarloNode node = mRoot;
+		while (node.getWinner() == null && node.isFullyExpanded() && !node.getChildren().isEmpty()) {
+			node = node.selectChild(mExploration);
+			mState.applyMove(node.getMover(), node.getMove());
+		}
+		
+		// expansion
+		if (node.getWinner() == null) {
+			PlayerIdentity nextPlayer = PlayerIdentity.not(node.getMover());
+			if (!node.hasUntriedMoves()) {
+				node.setUntriedMoves(mState.getPossibleMoves(nextPlayer));
+			}
+			if (!node.isFullyExpanded()) {
+				Position move = node.takeUntriedMove();
+				PlayerIdentity winner = mState.applyMove(nextPlayer, move);
+				MonteCarloNode child = new MonteCarloNode(node, move, nextPlayer, mState.getPositionKey(), winner);
+				node.addChild(child);
+				node = child;
+			}
+		}
+		
+		// playout
+		int visits = 1;
+		int wins;
+		if (node.getWinner() != null) {
+			wins = node.getWinner() == mIdentity ? 1 : 0;
+		} else if (mLeafPool == null) {
+			wins = mState.rollout(PlayerIdentity.not(node.getMover()), mRolloutPolicy) == mIdentity ? 1 : 0;
+		} else {
+			visits = mLeafPool.getParallelism();
+			wins = rolloutInParallel(PlayerIdentity.not(node.getMover()), visits);
+		}
+		mState.restore();
+		
+		// backpropagation
+		for (; node != null; node = node.getParent()) {
+			node.update(visits, node.getMover() == mIdentity ? wins : visits - wins);
+		}
+	}
+	
+	/**
+	 * Plays out the game from the current state a number of times at once, on copies of the state
+	 * @param nextPlayer the player to move next
+	 * @param rollouts
+	 * @return the number of playouts won by the player searching for a move
+	 */
+	private int rolloutInParallel(PlayerIdentity nextPlayer, int rollouts) {
+		final List<RolloutTask> tasks = new ArrayList<RolloutTask>();
+		for (int i = 0; i < rollouts; ++i) {
+			tasks.add(new RolloutTask(mState.copy(), nextPlayer));
+		}
+		mLeafPool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+		int wins = 0;
+		for (RolloutTask task : tasks) {
+			if (task.getRawResult() == mIdentity) {
+				++wins;
+			}
+		}
+		return wins;
+	}
+	
+	/**
+	 * Task which plays out the game once from a copy of the state
+	 *
+	 * @author matthewpape
+	 */
+	private class RolloutTask extends RecursiveTask<PlayerIdentity> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final MonteCarloState mRolloutState;
+		private final PlayerIdentity mNextPlayer;
+		
+		RolloutTask(MonteCarloState rolloutState, PlayerIdentity nextPlayer) {
+			mRolloutState = rolloutState;
+			mNextPlayer = nextPlayer;
+		}
+		
+		@Override
+		protected PlayerIdentity compute() {
+			return mRolloutState.rollout(mNextPlayer, mRolloutPolicy);
+		}
+	
+	}
+
+}
@@ -0,0 +1,163 @@
+package com.phantomrealm.cardbattle.controller.player.mcts;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.board.ZobristHash;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckCursor;
+import com.phantomrealm.cardbattle.util.RandomSource;
+
+/**
+ * A working copy of a game used by a Monte Carlo search. Moves are applied to the copy as the
+ *  search descends the tree and plays out games, and are undone once each playout is over.
+ *
+ * @author matthewpape
+ */
+class MonteCarloState {
+	
+	private static final int INITIAL_JOURNAL_CAPACITY = 64;
+	
+	private final PlayerIdentity mIdentity;
+	private final Board mBoard;
+	private final DeckCursor mPlayerDeck;
+	private final DeckCursor mOpponentDeck;
+	private int mJournalSize;
+	private int[] mUndoMarkers;
+	private PlayerIdentity[] mUndoPlayers;
+	private final int[] mMoveBuffer;
+	
+	/**
+	 * Creates a working copy of a game
+	 * @param identity the player searching for a move
+	 * @param board is not modified
+	 * @param playerDeck is not modified
+	 * @param opponentDeck is not modified
+	 */
+	MonteCarloState(PlayerIdentity identity, Board board, Deck playerDeck, Deck opponentDeck) {
+		this(identity, board, new DeckCursor(playerDeck), new DeckCursor(opponentDeck));
+	}
+	
+	/**
+	 * Creates a working copy of a game from cursors over the decks
+	 * @param identity the player searching for a move
+	 * @param board is not modified
+	 * @param playerDeck is not modified
+	 * @param opponentDeck is not modified
+	 */
+	private MonteCarloState(PlayerIdentity identity, Board board, DeckCursor playerDeck, DeckCursor opponentDeck) {
+		mIdentity = identity;
+		mBoard = board.clone();
+		mPlayerDeck = playerDeck.fork();
+		mOpponentDeck = opponentDeck.fork();
+		mUndoMarkers = new int[INITIAL_JOURNAL_CAPACITY];
+		mUndoPlayers = new PlayerIdentity[INITIAL_JOURNAL_CAPACITY];
+		mMoveBuffer = new int[board.getHeight()];
+	}
+	
+	/**
+	 * Creates another working copy of the game in its current state
+	 * @return
+	 */
+	MonteCarloState copy() {
+		return new MonteCarloState(mIdentity, mBoard, mPlayerDeck, mOpponentDeck);
+	}
+	
+	/**
+	 * Gets the key which identifies the current position of the game
+	 * @return
+	 */
+	long getPositionKey() {
+		return getPositionKey(mBoard, mPlayerDeck.size(), mOpponentDeck.size());
+	}
+	
+	/**
+	 * Gets the key which identifies a position of a game. Cards are only ever drawn from the top
+	 *  of a deck, so the number of cards left stands in for the cards still to come.
+	 * @param board
+	 * @param playerCards the number of cards left to the player searching for a move
+	 * @param opponentCards the number of cards left to the opponent
+	 * @return
+	 */
+	static long getPositionKey(Board board, int playerCards, int opponentCards) {
+		return board.getHash() ^ ZobristHash.mix(((long) playerCards << 32) | opponentCards);
+	}
+	
+	/**
+	 * Gets the moves available to a given player
+	 * @param player
+	 * @return
+	 */
+	List<Position> getPossibleMoves(PlayerIdentity player) {
+		return mBoard.getPossibleMoves(player);
+	}
+	
+	/**
+	 * Plays the next card of a given player in a given position, and resolves the board
+	 * @param player
+	 * @param move
+	 * @return the player who won the game with the move, or null if the game goes on
+	 */
+	PlayerIdentity applyMove(PlayerIdentity player, Position move) {
+		DeckCursor deck = player == mIdentity ? mPlayerDeck : mOpponentDeck;
+		DeckCursor otherDeck = player == mIdentity ? mOpponentDeck : mPlayerDeck;
+		if (mJournalSize == mUndoMarkers.length) {
+			int capacity = mJournalSize * 2;
+			mUndoMarkers = Arrays.copyOf(mUndoMarkers, capacity);
+			mUndoPlayers = Arrays.copyOf(mUndoPlayers, capacity);
+		}
+		Card card = deck.pop();
+		mUndoMarkers[mJournalSize] = mBoard.applyMove(card, player, move);
+		mUndoPlayers[mJournalSize] = player;
+		++mJournalSize;
+		
+		PlayerIdentity winner = mBoard.getWinner();
+		if (winner == null && otherDeck.isEmpty()) {
+			// the next player has no cards left to play, and therefore forfeits
+			winner = player;
+		}
+		return winner;
+	}
+	
+	/**
+	 * Undoes every move applied since the state was created or last restored
+	 */
+	void restore() {
+		while (mJournalSize > 0) {
+			--mJournalSize;
+			mBoard.undoMove(mUndoMarkers[mJournalSize]);
+			DeckCursor deck = mUndoPlayers[mJournalSize] == mIdentity ? mPlayerDeck : mOpponentDeck;
+			deck.undoPop();
+		}
+	}
+	
+	/**
+	 * Plays out the rest of the game, leaving the state at the end of the game until it is
+	 *  restored
+	 * @param nextPlayer the player to move next
+	 * @param rolloutPolicy
+	 * @return the player who won the game
+	 */
+	PlayerIdentity rollout(PlayerIdentity nextPlayer, RolloutPolicy rolloutPolicy) {
+		PlayerIdentity player = nextPlayer;
+		Random random = RandomSource.current();
+		while (true) {
+			int moveCount = mBoard.getPossibleMoves(player, mMoveBuffer);
+			if (moveCount == 0) {
+				return PlayerIdentity.not(player);
+			}
+			int index = rolloutPolicy == RolloutPolicy.RANDOM ? random.nextInt(moveCount) : 0;
+			PlayerIdentity winner = applyMove(player, mBoard.getPosition(mMoveBuffer[index]));
+			if (winner != null) {
+				return winner;
+			}
+			player = PlayerIdentity.not(player);
+		}
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.phantomrealm.cardbattle.controller.player.mcts;
+
+/**
+ * Determines how a MonteCarloPlayer spreads its playouts between threads
+ *
+ * @author matthewpape
+ */
+public enum ParallelMode {
+	/**
+	 * Each thread grows a separate tree from the current position, and the visits to each move
+	 *  are added up across trees once the budget runs out
+	 */
+	ROOT,
+	
+	/**
+	 * A single tree is grown, and each newly expanded node is played out once per thread at
+	 *  the same time
+	 */
+	LEAF
+}
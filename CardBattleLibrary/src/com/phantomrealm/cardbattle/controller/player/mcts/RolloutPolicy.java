@@ -0,0 +1,19 @@
+package com.phantomrealm.cardbattle.controller.player.mcts;
+
+/**
+ * Determines how moves are picked while playing out a game from a node of a Monte Carlo search
+ *
+ * @author matthewpape
+ */
+public enum RolloutPolicy {
+	/**
+	 * Each move is picked at random from the possible moves, as by a RandomPlayer
+	 */
+	RANDOM,
+	
+	/**
+	 * Each move is the first of the possible moves, as by an OrderedPlayer. Playouts are
+	 *  cheaper and repeatable, but every playout from the same node has the same result.
+	 */
+	ORDERED
+}
@@ -34,17 +34,7 @@ public class CardCountDisparityPlayer extends MiniMaxPlayer {
 	@Override
 	protected int evaluate(Board board) {
 		int rank = 1 + board.getHeight() * board.getWidth();
-		for (int row = 0; row < board.getHeight(); ++row) {
-			for (int col = 0; col < board.getWidth(); ++col) {
-				PlayerIdentity owner = board.getBoardSlot(row, col).getOwner();
-				if (owner == getIdentity()) {
-					++rank;
-				} else if (owner == (PlayerIdentity.not(getIdentity()))) {
-					--rank;
-				}
-			}
-		}
-		return rank;
+		return rank + board.getCardCount(getIdentity()) - board.getCardCount(PlayerIdentity.not(getIdentity()));
 	}
 
 }
@@ -32,15 +32,7 @@ public class CardCountPlayer extends MiniMaxPlayer {
 
 	@Override
 	protected int evaluate(Board board) {
-		int cards = 0;
-		for (int row = 0; row < board.getHeight(); ++row) {
-			for (int col = 0; col < board.getWidth(); ++col) {
-				if (board.getBoardSlot(row, col).getOwner() == getIdentity()) {
-					++cards;
-				}
-			}
-		}
-		return cards;
+		return board.getCardCount(getIdentity());
 	}
 
 }
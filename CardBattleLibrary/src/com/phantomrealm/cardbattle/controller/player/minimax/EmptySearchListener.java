@@ -0,0 +1,14 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+/**
+ * SearchListener which takes no action
+ * 
+ * @author matthewpape
+ */
+public class EmptySearchListener implements SearchListener {
+
+	@Override
+	public void onSearchCompleted(MiniMaxPlayer player, SearchStatistics statistics) {
+	}
+
+}
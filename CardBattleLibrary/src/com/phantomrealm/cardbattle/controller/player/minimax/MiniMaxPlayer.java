@@ -1,10 +1,13 @@
 package com.phantomrealm.cardbattle.controller.player.minimax;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ForkJoinPool;
+
 import com.phantomrealm.cardbattle.controller.player.BasePlayer;
 import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
 import com.phantomrealm.cardbattle.model.board.Board;
 import com.phantomrealm.cardbattle.model.board.Position;
-import com.phantomrealm.cardbattle.model.card.Card;
 import com.phantomrealm.cardbattle.model.deck.Deck;
 
 /**
@@ -15,7 +18,20 @@ import com.phantomrealm.cardbattle.model.deck.Deck;
 public abstract class MiniMaxPlayer extends BasePlayer {
 	
 	private static final int DEFAULT_DEPTH = 1;
+	private static final SearchMode DEFAULT_SEARCH_MODE = SearchMode.EXHAUSTIVE;
+	private static final long NANOS_PER_MILLI = 1000000L;
 	private int mDepth;
+	private SearchMode mSearchMode;
+	private TranspositionTable mTranspositionTable;
+	private long mTimeBudget;
+	private ForkJoinPool mForkJoinPool;
+	private boolean mSplitReplies;
+	private MoveOrdering mMoveOrdering;
+	private OpeningBook mOpeningBook;
+	private SearchListener mSearchListener;
+	private SearchStatistics mStatistics;
+	private boolean mOutOfTime;
+	private boolean mDepthLimitReached;
 	
 	/**
 	 * Creates a new minimax player with a default depth
@@ -35,6 +51,9 @@ public abstract class MiniMaxPlayer extends BasePlayer {
 	public MiniMaxPlayer(PlayerIdentity identity, Deck deck, int depth) {
 		super(identity, deck);
 		mDepth = Math.max(depth, DEFAULT_DEPTH);
+		mSearchMode = DEFAULT_SEARCH_MODE;
+		mSearchListener = new EmptySearchListener();
+		mStatistics = new SearchStatistics();
 	}
 	
 	/**
@@ -44,118 +63,313 @@ public abstract class MiniMaxPlayer extends BasePlayer {
 	private int getDepth() {
 		return mDepth;
 	}
+	
+	/**
+	 * Gets the mode used to explore the tree of possible moves
+	 * @return
+	 */
+	public SearchMode getSearchMode() {
+		return mSearchMode;
+	}
+	
+	/**
+	 * Sets the mode used to explore the tree of possible moves
+	 * @param searchMode null restores the default mode (EXHAUSTIVE)
+	 */
+	public void setSearchMode(SearchMode searchMode) {
+		mSearchMode = searchMode != null ? searchMode : DEFAULT_SEARCH_MODE;
+	}
+	
+	/**
+	 * Gets the table used to remember previously searched positions
+	 * @return null if positions are not remembered
+	 */
+	public TranspositionTable getTranspositionTable() {
+		return mTranspositionTable;
+	}
+	
+	/**
+	 * Sets the table used to remember previously searched positions, so that positions reached
+	 *  through different orders of moves are only searched once. Positions are identified by the
+	 *  board and the number of cards left in each deck, so the table must not be shared between
+	 *  players, and must be cleared before it is used for a game against a different deck.
+	 * @param transpositionTable null disables the table
+	 */
+	public void setTranspositionTable(TranspositionTable transpositionTable) {
+		mTranspositionTable = transpositionTable;
+	}
+	
+	/**
+	 * Gets the time allowed for each call to getMove
+	 * @return milliseconds, or 0 if the search is limited by depth instead
+	 */
+	public long getTimeBudget() {
+		return mTimeBudget;
+	}
+	
+	/**
+	 * Sets the time allowed for each call to getMove. With a time budget, the fixed depth is
+	 *  ignored and getMove instead searches to depth 1, 2, 3... until the budget runs out,
+	 *  returning the best move of the deepest search which was completed. A search to depth 1
+	 *  is always completed, however small the budget.
+	 * @param milliseconds 0 or less limits the search by depth instead
+	 */
+	public void setTimeBudget(long milliseconds) {
+		mTimeBudget = Math.max(milliseconds, 0);
+	}
+	
+	/**
+	 * Gets the pool used to search moves in parallel
+	 * @return null if moves are searched one at a time
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		return mForkJoinPool;
+	}
+	
+	/**
+	 * Sets the pool used to search moves in parallel. Each of the moves available to the player
+	 *  is searched as a separate task, and the same move is chosen as when searching one move
+	 *  at a time. A pool may be shared between players, but evaluate must be safe to call from
+	 *  several threads at once.
+	 * @param forkJoinPool null searches moves one at a time
+	 */
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		mForkJoinPool = forkJoinPool;
+	}
+	
+	/**
+	 * Indicates whether or not each reply of the opponent is searched as a separate task, which
+	 *  is off unless setSplittingReplies has turned it on
+	 * @return
+	 */
+	public boolean isSplittingReplies() {
+		return mSplitReplies;
+	}
+	
+	/**
+	 * Sets whether or not each reply of the opponent is searched as a separate task when searching
+	 *  in parallel. This is experimental, and off by default. It creates more tasks for boards
+	 *  with few rows, but the replies no longer share alpha-beta bounds, so far more nodes are
+	 *  searched: on a 3x9 board at depth 6 with a pool of one thread, about 15,500 nodes in
+	 *  59ms rather than 2,500 nodes in 14ms. How well it scales with more threads has not been
+	 *  measured, so it should only be turned on where that has been checked.
+	 * @param splitReplies
+	 */
+	public void setSplittingReplies(boolean splitReplies) {
+		mSplitReplies = splitReplies;
+	}
+	
+	/**
+	 * Indicates whether or not moves are ordered so that the most promising moves are searched first
+	 * @return
+	 */
+	public boolean isOrderingMoves() {
+		return mMoveOrdering != null;
+	}
+	
+	/**
+	 * Sets whether or not moves are ordered so that the most promising moves are searched first.
+	 *  Moves which start a conflict are tried first, followed by moves which caused cutoffs in
+	 *  recent searches. This only affects the number of nodes expanded when pruning, and the
+	 *  chosen move is the same either way.
+	 * @param orderingMoves
+	 */
+	public void setOrderingMoves(boolean orderingMoves) {
+		if (!orderingMoves) {
+			mMoveOrdering = null;
+		} else if (mMoveOrdering == null) {
+			mMoveOrdering = new MoveOrdering();
+		}
+	}
+	
+	/**
+	 * Gets the book of precomputed moves looked up before searching
+	 * @return null if every move is searched
+	 */
+	public OpeningBook getOpeningBook() {
+		return mOpeningBook;
+	}
+	
+	/**
+	 * Sets the book of precomputed moves looked up before searching. When the current position
+	 *  is in the book, its move is played straight away without searching, and getNodeCount
+	 *  returns 0. The book must have been generated for this player's identity, and a book may
+	 *  be shared between players.
+	 * @param openingBook null searches every move
+	 */
+	public void setOpeningBook(OpeningBook openingBook) {
+		mOpeningBook = openingBook;
+	}
+	
+	/**
+	 * Sets the listener told about every move this player picks, along with the statistics of
+	 *  the search. A listener may be shared between players.
+	 * @param listener null removes the listener
+	 */
+	public void setSearchListener(SearchListener listener) {
+		mSearchListener = listener != null ? listener : new EmptySearchListener();
+	}
+	
+	/**
+	 * Gets the statistics of the most recent call to getMove
+	 * @return
+	 */
+	public SearchStatistics getSearchStatistics() {
+		return mStatistics;
+	}
+	
+	/**
+	 * Gets the number of nodes that were expanded during the most recent call to getMove
+	 * @return
+	 */
+	public long getNodeCount() {
+		return mStatistics.getNodeCount();
+	}
+	
+	/**
+	 * Gets the fraction of pruned positions during the most recent call to getMove where the
+	 *  first move searched was enough to skip the rest. The closer this is to 1, the better
+	 *  the moves were ordered.
+	 * @return 0 if no positions were pruned
+	 */
+	public double getFirstMoveCutoffRate() {
+		long cutoffCount = mStatistics.getCutoffCount();
+		return cutoffCount == 0 ? 0 : (double) mStatistics.getFirstMoveCutoffCount() / cutoffCount;
+	}
+	
+	/**
+	 * Gets the depth of the deepest search completed during the most recent call to getMove
+	 * @return
+	 */
+	public int getCompletedDepth() {
+		return mStatistics.getCompletedDepth();
+	}
 
 	/* (non-Javadoc)
 	 * @see com.phantomrealm.cardbattle.model.player.BasePlayer#getMove(com.phantomrealm.cardbattle.model.board.Board, com.phantomrealm.cardbattle.model.deck.Deck)
 	 */
 	@Override
 	public Position getMove(Board board, Deck opponentDeck) {
+		long startTime = System.nanoTime();
+		long startBytes = getAllocatedBytes();
+		mStatistics = new SearchStatistics();
+		Position move = pickMove(board, opponentDeck, startTime);
+		long endBytes = getAllocatedBytes();
+		long allocatedBytes = startBytes != SearchStatistics.UNKNOWN && endBytes != SearchStatistics.UNKNOWN ? endBytes - startBytes : SearchStatistics.UNKNOWN;
+		mStatistics.setCost(System.nanoTime() - startTime, allocatedBytes);
+		mSearchListener.onSearchCompleted(this, mStatistics);
+		return move;
+	}
+	
+	/**
+	 * Picks the next move, from the opening book or by searching, recording statistics as it goes
+	 * @param board
+	 * @param opponentDeck
+	 * @param startTime value of System.nanoTime() when getMove was called
+	 * @return
+	 */
+	private Position pickMove(Board board, Deck opponentDeck, long startTime) {
+		if (mMoveOrdering != null) {
+			mMoveOrdering.age();
+		}
+		Position bookMove = getBookMove(board, opponentDeck);
+		if (bookMove != null) {
+			mStatistics.setBookMove();
+			return bookMove;
+		}
+		if (mTimeBudget == 0) {
+			mStatistics.setCompletedDepth(getDepth());
+			return searchToDepth(board, opponentDeck, getDepth(), false, 0);
+		}
+		
+		long deadline = startTime + mTimeBudget * NANOS_PER_MILLI;
+		// every line of play has ended once both decks could have run out
+		int maxDepth = getDeck().size() + opponentDeck.size() + 1;
 		Position bestMove = null;
-		int bestRank = -1;
-		for (Position move : board.getPossibleMoves(getIdentity())) {
-			Board newBoard = board.clone();
-			Deck newDeck = getDeck().clone();
-			Card newCard = newDeck.pop();
-			int rank = updateBoard(newBoard, newCard, getIdentity(), move);
-			if (rank == -1) {
-				rank = minimize(newBoard, newDeck, opponentDeck, getDepth() - 1);
+		for (int depth = 1; depth <= maxDepth; ++depth) {
+			// depth 1 is always completed, so that there is always a move to return
+			Position move = searchToDepth(board, opponentDeck, depth, depth > 1, deadline);
+			if (mOutOfTime) {
+				break;
 			}
-			if (rank > bestRank) {
-				bestRank = rank;
-				bestMove = move;
+			bestMove = move;
+			mStatistics.setCompletedDepth(depth);
+			// a deeper search would not reach any new positions
+			if (!mDepthLimitReached || System.nanoTime() - deadline >= 0) {
+				break;
 			}
 		}
 		return bestMove;
 	}
-
+	
 	/**
-	 * Returns the rank of the worst possible move that can be made, accounting for
-	 *  alternatively calling maximize and minimize until depth has been reached
-	 * @param board
-	 * @param playerDeck
-	 * @param opponentDeck
-	 * @param depth
-	 * @return
+	 * Gets the number of bytes allocated so far by the current thread
+	 * @return SearchStatistics.UNKNOWN if the JVM cannot measure allocation
 	 */
-	private int minimize(Board board, Deck playerDeck, Deck opponentDeck, int depth) {
-		if (depth == 0) {
-			return evaluate(board);
-		} else if (opponentDeck.isEmpty()) {
-			return evaluateWin(board);
-		} else {
-			int worstRank = Integer.MAX_VALUE;
-			PlayerIdentity opponent = PlayerIdentity.not(getIdentity());
-			for (Position move : board.getPossibleMoves(opponent)) {
-				Board newBoard = board.clone();
-				Deck newDeck = opponentDeck.clone();
-				Card newCard = newDeck.pop();
-				int rank = updateBoard(newBoard, newCard, opponent, move);
-				if (rank == -1) {
-					rank = maximize(newBoard, playerDeck, newDeck, depth - 1);
-				}
-				if (rank < worstRank) {
-					worstRank = rank;
-				}
+	private static long getAllocatedBytes() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+			if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+				return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
 			}
-			return worstRank;
 		}
+		return SearchStatistics.UNKNOWN;
 	}
 	
 	/**
-	 * Returns the rank of the best possible move that can be made, accounting for
-	 *  alternatively calling minimize and maximize until depth has been reached
+	 * Looks up the current position in the opening book
 	 * @param board
-	 * @param playerDeck
 	 * @param opponentDeck
-	 * @param depth
-	 * @return
+	 * @return the move stored in the book, or null if there is no book or the position is not in it
 	 */
-	private int maximize(Board board, Deck playerDeck, Deck opponentDeck, int depth) {
-		if (depth == 0) {
-			return evaluate(board);
-		} else if (playerDeck.isEmpty() ){
-			return evaluateLoss(board);
-		} else {
-			int bestRank = -1;
-			for (Position move : board.getPossibleMoves(getIdentity())) {
-				Board newBoard = board.clone();
-				Deck newDeck = playerDeck.clone();
-				Card newCard = newDeck.pop();
-				int rank = updateBoard(newBoard, newCard, getIdentity(), move);
-				if (rank == -1) {
-					rank = minimize(newBoard, newDeck, opponentDeck, depth - 1);
-				}
-				if (rank > bestRank) {
-					bestRank = rank;
-				}
-			}
-			return bestRank;
+	private Position getBookMove(Board board, Deck opponentDeck) {
+		if (mOpeningBook == null || !mOpeningBook.isCompatible(board)) {
+			return null;
+		}
+		long key = OpeningBook.getPositionKey(board, getIdentity(), getDeck(), opponentDeck, mOpeningBook.getPrefixLength());
+		int move = mOpeningBook.probe(key);
+		if (move == OpeningBook.MISSING) {
+			return null;
 		}
+		int row = OpeningBook.getRow(move);
+		int column = OpeningBook.getColumn(move);
+		if (row >= board.getHeight() || column >= board.getWidth()) {
+			return null;
+		}
+		// the shared instance, so book moves compare by identity like every other move of the search
+		Position bookMove = board.getPosition(row, column);
+		// guards against the (unlikely) case of a different position sharing the same key
+		return board.isValidMove(getIdentity(), bookMove) ? bookMove : null;
 	}
 	
 	/**
-	 * Returns a rank for the board after updating it, by placing the given card in the given position,
-	 *  assigning the given player as the owner, and resolving conflicts and stalemates on the board.
+	 * Finds the best move by searching to a given depth, in parallel if a pool has been set
 	 * @param board
-	 * @param card
-	 * @param player
-	 * @param move
-	 * @return -1 represents an inconclusive rank and should be ignored.
-	 */
-	private int updateBoard(Board board, Card card, PlayerIdentity player, Position move) {
-		board.executeMove(card, player, move);
-		board.resolveBoardConflicts();
-		board.resolveBoardStalemates();
-		PlayerIdentity winner = board.getWinner();
-		if (winner == getIdentity()) { 
-			return evaluateWin(board);
-		} else if (winner == PlayerIdentity.not(getIdentity())) {
-			return evaluateLoss(board);
+	 * @param opponentDeck
+	 * @param depth
+	 * @param checkDeadline false if the search must be completed regardless of time
+	 * @param deadline value of System.nanoTime() at which the search is abandoned
+	 * @return the best move, which should be ignored if the time budget ran out
+	 */
+	private Position searchToDepth(Board board, Deck opponentDeck, int depth, boolean checkDeadline, long deadline) {
+		Position bestMove;
+		if (mForkJoinPool == null) {
+			MiniMaxSearch search = new MiniMaxSearch(this, mMoveOrdering, checkDeadline, deadline);
+			bestMove = search.searchRoot(board, getDeck(), opponentDeck, depth);
+			mStatistics.add(search, depth);
+			mOutOfTime = search.isOutOfTime();
+			mDepthLimitReached = search.isDepthLimitReached();
 		} else {
-			return -1;
+			ParallelRootSearch search = new ParallelRootSearch(this, mForkJoinPool, mSplitReplies, mMoveOrdering, checkDeadline, deadline);
+			bestMove = search.searchRoot(board, getDeck(), opponentDeck, depth);
+			search.addTo(mStatistics, depth);
+			mOutOfTime = search.isOutOfTime();
+			mDepthLimitReached = search.isDepthLimitReached();
 		}
+		return bestMove;
 	}
-	
+
 	/**
 	 * Gets a numerical ranking of how desirable a given board is. Note that this
 	 *  rank should be positive and should be less than max int for the minimax
@@ -0,0 +1,519 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.board.ZobristHash;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckCursor;
+
+/**
+ * A single minimax search performed on behalf of a MiniMaxPlayer. Each search keeps its own
+ *  counters and flags, so that several searches for the same player may run on different
+ *  threads at once. Rather than copying the board for every position, a search applies each
+ *  move to a single working copy of the board and decks, and undoes it afterwards.
+ * 
+ * @author matthewpape
+ */
+class MiniMaxSearch {
+	
+	/**
+	 * Rank returned by searches which were abandoned because the time budget ran out
+	 */
+	static final int NO_RANK = Integer.MIN_VALUE;
+	
+	private static final int DEADLINE_CHECK_MASK = 0x3F;
+	
+	private final MiniMaxPlayer mPlayer;
+	private final PlayerIdentity mIdentity;
+	private final boolean mPruning;
+	private final TranspositionTable mTable;
+	private final MoveOrdering mOrdering;
+	private final boolean mCheckDeadline;
+	private final long mDeadline;
+	private long mNodeCount;
+	private long mCutoffCount;
+	private long mFirstMoveCutoffCount;
+	private long mLeafCount;
+	private long mWinCount;
+	private long mLossCount;
+	private long mExpandedCount;
+	private long mBoardCloneCount;
+	private int mLowestDepthLeft;
+	private boolean mOutOfTime;
+	private boolean mDepthLimitReached;
+	
+	/**
+	 * Creates a search using the settings of a given player
+	 * @param player
+	 * @param ordering used to order moves, or null to search moves in the order they are generated
+	 * @param checkDeadline false if the search must be completed regardless of time
+	 * @param deadline value of System.nanoTime() at which the search is abandoned
+	 */
+	MiniMaxSearch(MiniMaxPlayer player, MoveOrdering ordering, boolean checkDeadline, long deadline) {
+		mPlayer = player;
+		mIdentity = player.getIdentity();
+		mPruning = player.getSearchMode() == SearchMode.ALPHA_BETA;
+		mTable = player.getTranspositionTable();
+		mOrdering = ordering;
+		mCheckDeadline = checkDeadline;
+		mDeadline = deadline;
+		mLowestDepthLeft = Integer.MAX_VALUE;
+	}
+	
+	/**
+	 * Gets the number of nodes expanded by this search
+	 * @return
+	 */
+	long getNodeCount() {
+		return mNodeCount;
+	}
+	
+	/**
+	 * Gets the number of positions where the remaining moves were skipped by pruning
+	 * @return
+	 */
+	long getCutoffCount() {
+		return mCutoffCount;
+	}
+	
+	/**
+	 * Gets the number of positions where the remaining moves were skipped by pruning right
+	 *  after the first move was searched
+	 * @return
+	 */
+	long getFirstMoveCutoffCount() {
+		return mFirstMoveCutoffCount;
+	}
+	
+	/**
+	 * Gets the number of positions which were evaluated because the depth limit was reached
+	 * @return
+	 */
+	long getLeafCount() {
+		return mLeafCount;
+	}
+	
+	/**
+	 * Gets the number of positions reached where the game was over and the player had won
+	 * @return
+	 */
+	long getWinCount() {
+		return mWinCount;
+	}
+	
+	/**
+	 * Gets the number of positions reached where the game was over and the player had lost
+	 * @return
+	 */
+	long getLossCount() {
+		return mLossCount;
+	}
+	
+	/**
+	 * Gets the number of positions whose moves were generated and searched, including the root
+	 * @return
+	 */
+	long getExpandedCount() {
+		return mExpandedCount;
+	}
+	
+	/**
+	 * Gets the number of times a board was copied for this search
+	 * @return
+	 */
+	long getBoardCloneCount() {
+		return mBoardCloneCount;
+	}
+	
+	/**
+	 * Gets the smallest depth left to search at any position reached by this search, from which
+	 *  the number of moves looked ahead can be worked out
+	 * @return Integer.MAX_VALUE if no position past the moves of the root was reached
+	 */
+	int getLowestDepthLeft() {
+		return mLowestDepthLeft;
+	}
+	
+	/**
+	 * Counts positions whose moves were generated outside of this search, on its behalf
+	 * @param count
+	 */
+	void addExpandedCount(long count) {
+		mExpandedCount += count;
+	}
+	
+	/**
+	 * Copies a board for use by this search, counting the copy
+	 * @param board
+	 * @return
+	 */
+	Board cloneBoard(Board board) {
+		++mBoardCloneCount;
+		return board.clone();
+	}
+	
+	/**
+	 * Indicates whether or not any position was cut off by depth rather than by the end of the game
+	 * @return
+	 */
+	boolean isDepthLimitReached() {
+		return mDepthLimitReached;
+	}
+	
+	/**
+	 * Indicates whether or not the time budget ran out, meaning the results of this search
+	 *  must be ignored
+	 * @return
+	 */
+	boolean isOutOfTime() {
+		return mOutOfTime;
+	}
+	
+	/**
+	 * Gets the ordering used by this search
+	 * @return null if moves are searched in the order they are generated
+	 */
+	MoveOrdering getOrdering() {
+		return mOrdering;
+	}
+	
+	/**
+	 * Checks whether or not the time budget has run out. The clock is only read periodically,
+	 *  since reading it for every node would slow down the search.
+	 * @return
+	 */
+	private boolean checkOutOfTime() {
+		if (!mOutOfTime && mCheckDeadline && (mNodeCount & DEADLINE_CHECK_MASK) == 0) {
+			mOutOfTime = System.nanoTime() - mDeadline >= 0;
+		}
+		return mOutOfTime;
+	}
+	
+	/**
+	 * Finds the best move for the player by searching to a given depth. Ties are resolved in
+	 *  favor of the earliest move generated by the board, whatever order the moves are searched in.
+	 * @param board
+	 * @param playerDeck
+	 * @param opponentDeck
+	 * @param depth
+	 * @return the best move, which should be ignored if the time budget ran out
+	 */
+	Position searchRoot(Board board, Deck playerDeck, Deck opponentDeck, int depth) {
+		Board workingBoard = cloneBoard(board);
+		DeckCursor workingPlayerDeck = new DeckCursor(playerDeck);
+		DeckCursor workingOpponentDeck = new DeckCursor(opponentDeck);
+		List<Position> moves = board.getPossibleMoves(mIdentity);
+		List<Position> orderedMoves = moves;
+		++mExpandedCount;
+		if (mOrdering != null) {
+			orderedMoves = new ArrayList<Position>(moves);
+			mOrdering.orderMoves(board, mIdentity, getCardsLeft(workingPlayerDeck, workingOpponentDeck), orderedMoves);
+		}
+		Position bestMove = null;
+		int bestRank = -1;
+		int bestIndex = -1;
+		for (Position move : orderedMoves) {
+			int index = moves.indexOf(move);
+			// any rank which cannot beat bestRank is irrelevant, so bestRank is the lower bound,
+			//  except that an earlier move only needs to tie bestRank to be chosen
+			boolean earlier = bestMove != null && index < bestIndex;
+			int alpha = earlier ? bestRank - 1 : bestRank;
+			int rank = searchMove(workingBoard, workingPlayerDeck, workingOpponentDeck, move, depth, alpha);
+			if (mOutOfTime) {
+				return null;
+			}
+			if (rank > bestRank || (earlier && rank == bestRank)) {
+				bestRank = rank;
+				bestMove = move;
+				bestIndex = index;
+			}
+		}
+		return bestMove;
+	}
+	
+	/**
+	 * Returns the rank of the player making a given move, searching to a given depth. A result
+	 *  <= alpha only guarantees that the true rank is no greater than alpha.
+	 * @param board working copy, which is restored before returning
+	 * @param playerDeck working copy, which is restored before returning
+	 * @param opponentDeck working copy, which is restored before returning
+	 * @param move
+	 * @param depth
+	 * @param alpha
+	 * @return
+	 */
+	int searchMove(Board board, DeckCursor playerDeck, DeckCursor opponentDeck, Position move, int depth, int alpha) {
+		Card newCard = playerDeck.pop();
+		int undoMarker = board.applyMove(newCard, mIdentity, move);
+		int rank = rankOutcome(board);
+		if (rank == -1) {
+			rank = minimize(board, playerDeck, opponentDeck, depth - 1, alpha, Integer.MAX_VALUE);
+		}
+		board.undoMove(undoMarker);
+		playerDeck.undoPop();
+		return rank;
+	}
+
+	/**
+	 * Returns the rank of the worst possible move that can be made, accounting for
+	 *  alternatively calling maximize and minimize until depth has been reached. When pruning,
+	 *  a result <= alpha only guarantees that the true rank is no greater than alpha.
+	 * @param board
+	 * @param playerDeck
+	 * @param opponentDeck
+	 * @param depth
+	 * @param alpha rank already guaranteed to the maximizing player
+	 * @param beta rank already guaranteed to the minimizing player
+	 * @return
+	 */
+	int minimize(Board board, DeckCursor playerDeck, DeckCursor opponentDeck, int depth, int alpha, int beta) {
+		mLowestDepthLeft = Math.min(mLowestDepthLeft, depth);
+		if (checkOutOfTime()) {
+			return NO_RANK;
+		} else if (depth == 0) {
+			mDepthLimitReached = true;
+			++mLeafCount;
+			return mPlayer.evaluate(board);
+		} else if (opponentDeck.isEmpty()) {
+			++mWinCount;
+			return mPlayer.evaluateWin(board);
+		} else {
+			long key = getPositionKey(board, playerDeck, opponentDeck, false);
+			int storedRank = probeTranspositionTable(key, depth, alpha, beta);
+			if (storedRank != NO_RANK) {
+				return storedRank;
+			}
+			
+			int worstRank = Integer.MAX_VALUE;
+			int worstRow = -1;
+			PlayerIdentity opponent = PlayerIdentity.not(mIdentity);
+			List<Position> moves = getOrderedMoves(board, opponent, playerDeck, opponentDeck);
+			for (int i = 0; i < moves.size(); ++i) {
+				Position move = moves.get(i);
+				Card newCard = opponentDeck.pop();
+				int undoMarker = board.applyMove(newCard, opponent, move);
+				int rank = rankOutcome(board);
+				if (rank == -1) {
+					rank = maximize(board, playerDeck, opponentDeck, depth - 1, alpha, Math.min(beta, worstRank));
+				}
+				board.undoMove(undoMarker);
+				opponentDeck.undoPop();
+				if (rank < worstRank) {
+					worstRank = rank;
+					worstRow = move.getRow();
+				}
+				if (mOutOfTime) {
+					break;
+				} else if (mPruning && worstRank <= alpha) {
+					recordCutoff(board, opponent, playerDeck, opponentDeck, move, depth, i);
+					break;
+				}
+			}
+			storeTranspositionTable(key, depth, worstRank, alpha, beta, worstRow);
+			return worstRank;
+		}
+	}
+	
+	/**
+	 * Returns the rank of the best possible move that can be made, accounting for
+	 *  alternatively calling minimize and maximize until depth has been reached. When pruning,
+	 *  a result >= beta only guarantees that the true rank is no less than beta.
+	 * @param board
+	 * @param playerDeck
+	 * @param opponentDeck
+	 * @param depth
+	 * @param alpha rank already guaranteed to the maximizing player
+	 * @param beta rank already guaranteed to the minimizing player
+	 * @return
+	 */
+	int maximize(Board board, DeckCursor playerDeck, DeckCursor opponentDeck, int depth, int alpha, int beta) {
+		mLowestDepthLeft = Math.min(mLowestDepthLeft, depth);
+		if (checkOutOfTime()) {
+			return NO_RANK;
+		} else if (depth == 0) {
+			mDepthLimitReached = true;
+			++mLeafCount;
+			return mPlayer.evaluate(board);
+		} else if (playerDeck.isEmpty() ){
+			++mLossCount;
+			return mPlayer.evaluateLoss(board);
+		} else {
+			long key = getPositionKey(board, playerDeck, opponentDeck, true);
+			int storedRank = probeTranspositionTable(key, depth, alpha, beta);
+			if (storedRank != NO_RANK) {
+				return storedRank;
+			}
+			
+			int bestRank = -1;
+			int bestRow = -1;
+			List<Position> moves = getOrderedMoves(board, mIdentity, playerDeck, opponentDeck);
+			for (int i = 0; i < moves.size(); ++i) {
+				Position move = moves.get(i);
+				Card newCard = playerDeck.pop();
+				int undoMarker = board.applyMove(newCard, mIdentity, move);
+				int rank = rankOutcome(board);
+				if (rank == -1) {
+					rank = minimize(board, playerDeck, opponentDeck, depth - 1, Math.max(alpha, bestRank), beta);
+				}
+				board.undoMove(undoMarker);
+				playerDeck.undoPop();
+				if (rank > bestRank) {
+					bestRank = rank;
+					bestRow = move.getRow();
+				}
+				if (mOutOfTime) {
+					break;
+				} else if (mPruning && bestRank >= beta) {
+					recordCutoff(board, mIdentity, playerDeck, opponentDeck, move, depth, i);
+					break;
+				}
+			}
+			storeTranspositionTable(key, depth, bestRank, alpha, beta, bestRow);
+			return bestRank;
+		}
+	}
+	
+	/**
+	 * Gets the moves available to a given player, with the most promising moves first if moves
+	 *  are being ordered
+	 * @param board
+	 * @param player
+	 * @param playerDeck
+	 * @param opponentDeck
+	 * @return
+	 */
+	private List<Position> getOrderedMoves(Board board, PlayerIdentity player, DeckCursor playerDeck, DeckCursor opponentDeck) {
+		List<Position> moves = board.getPossibleMoves(player);
+		++mExpandedCount;
+		if (mOrdering != null) {
+			mOrdering.orderMoves(board, player, getCardsLeft(playerDeck, opponentDeck), moves);
+		}
+		return moves;
+	}
+	
+	/**
+	 * Counts a cutoff caused by a given move, and remembers the move if moves are being ordered
+	 * @param board
+	 * @param player the player who made the move
+	 * @param playerDeck
+	 * @param opponentDeck
+	 * @param move
+	 * @param depth
+	 * @param moveIndex the number of moves which were searched before the move
+	 */
+	private void recordCutoff(Board board, PlayerIdentity player, DeckCursor playerDeck, DeckCursor opponentDeck, Position move, int depth, int moveIndex) {
+		++mCutoffCount;
+		if (moveIndex == 0) {
+			++mFirstMoveCutoffCount;
+		}
+		if (mOrdering != null) {
+			mOrdering.recordCutoff(board, player, getCardsLeft(playerDeck, opponentDeck), move, depth);
+		}
+	}
+	
+	/**
+	 * Gets the number of cards left in both decks, which decreases by one for every ply
+	 * @param playerDeck
+	 * @param opponentDeck
+	 * @return
+	 */
+	private static int getCardsLeft(DeckCursor playerDeck, DeckCursor opponentDeck) {
+		return playerDeck.size() + opponentDeck.size();
+	}
+	
+	/**
+	 * Gets the key identifying a position in the transposition table. Cards are only ever drawn
+	 *  from the top of a deck, so the number of cards left stands in for the cards still to come.
+	 * @param board
+	 * @param playerDeck
+	 * @param opponentDeck
+	 * @param maximizing true if this player is the next to move
+	 * @return
+	 */
+	private long getPositionKey(Board board, DeckCursor playerDeck, DeckCursor opponentDeck, boolean maximizing) {
+		long deckState = ((long) playerDeck.size() << 32) | ((long) opponentDeck.size() << 1) | (maximizing ? 1 : 0);
+		return board.getHash() ^ ZobristHash.mix(deckState);
+	}
+	
+	/**
+	 * Looks up the rank of a position that was previously searched to the same depth
+	 * @param key
+	 * @param depth
+	 * @param alpha
+	 * @param beta
+	 * @return NO_RANK if the position must be searched
+	 */
+	private int probeTranspositionTable(long key, int depth, int alpha, int beta) {
+		if (mTable == null) {
+			return NO_RANK;
+		}
+		long entry = mTable.probe(key);
+		// a different depth would give a different rank than searching this position now
+		if (entry == TranspositionTable.MISSING || TranspositionTable.getDepth(entry) != depth) {
+			return NO_RANK;
+		}
+		int rank = TranspositionTable.getScore(entry);
+		switch (TranspositionTable.getBound(entry)) {
+		case TranspositionTable.LOWER_BOUND:
+			rank = rank >= beta ? rank : NO_RANK;
+			break;
+		case TranspositionTable.UPPER_BOUND:
+			rank = rank <= alpha ? rank : NO_RANK;
+			break;
+		}
+		if (rank != NO_RANK) {
+			// the remembered search may have been cut off by depth
+			mDepthLimitReached = true;
+		}
+		return rank;
+	}
+	
+	/**
+	 * Remembers the rank of a position which has been searched to a given depth
+	 * @param key
+	 * @param depth
+	 * @param rank
+	 * @param alpha the alpha bound the position was searched with
+	 * @param beta the beta bound the position was searched with
+	 * @param moveRow
+	 */
+	private void storeTranspositionTable(long key, int depth, int rank, int alpha, int beta, int moveRow) {
+		if (mTable == null || mOutOfTime) {
+			return;
+		}
+		int bound = TranspositionTable.EXACT;
+		if (mPruning && rank <= alpha) {
+			bound = TranspositionTable.UPPER_BOUND;
+		} else if (mPruning && rank >= beta) {
+			bound = TranspositionTable.LOWER_BOUND;
+		}
+		mTable.store(key, depth, rank, bound, moveRow);
+	}
+	
+	/**
+	 * Returns a rank for a board which a move has just been applied to, if the move ended the game.
+	 *  The board is not changed: applyMove has already resolved any super stalemate, so this
+	 *  only reads the winner.
+	 * @param board
+	 * @return -1 represents an inconclusive rank and should be ignored.
+	 */
+	int rankOutcome(Board board) {
+		++mNodeCount;
+		PlayerIdentity winner = board.getWinner();
+		if (winner == mIdentity) { 
+			++mWinCount;
+			return mPlayer.evaluateWin(board);
+		} else if (winner == PlayerIdentity.not(mIdentity)) {
+			++mLossCount;
+			return mPlayer.evaluateLoss(board);
+		} else {
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,224 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.BoardSlot;
+import com.phantomrealm.cardbattle.model.board.Position;
+
+/**
+ * Orders the moves of a search so that the moves most likely to cause a cutoff are tried first.
+ *  Moves which start a conflict come first, followed by killer moves (moves which recently caused
+ *  a cutoff at the same point in the game), with all other ties broken by a history table of
+ *  every cutoff seen so far. Killer moves are kept per number of cards left in both decks, which
+ *  identifies the same ply however deep a search started.
+ *
+ * @author matthewpape
+ */
+class MoveOrdering {
+	
+	private static final int CONFLICT_SCORE = 1 << 30;
+	private static final int FIRST_KILLER_SCORE = 1 << 29;
+	private static final int SECOND_KILLER_SCORE = 1 << 28;
+	private static final int MAX_HISTORY_SCORE = SECOND_KILLER_SCORE - 1;
+	private static final int NO_KILLER = -1;
+	
+	private int mBoardHeight;
+	private int mBoardWidth;
+	private int[][] mHistory;
+	private int[] mFirstKillers;
+	private int[] mSecondKillers;
+	private int[] mScores;
+	
+	/**
+	 * Creates an empty move ordering, which keeps moves in the order they are generated until
+	 *  cutoffs have been recorded
+	 */
+	MoveOrdering() {
+		mFirstKillers = new int[0];
+		mSecondKillers = new int[0];
+		mScores = new int[0];
+	}
+	
+	/**
+	 * Creates a copy of another move ordering, so that a search on another thread can start from
+	 *  everything it has learned without sharing it
+	 * @param ordering
+	 */
+	MoveOrdering(MoveOrdering ordering) {
+		mBoardHeight = ordering.mBoardHeight;
+		mBoardWidth = ordering.mBoardWidth;
+		if (ordering.mHistory != null) {
+			mHistory = new int[ordering.mHistory.length][];
+			for (int i = 0; i < mHistory.length; ++i) {
+				mHistory[i] = ordering.mHistory[i].clone();
+			}
+		}
+		mFirstKillers = ordering.mFirstKillers.clone();
+		mSecondKillers = ordering.mSecondKillers.clone();
+		mScores = new int[0];
+	}
+	
+	/**
+	 * Sorts a list of moves so that the most promising moves come first. Moves with equal
+	 *  scores keep their original order.
+	 * @param board
+	 * @param player the player making the moves
+	 * @param cardsLeft the number of cards left in both decks
+	 * @param moves
+	 */
+	void orderMoves(Board board, PlayerIdentity player, int cardsLeft, List<Position> moves) {
+		int size = moves.size();
+		if (size < 2) {
+			return;
+		}
+		if (mScores.length < size) {
+			mScores = new int[size];
+		}
+		int[] history = getHistory(board, player);
+		int firstKiller = cardsLeft < mFirstKillers.length ? mFirstKillers[cardsLeft] : NO_KILLER;
+		int secondKiller = cardsLeft < mSecondKillers.length ? mSecondKillers[cardsLeft] : NO_KILLER;
+		for (int i = 0; i < size; ++i) {
+			Position move = moves.get(i);
+			int score = history[move.getRow() * mBoardWidth + move.getColumn()];
+			if (move.getRow() == firstKiller) {
+				score += FIRST_KILLER_SCORE;
+			} else if (move.getRow() == secondKiller) {
+				score += SECOND_KILLER_SCORE;
+			}
+			if (isConflictMove(board, player, move)) {
+				score += CONFLICT_SCORE;
+			}
+			// insertion sort, since there is at most one move per row
+			int j = i;
+			while (j > 0 && mScores[j - 1] < score) {
+				mScores[j] = mScores[j - 1];
+				moves.set(j, moves.get(j - 1));
+				--j;
+			}
+			mScores[j] = score;
+			moves.set(j, move);
+		}
+	}
+	
+	/**
+	 * Remembers a move which caused a cutoff, so that it is tried earlier in similar positions
+	 * @param board
+	 * @param player the player who made the move
+	 * @param cardsLeft the number of cards left in both decks
+	 * @param move
+	 * @param depth the remaining depth of the search where the cutoff happened
+	 */
+	void recordCutoff(Board board, PlayerIdentity player, int cardsLeft, Position move, int depth) {
+		int[] history = getHistory(board, player);
+		int slot = move.getRow() * mBoardWidth + move.getColumn();
+		// deeper cutoffs save more work, so they count for more
+		history[slot] = Math.min(history[slot] + depth * depth, MAX_HISTORY_SCORE);
+		
+		if (cardsLeft >= mFirstKillers.length) {
+			int length = Math.max(cardsLeft + 1, mFirstKillers.length * 2);
+			mFirstKillers = growKillers(mFirstKillers, length);
+			mSecondKillers = growKillers(mSecondKillers, length);
+		}
+		if (mFirstKillers[cardsLeft] != move.getRow()) {
+			mSecondKillers[cardsLeft] = mFirstKillers[cardsLeft];
+			mFirstKillers[cardsLeft] = move.getRow();
+		}
+	}
+	
+	/**
+	 * Takes in the cutoffs learned by a copy of this ordering. Each history entry keeps the
+	 *  higher of the two scores, since both started from the same table, and killer moves are
+	 *  only taken for points in the game where this ordering has none.
+	 * @param ordering a copy made with the copy constructor, for the same size of board
+	 */
+	void merge(MoveOrdering ordering) {
+		if (ordering.mHistory == null) {
+			return;
+		}
+		if (mHistory == null || mBoardHeight != ordering.mBoardHeight || mBoardWidth != ordering.mBoardWidth) {
+			mBoardHeight = ordering.mBoardHeight;
+			mBoardWidth = ordering.mBoardWidth;
+			mHistory = new int[2][mBoardHeight * mBoardWidth];
+		}
+		for (int i = 0; i < mHistory.length; ++i) {
+			for (int slot = 0; slot < mHistory[i].length; ++slot) {
+				mHistory[i][slot] = Math.max(mHistory[i][slot], ordering.mHistory[i][slot]);
+			}
+		}
+		
+		if (mFirstKillers.length < ordering.mFirstKillers.length) {
+			mFirstKillers = growKillers(mFirstKillers, ordering.mFirstKillers.length);
+			mSecondKillers = growKillers(mSecondKillers, ordering.mSecondKillers.length);
+		}
+		for (int cardsLeft = 0; cardsLeft < ordering.mFirstKillers.length; ++cardsLeft) {
+			if (mFirstKillers[cardsLeft] == NO_KILLER) {
+				mFirstKillers[cardsLeft] = ordering.mFirstKillers[cardsLeft];
+				mSecondKillers[cardsLeft] = ordering.mSecondKillers[cardsLeft];
+			}
+		}
+	}
+	
+	/**
+	 * Halves every entry of the history table, so that cutoffs from earlier turns count for less
+	 *  than recent ones. Killer moves are kept, since they are specific to a point in the game.
+	 */
+	void age() {
+		if (mHistory == null) {
+			return;
+		}
+		for (int[] history : mHistory) {
+			for (int i = 0; i < history.length; ++i) {
+				history[i] >>= 1;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the history table of a given player, resetting every table if the size of the board
+	 *  has changed
+	 * @param board
+	 * @param player
+	 * @return
+	 */
+	private int[] getHistory(Board board, PlayerIdentity player) {
+		if (mHistory == null || board.getHeight() != mBoardHeight || board.getWidth() != mBoardWidth) {
+			mBoardHeight = board.getHeight();
+			mBoardWidth = board.getWidth();
+			mHistory = new int[2][mBoardHeight * mBoardWidth];
+		}
+		return mHistory[player == PlayerIdentity.LEFT_PLAYER ? 0 : 1];
+	}
+	
+	/**
+	 * Indicates whether or not a given move places a card next to a card of the opponent, which
+	 *  starts a conflict when the row is resolved
+	 * @param board
+	 * @param player
+	 * @param move
+	 * @return
+	 */
+	private static boolean isConflictMove(Board board, PlayerIdentity player, Position move) {
+		int column = move.getColumn() + (player == PlayerIdentity.LEFT_PLAYER ? 1 : -1);
+		if (column < 0 || column >= board.getWidth()) {
+			return false;
+		}
+		BoardSlot neighbor = board.getBoardSlot(move.getRow(), column);
+		return neighbor.getOwner() == PlayerIdentity.not(player);
+	}
+	
+	/**
+	 * Copies an array of killer moves into a longer array, filling the new entries with NO_KILLER
+	 * @param killers
+	 * @param length
+	 * @return
+	 */
+	private static int[] growKillers(int[] killers, int length) {
+		int[] newKillers = Arrays.copyOf(killers, length);
+		Arrays.fill(newKillers, killers.length, length, NO_KILLER);
+		return newKillers;
+	}
+
+}
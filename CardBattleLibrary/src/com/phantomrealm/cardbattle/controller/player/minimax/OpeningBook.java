@@ -0,0 +1,176 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.ZobristHash;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+
+/**
+ * A read-only table of precomputed moves for the first turns of a game, mapped into memory from
+ *  a file written by an OpeningBookGenerator. Positions are identified by the board, the player
+ *  to move, and the top cards of each deck, so a book applies to any game whose decks start
+ *  with the same cards it was generated for. Lookups neither allocate nor copy the file.
+ *
+ * @author matthewpape
+ */
+public class OpeningBook {
+	
+	/**
+	 * Value returned by probe for positions which are not in the book
+	 */
+	public static final int MISSING = -1;
+	
+	static final int MAGIC = 0x43424F42;
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 24;
+	static final int ENTRY_SIZE = 12;
+	static final int MOVE_SHIFT = 16;
+	static final int MOVE_MASK = 0xFFFF;
+	
+	private final MappedByteBuffer mBuffer;
+	private final int mPrefixLength;
+	private final int mBoardWidth;
+	private final int mBoardHeight;
+	private final int mEntryCount;
+	
+	/**
+	 * Creates a book from a buffer holding the contents of a book file
+	 * @param buffer
+	 * @throws IOException if the buffer does not hold a valid book
+	 */
+	private OpeningBook(MappedByteBuffer buffer) throws IOException {
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("not an opening book");
+		}
+		mBuffer = buffer;
+		mPrefixLength = buffer.getInt(8);
+		mBoardWidth = buffer.getInt(12);
+		mBoardHeight = buffer.getInt(16);
+		mEntryCount = buffer.getInt(20);
+		if (buffer.capacity() < HEADER_SIZE + (long) mEntryCount * ENTRY_SIZE) {
+			throw new IOException("opening book is truncated");
+		}
+	}
+	
+	/**
+	 * Maps a book file into memory. The file is read lazily by the operating system as entries
+	 *  are looked up, and may be shared between any number of players.
+	 * @param file
+	 * @return
+	 * @throws IOException if the file cannot be read or is not a valid book
+	 */
+	public static OpeningBook open(File file) throws IOException {
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+				FileChannel channel = randomAccessFile.getChannel()) {
+			// the mapping stays valid after the channel is closed
+			return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+	
+	/**
+	 * Gets the number of top cards of each deck which identify a position
+	 * @return
+	 */
+	public int getPrefixLength() {
+		return mPrefixLength;
+	}
+	
+	/**
+	 * Gets the number of positions in the book
+	 * @return
+	 */
+	public int getEntryCount() {
+		return mEntryCount;
+	}
+	
+	/**
+	 * Indicates whether or not the book was generated for boards of the same size as a given board
+	 * @param board
+	 * @return
+	 */
+	public boolean isCompatible(Board board) {
+		return board.getWidth() == mBoardWidth && board.getHeight() == mBoardHeight;
+	}
+	
+	/**
+	 * Looks up the move for a position
+	 * @param key from getPositionKey
+	 * @return the move packed as (row << 16 | column), or MISSING
+	 */
+	public int probe(long key) {
+		int low = 0;
+		int high = mEntryCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int offset = HEADER_SIZE + middle * ENTRY_SIZE;
+			long entryKey = mBuffer.getLong(offset);
+			if (entryKey < key) {
+				low = middle + 1;
+			} else if (entryKey > key) {
+				high = middle - 1;
+			} else {
+				return mBuffer.getInt(offset + 8);
+			}
+		}
+		return MISSING;
+	}
+	
+	/**
+	 * Gets the row of a move returned by probe
+	 * @param move
+	 * @return
+	 */
+	public static int getRow(int move) {
+		return move >>> MOVE_SHIFT;
+	}
+	
+	/**
+	 * Gets the column of a move returned by probe
+	 * @param move
+	 * @return
+	 */
+	public static int getColumn(int move) {
+		return move & MOVE_MASK;
+	}
+	
+	/**
+	 * Gets the key identifying a position in a book
+	 * @param board
+	 * @param player the player to move
+	 * @param playerDeck
+	 * @param opponentDeck
+	 * @param prefixLength the number of top cards of each deck which identify the position
+	 * @return
+	 */
+	public static long getPositionKey(Board board, PlayerIdentity player, Deck playerDeck, Deck opponentDeck, int prefixLength) {
+		long key = board.getHash();
+		key ^= ZobristHash.mix(getPrefixKey(playerDeck, prefixLength) + (player == PlayerIdentity.LEFT_PLAYER ? 1 : 2));
+		key ^= ZobristHash.mix(getPrefixKey(opponentDeck, prefixLength) ^ 3);
+		return key;
+	}
+	
+	/**
+	 * Gets a key for the top cards of a deck. A deck which holds no more than the given number
+	 *  of cards is distinguished from a longer deck with the same top cards, since its size
+	 *  limits how long the game may go on.
+	 * @param deck
+	 * @param prefixLength
+	 * @return
+	 */
+	private static long getPrefixKey(Deck deck, int prefixLength) {
+		int size = deck.size();
+		int cards = Math.min(size, prefixLength);
+		long key = ZobristHash.mix(size > prefixLength ? prefixLength + 1 : size);
+		for (int depth = 0; depth < cards; ++depth) {
+			key ^= ZobristHash.getCardKey(depth, deck.get(size - 1 - depth));
+		}
+		return key;
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+
+/**
+ * Builds an OpeningBook offline by searching the first turns of games in advance. For each
+ *  pair of decks added, every position the player could face within a number of moves is
+ *  searched by a (typically much deeper) MiniMaxPlayer, following the move the player would
+ *  pick and every possible reply of the opponent.
+ *
+ * @author matthewpape
+ */
+public class OpeningBookGenerator {
+	
+	private final int mPrefixLength;
+	private final int mPlies;
+	private final Map<Long, Integer> mEntries;
+	private int mBoardWidth;
+	private int mBoardHeight;
+	
+	/**
+	 * Creates a generator for an empty book
+	 * @param prefixLength the number of top cards of each deck which identify a position, which
+	 *  should be at least half the depth of the searches used to fill the book
+	 * @param plies the number of moves from the start of the game covered by the book
+	 */
+	public OpeningBookGenerator(int prefixLength, int plies) {
+		mPrefixLength = Math.max(prefixLength, 0);
+		mPlies = Math.max(plies, 0);
+		mEntries = new TreeMap<Long, Integer>();
+	}
+	
+	/**
+	 * Gets the number of positions added to the book so far
+	 * @return
+	 */
+	public int getEntryCount() {
+		return mEntries.size();
+	}
+	
+	/**
+	 * Adds the openings of games played by a given player against a given deck. The left player
+	 *  moves first, as in a Game. Cards are popped from the deck of the player while the openings
+	 *  are explored, but are all returned before this method returns.
+	 * @param player the player whose moves are stored in the book
+	 * @param opponentDeck is not modified
+	 * @param board the board the games start on, which is not modified
+	 */
+	public void addOpenings(MiniMaxPlayer player, Deck opponentDeck, Board board) {
+		if (mEntries.isEmpty()) {
+			mBoardWidth = board.getWidth();
+			mBoardHeight = board.getHeight();
+		} else if (board.getWidth() != mBoardWidth || board.getHeight() != mBoardHeight) {
+			throw new IllegalArgumentException("every opening in a book must start on a board of the same size");
+		}
+		explore(player, opponentDeck.clone(), board.clone(), PlayerIdentity.LEFT_PLAYER, mPlies);
+	}
+	
+	/**
+	 * Adds the positions reachable within a given number of moves from a given position
+	 * @param player
+	 * @param opponentDeck working copy, which is restored before returning
+	 * @param board working copy, which is restored before returning
+	 * @param nextPlayer the player to move next
+	 * @param plies
+	 */
+	private void explore(MiniMaxPlayer player, Deck opponentDeck, Board board, PlayerIdentity nextPlayer, int plies) {
+		if (plies == 0) {
+			return;
+		}
+		if (nextPlayer == player.getIdentity()) {
+			long key = OpeningBook.getPositionKey(board, nextPlayer, player.getDeck(), opponentDeck, mPrefixLength);
+			Integer move = mEntries.get(key);
+			if (move == null) {
+				Position bestMove = player.getMove(board, opponentDeck);
+				move = (bestMove.getRow() << OpeningBook.MOVE_SHIFT) | bestMove.getColumn();
+				mEntries.put(key, move);
+			}
+			Position bookMove = board.getPosition(OpeningBook.getRow(move), OpeningBook.getColumn(move));
+			exploreMove(player, player.getDeck(), opponentDeck, board, nextPlayer, bookMove, plies);
+		} else {
+			for (Position move : board.getPossibleMoves(nextPlayer)) {
+				exploreMove(player, opponentDeck, player.getDeck(), board, nextPlayer, move, plies);
+			}
+		}
+	}
+	
+	/**
+	 * Adds the positions reachable after a given move
+	 * @param player
+	 * @param deck the deck of the player making the move
+	 * @param otherDeck the deck of the other player
+	 * @param board
+	 * @param mover the player making the move
+	 * @param move
+	 * @param plies the number of moves left to explore, including this one
+	 */
+	private void exploreMove(MiniMaxPlayer player, Deck deck, Deck otherDeck, Board board, PlayerIdentity mover, Position move, int plies) {
+		Card card = deck.pop();
+		int undoMarker = board.applyMove(card, mover, move);
+		if (board.getWinner() == null && !otherDeck.isEmpty()) {
+			Deck opponentDeck = mover == player.getIdentity() ? otherDeck : deck;
+			explore(player, opponentDeck, board, PlayerIdentity.not(mover), plies - 1);
+		}
+		board.undoMove(undoMarker);
+		// the player searches its own Deck, so the card is returned to it rather than to a
+		//  cursor; there is always room for it, since it was just popped
+		deck.push(card);
+	}
+	
+	/**
+	 * Writes the book to a file, which may then be opened with OpeningBook.open
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			output.writeInt(OpeningBook.MAGIC);
+			output.writeInt(OpeningBook.VERSION);
+			output.writeInt(mPrefixLength);
+			output.writeInt(mBoardWidth);
+			output.writeInt(mBoardHeight);
+			output.writeInt(mEntries.size());
+			// entries are sorted by key, so that the book can be searched by bisection
+			for (Map.Entry<Long, Integer> entry : mEntries.entrySet()) {
+				output.writeLong(entry.getKey());
+				output.writeInt(entry.getValue());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,294 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckCursor;
+
+/**
+ * Searches every move available to a MiniMaxPlayer at the same time, as tasks on a ForkJoinPool.
+ *  The ranks found so far are shared between tasks as a bound. A task only needs to beat the
+ *  ranks of earlier moves, but must tie the ranks of later moves exactly, since ties go to the
+ *  earliest move. This way the chosen move is the same as for a search on a single thread,
+ *  whatever order the tasks finish in.
+ * 
+ * @author matthewpape
+ */
+class ParallelRootSearch {
+	
+	private final MiniMaxPlayer mPlayer;
+	private final ForkJoinPool mPool;
+	private final boolean mSplitReplies;
+	private final MoveOrdering mOrdering;
+	private final boolean mCheckDeadline;
+	private final long mDeadline;
+	private AtomicIntegerArray mExactRanks;
+	private final Queue<MiniMaxSearch> mSearches;
+	
+	/**
+	 * Creates a parallel search using the settings of a given player
+	 * @param player
+	 * @param pool
+	 * @param splitReplies true if each reply of the opponent should also be searched as a separate
+	 *  task, which is experimental (see MiniMaxPlayer.setSplittingReplies)
+	 * @param ordering the ordering of the player, which every task starts from a copy of, or null
+	 *  to search moves in the order they are generated
+	 * @param checkDeadline false if the search must be completed regardless of time
+	 * @param deadline value of System.nanoTime() at which the search is abandoned
+	 */
+	ParallelRootSearch(MiniMaxPlayer player, ForkJoinPool pool, boolean splitReplies, MoveOrdering ordering, boolean checkDeadline, long deadline) {
+		mPlayer = player;
+		mPool = pool;
+		mSplitReplies = splitReplies;
+		mOrdering = ordering;
+		mCheckDeadline = checkDeadline;
+		mDeadline = deadline;
+		mSearches = new ConcurrentLinkedQueue<MiniMaxSearch>();
+	}
+	
+	/**
+	 * Adds the counters of every task to the statistics of a decision
+	 * @param statistics
+	 * @param depth the depth the tasks searched to
+	 */
+	void addTo(SearchStatistics statistics, int depth) {
+		// the root is expanded before any task is created
+		statistics.addExpandedCount(1);
+		for (MiniMaxSearch search : mSearches) {
+			statistics.add(search, depth);
+		}
+	}
+	
+	/**
+	 * Indicates whether or not any task cut off a position by depth
+	 * @return
+	 */
+	boolean isDepthLimitReached() {
+		for (MiniMaxSearch search : mSearches) {
+			if (search.isDepthLimitReached()) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Indicates whether or not any task ran out of time, meaning the result must be ignored
+	 * @return
+	 */
+	boolean isOutOfTime() {
+		for (MiniMaxSearch search : mSearches) {
+			if (search.isOutOfTime()) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Finds the best move for the player by searching to a given depth
+	 * @param board
+	 * @param playerDeck
+	 * @param opponentDeck
+	 * @param depth
+	 * @return the best move, which should be ignored if the time budget ran out
+	 */
+	Position searchRoot(Board board, Deck playerDeck, Deck opponentDeck, int depth) {
+		final List<Position> moves = board.getPossibleMoves(mPlayer.getIdentity());
+		final List<RootMoveTask> tasks = new ArrayList<RootMoveTask>();
+		mExactRanks = new AtomicIntegerArray(moves.size());
+		// the decks are copied once, and every task forks its own cursors over the copies
+		DeckCursor playerCursor = new DeckCursor(playerDeck);
+		DeckCursor opponentCursor = new DeckCursor(opponentDeck);
+		for (int i = 0; i < moves.size(); ++i) {
+			mExactRanks.set(i, MiniMaxSearch.NO_RANK);
+			tasks.add(new RootMoveTask(board, playerCursor, opponentCursor, moves.get(i), i, depth));
+		}
+		mPool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+		if (mOrdering != null) {
+			// every task is done with its copy, so the player keeps what they learned for deeper searches
+			for (MiniMaxSearch search : mSearches) {
+				mOrdering.merge(search.getOrdering());
+			}
+		}
+		
+		Position bestMove = null;
+		int bestRank = -1;
+		for (int i = 0; i < moves.size(); ++i) {
+			int rank = tasks.get(i).getRawResult();
+			if (rank > bestRank) {
+				bestRank = rank;
+				bestMove = moves.get(i);
+			}
+		}
+		return bestMove;
+	}
+	
+	/**
+	 * Creates a search for a single task, keeping track of it for reporting. Each task orders
+	 *  its moves with its own copy of the ordering of the player, since orderings are not safe
+	 *  to share between threads. The ordering of the player is only read until every task is done.
+	 * @return
+	 */
+	private MiniMaxSearch createSearch() {
+		MoveOrdering ordering = mOrdering != null ? new MoveOrdering(mOrdering) : null;
+		MiniMaxSearch search = new MiniMaxSearch(mPlayer, ordering, mCheckDeadline, mDeadline);
+		mSearches.add(search);
+		return search;
+	}
+	
+	/**
+	 * Gets the rank the move at a given index must exceed to be chosen, based on the exact ranks
+	 *  found so far. Any result <= this bound means the move cannot be chosen.
+	 * @param index
+	 * @return
+	 */
+	private int getAlpha(int index) {
+		// as for a search on a single thread, moves must beat a rank of -1 to be chosen
+		int alpha = -1;
+		for (int i = 0; i < mExactRanks.length(); ++i) {
+			int rank = mExactRanks.get(i);
+			if (rank != MiniMaxSearch.NO_RANK) {
+				alpha = Math.max(alpha, i < index ? rank : rank - 1);
+			}
+		}
+		return alpha;
+	}
+	
+	/**
+	 * Task which finds the rank of one of the moves available to the player
+	 * 
+	 * @author matthewpape
+	 */
+	private class RootMoveTask extends RecursiveTask<Integer> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final Board mBoard;
+		private final DeckCursor mPlayerDeck;
+		private final DeckCursor mOpponentDeck;
+		private final Position mMove;
+		private final int mIndex;
+		private final int mDepth;
+		
+		RootMoveTask(Board board, DeckCursor playerDeck, DeckCursor opponentDeck, Position move, int index, int depth) {
+			mBoard = board;
+			mPlayerDeck = playerDeck;
+			mOpponentDeck = opponentDeck;
+			mMove = move;
+			mIndex = index;
+			mDepth = depth;
+		}
+		
+		@Override
+		protected Integer compute() {
+			MiniMaxSearch search = createSearch();
+			int alpha = getAlpha(mIndex);
+			int rank;
+			if (mSplitReplies) {
+				rank = searchReplies(search, alpha);
+			} else {
+				rank = search.searchMove(search.cloneBoard(mBoard), mPlayerDeck.fork(), mOpponentDeck.fork(), mMove, mDepth, alpha);
+			}
+			if (rank > alpha && !search.isOutOfTime()) {
+				mExactRanks.set(mIndex, rank);
+			} else {
+				// the move cannot be chosen
+				rank = MiniMaxSearch.NO_RANK;
+			}
+			return rank;
+		}
+		
+		/**
+		 * Finds the rank of the move by searching each reply of the opponent as a separate task
+		 * @param search
+		 * @param alpha
+		 * @return
+		 */
+		private int searchReplies(MiniMaxSearch search, int alpha) {
+			Board newBoard = search.cloneBoard(mBoard);
+			DeckCursor newDeck = mPlayerDeck.fork();
+			newBoard.applyMove(newDeck.pop(), mPlayer.getIdentity(), mMove);
+			int rank = search.rankOutcome(newBoard);
+			if (rank != -1) {
+				return rank;
+			}
+			int depth = mDepth - 1;
+			if (depth == 0 || mOpponentDeck.isEmpty()) {
+				return search.minimize(newBoard, newDeck, mOpponentDeck.fork(), depth, alpha, Integer.MAX_VALUE);
+			}
+			
+			search.addExpandedCount(1);
+			List<ReplyTask> replies = new ArrayList<ReplyTask>();
+			for (Position reply : newBoard.getPossibleMoves(PlayerIdentity.not(mPlayer.getIdentity()))) {
+				replies.add(new ReplyTask(newBoard, newDeck, mOpponentDeck, reply, depth, alpha));
+			}
+			invokeAll(replies);
+			// the lowest of the ranks of each reply is a valid result for the same alpha bound
+			int worstRank = Integer.MAX_VALUE;
+			for (ReplyTask reply : replies) {
+				worstRank = Math.min(worstRank, reply.getRawResult());
+			}
+			return worstRank;
+		}
+		
+	}
+	
+	/**
+	 * Task which finds the rank of one of the replies available to the opponent
+	 * 
+	 * @author matthewpape
+	 */
+	private class ReplyTask extends RecursiveTask<Integer> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final Board mBoard;
+		private final DeckCursor mPlayerDeck;
+		private final DeckCursor mOpponentDeck;
+		private final Position mMove;
+		private final int mDepth;
+		private final int mAlpha;
+		
+		ReplyTask(Board board, DeckCursor playerDeck, DeckCursor opponentDeck, Position move, int depth, int alpha) {
+			mBoard = board;
+			mPlayerDeck = playerDeck;
+			mOpponentDeck = opponentDeck;
+			mMove = move;
+			mDepth = depth;
+			mAlpha = alpha;
+		}
+		
+		@Override
+		protected Integer compute() {
+			MiniMaxSearch search = createSearch();
+			Board newBoard = search.cloneBoard(mBoard);
+			DeckCursor newDeck = mOpponentDeck.fork();
+			newBoard.applyMove(newDeck.pop(), PlayerIdentity.not(mPlayer.getIdentity()), mMove);
+			int rank = search.rankOutcome(newBoard);
+			if (rank == -1) {
+				rank = search.maximize(newBoard, mPlayerDeck.fork(), newDeck, mDepth - 1, mAlpha, Integer.MAX_VALUE);
+			}
+			return rank;
+		}
+		
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+/**
+ * Determines which entry a TranspositionTable keeps when two positions compete for the same slot
+ *
+ * @author matthewpape
+ */
+public enum ReplacementPolicy {
+	/**
+	 * The newest entry always replaces the existing one
+	 */
+	ALWAYS_REPLACE,
+
+	/**
+	 * The newest entry only replaces the existing one if it was searched at least as deeply,
+	 *  since deeper searches are more expensive to repeat
+	 */
+	DEPTH_PREFERRED,
+
+	/**
+	 * Slots are paired into buckets of two. The first slot of each bucket is depth preferred,
+	 *  and entries which are not deep enough for it replace the second slot instead.
+	 */
+	TWO_TIER
+}
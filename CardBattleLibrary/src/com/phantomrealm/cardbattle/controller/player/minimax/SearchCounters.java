@@ -0,0 +1,191 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SearchListener which adds up the statistics of every decision it is told about, so that the
+ *  cost of searching can be measured across many games. A single set of counters may be shared
+ *  by any number of players, including players in games running on different threads.
+ * 
+ * @author matthewpape
+ */
+public class SearchCounters implements SearchListener {
+	
+	private final AtomicLong mDecisionCount;
+	private final AtomicLong mBookMoveCount;
+	private final AtomicLong mNodeCount;
+	private final AtomicLong mLeafCount;
+	private final AtomicLong mWinCount;
+	private final AtomicLong mLossCount;
+	private final AtomicLong mExpandedCount;
+	private final AtomicLong mCutoffCount;
+	private final AtomicLong mBoardCloneCount;
+	private final AtomicLong mElapsedNanos;
+	private final AtomicLong mAllocatedBytes;
+	private final AtomicInteger mMaxDepth;
+	
+	/**
+	 * Creates a set of counters which all start at 0
+	 */
+	public SearchCounters() {
+		mDecisionCount = new AtomicLong();
+		mBookMoveCount = new AtomicLong();
+		mNodeCount = new AtomicLong();
+		mLeafCount = new AtomicLong();
+		mWinCount = new AtomicLong();
+		mLossCount = new AtomicLong();
+		mExpandedCount = new AtomicLong();
+		mCutoffCount = new AtomicLong();
+		mBoardCloneCount = new AtomicLong();
+		mElapsedNanos = new AtomicLong();
+		mAllocatedBytes = new AtomicLong();
+		mMaxDepth = new AtomicInteger();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.phantomrealm.cardbattle.controller.player.minimax.SearchListener#onSearchCompleted(com.phantomrealm.cardbattle.controller.player.minimax.MiniMaxPlayer, com.phantomrealm.cardbattle.controller.player.minimax.SearchStatistics)
+	 */
+	@Override
+	public void onSearchCompleted(MiniMaxPlayer player, SearchStatistics statistics) {
+		mDecisionCount.incrementAndGet();
+		if (statistics.isBookMove()) {
+			mBookMoveCount.incrementAndGet();
+		}
+		mNodeCount.addAndGet(statistics.getNodeCount());
+		mLeafCount.addAndGet(statistics.getLeafCount());
+		mWinCount.addAndGet(statistics.getWinCount());
+		mLossCount.addAndGet(statistics.getLossCount());
+		mExpandedCount.addAndGet(statistics.getExpandedCount());
+		mCutoffCount.addAndGet(statistics.getCutoffCount());
+		mBoardCloneCount.addAndGet(statistics.getBoardCloneCount());
+		mElapsedNanos.addAndGet(statistics.getElapsedNanos());
+		if (statistics.getAllocatedBytes() != SearchStatistics.UNKNOWN) {
+			mAllocatedBytes.addAndGet(statistics.getAllocatedBytes());
+		}
+		int maxDepth = mMaxDepth.get();
+		while (statistics.getMaxDepth() > maxDepth && !mMaxDepth.compareAndSet(maxDepth, statistics.getMaxDepth())) {
+			maxDepth = mMaxDepth.get();
+		}
+	}
+	
+	/**
+	 * Sets every counter back to 0. Decisions reported while the counters are being reset may
+	 *  be partly counted.
+	 */
+	public void reset() {
+		mDecisionCount.set(0);
+		mBookMoveCount.set(0);
+		mNodeCount.set(0);
+		mLeafCount.set(0);
+		mWinCount.set(0);
+		mLossCount.set(0);
+		mExpandedCount.set(0);
+		mCutoffCount.set(0);
+		mBoardCloneCount.set(0);
+		mElapsedNanos.set(0);
+		mAllocatedBytes.set(0);
+		mMaxDepth.set(0);
+	}
+	
+	/**
+	 * Gets the number of moves picked
+	 * @return
+	 */
+	public long getDecisionCount() {
+		return mDecisionCount.get();
+	}
+	
+	/**
+	 * Gets the number of moves looked up in an opening book instead of searched
+	 * @return
+	 */
+	public long getBookMoveCount() {
+		return mBookMoveCount.get();
+	}
+	
+	/**
+	 * Gets the total number of positions reached by applying a move
+	 * @return
+	 */
+	public long getNodeCount() {
+		return mNodeCount.get();
+	}
+	
+	/**
+	 * Gets the total number of positions evaluated because the depth limit was reached
+	 * @return
+	 */
+	public long getLeafCount() {
+		return mLeafCount.get();
+	}
+	
+	/**
+	 * Gets the total number of positions reached where the game was over and the searching
+	 *  player had won
+	 * @return
+	 */
+	public long getWinCount() {
+		return mWinCount.get();
+	}
+	
+	/**
+	 * Gets the total number of positions reached where the game was over and the searching
+	 *  player had lost
+	 * @return
+	 */
+	public long getLossCount() {
+		return mLossCount.get();
+	}
+	
+	/**
+	 * Gets the average number of moves searched from each expanded position
+	 * @return 0 if no position was expanded
+	 */
+	public double getBranchingFactor() {
+		long expandedCount = mExpandedCount.get();
+		return expandedCount == 0 ? 0 : (double) mNodeCount.get() / expandedCount;
+	}
+	
+	/**
+	 * Gets the total number of positions where the remaining moves were skipped by pruning
+	 * @return
+	 */
+	public long getCutoffCount() {
+		return mCutoffCount.get();
+	}
+	
+	/**
+	 * Gets the total number of times a board was copied
+	 * @return
+	 */
+	public long getBoardCloneCount() {
+		return mBoardCloneCount.get();
+	}
+	
+	/**
+	 * Gets the largest number of moves looked ahead by any decision
+	 * @return
+	 */
+	public int getMaxDepth() {
+		return mMaxDepth.get();
+	}
+	
+	/**
+	 * Gets the total time taken to pick moves
+	 * @return
+	 */
+	public long getElapsedNanos() {
+		return mElapsedNanos.get();
+	}
+	
+	/**
+	 * Gets the total number of bytes allocated while picking moves, for the decisions where
+	 *  allocation could be measured
+	 * @return
+	 */
+	public long getAllocatedBytes() {
+		return mAllocatedBytes.get();
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+/**
+ * Handles callbacks regarding the searches performed by a MiniMaxPlayer
+ * 
+ * @author matthewpape
+ */
+public interface SearchListener {
+	/**
+	 * Signifies that a given player has picked its next move. This is called on the thread
+	 *  which called getMove, before getMove returns.
+	 * @param player
+	 * @param statistics describes how the move was picked
+	 */
+	public void onSearchCompleted(MiniMaxPlayer player, SearchStatistics statistics);
+}
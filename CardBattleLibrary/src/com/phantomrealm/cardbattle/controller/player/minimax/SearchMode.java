@@ -0,0 +1,19 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+/**
+ * Determines how a MiniMaxPlayer explores the tree of possible moves
+ *
+ * @author matthewpape
+ */
+public enum SearchMode {
+	/**
+	 * Every possible move is explored until the search depth has been reached
+	 */
+	EXHAUSTIVE,
+
+	/**
+	 * Moves which can be proven to have no effect on the chosen move are skipped by
+	 *  tracking alpha-beta bounds. The chosen move is always the same as for EXHAUSTIVE.
+	 */
+	ALPHA_BETA
+}
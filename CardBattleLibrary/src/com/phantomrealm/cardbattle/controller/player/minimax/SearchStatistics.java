@@ -0,0 +1,208 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+/**
+ * Counters describing what a MiniMaxPlayer did to pick a single move. A new set of statistics
+ *  is created for every call to getMove, and is not modified once the call has returned.
+ * 
+ * @author matthewpape
+ */
+public class SearchStatistics {
+	
+	/**
+	 * Value returned by getAllocatedBytes when the JVM cannot measure allocation
+	 */
+	public static final long UNKNOWN = -1;
+	
+	private long mNodeCount;
+	private long mLeafCount;
+	private long mWinCount;
+	private long mLossCount;
+	private long mExpandedCount;
+	private long mCutoffCount;
+	private long mFirstMoveCutoffCount;
+	private long mBoardCloneCount;
+	private int mMaxDepth;
+	private int mCompletedDepth;
+	private long mElapsedNanos;
+	private long mAllocatedBytes;
+	private boolean mBookMove;
+	
+	/**
+	 * Creates statistics for a decision which has not started yet
+	 */
+	SearchStatistics() {
+		mAllocatedBytes = UNKNOWN;
+	}
+	
+	/**
+	 * Gets the number of positions reached by applying a move, including those that ended the game
+	 * @return
+	 */
+	public long getNodeCount() {
+		return mNodeCount;
+	}
+	
+	/**
+	 * Gets the number of positions which were evaluated because the depth limit was reached
+	 * @return
+	 */
+	public long getLeafCount() {
+		return mLeafCount;
+	}
+	
+	/**
+	 * Gets the number of positions reached where the game was over and the player had won
+	 * @return
+	 */
+	public long getWinCount() {
+		return mWinCount;
+	}
+	
+	/**
+	 * Gets the number of positions reached where the game was over and the player had lost
+	 * @return
+	 */
+	public long getLossCount() {
+		return mLossCount;
+	}
+	
+	/**
+	 * Gets the number of positions whose moves were generated and searched, including the root
+	 *  of every search
+	 * @return
+	 */
+	public long getExpandedCount() {
+		return mExpandedCount;
+	}
+	
+	/**
+	 * Gets the average number of moves searched from each expanded position. Pruning lowers this
+	 *  below the number of moves actually available.
+	 * @return 0 if no position was expanded
+	 */
+	public double getBranchingFactor() {
+		return mExpandedCount == 0 ? 0 : (double) mNodeCount / mExpandedCount;
+	}
+	
+	/**
+	 * Gets the number of positions where the remaining moves were skipped by pruning
+	 * @return
+	 */
+	public long getCutoffCount() {
+		return mCutoffCount;
+	}
+	
+	/**
+	 * Gets the number of positions where the remaining moves were skipped by pruning right
+	 *  after the first move was searched
+	 * @return
+	 */
+	public long getFirstMoveCutoffCount() {
+		return mFirstMoveCutoffCount;
+	}
+	
+	/**
+	 * Gets the number of times a board was copied
+	 * @return
+	 */
+	public long getBoardCloneCount() {
+		return mBoardCloneCount;
+	}
+	
+	/**
+	 * Gets the largest number of moves looked ahead from the current position
+	 * @return
+	 */
+	public int getMaxDepth() {
+		return mMaxDepth;
+	}
+	
+	/**
+	 * Gets the depth of the deepest search which was completed
+	 * @return 0 if the move came from the opening book
+	 */
+	public int getCompletedDepth() {
+		return mCompletedDepth;
+	}
+	
+	/**
+	 * Gets the time taken to pick the move
+	 * @return
+	 */
+	public long getElapsedNanos() {
+		return mElapsedNanos;
+	}
+	
+	/**
+	 * Gets the number of bytes allocated on the thread which called getMove while picking the
+	 *  move. Allocation on the threads of a ForkJoinPool is not included.
+	 * @return UNKNOWN if the JVM cannot measure allocation
+	 */
+	public long getAllocatedBytes() {
+		return mAllocatedBytes;
+	}
+	
+	/**
+	 * Indicates whether or not the move was looked up in the opening book instead of searched
+	 * @return
+	 */
+	public boolean isBookMove() {
+		return mBookMove;
+	}
+	
+	/**
+	 * Adds the counters of a search
+	 * @param search
+	 * @param depth the depth the search was started with
+	 */
+	void add(MiniMaxSearch search, int depth) {
+		mNodeCount += search.getNodeCount();
+		mLeafCount += search.getLeafCount();
+		mWinCount += search.getWinCount();
+		mLossCount += search.getLossCount();
+		mExpandedCount += search.getExpandedCount();
+		mCutoffCount += search.getCutoffCount();
+		mFirstMoveCutoffCount += search.getFirstMoveCutoffCount();
+		mBoardCloneCount += search.getBoardCloneCount();
+		int lowestDepthLeft = search.getLowestDepthLeft();
+		if (lowestDepthLeft != Integer.MAX_VALUE) {
+			mMaxDepth = Math.max(mMaxDepth, depth - lowestDepthLeft);
+		} else if (search.getNodeCount() > 0) {
+			mMaxDepth = Math.max(mMaxDepth, 1);
+		}
+	}
+	
+	/**
+	 * Counts positions whose moves were generated outside of any search
+	 * @param count
+	 */
+	void addExpandedCount(long count) {
+		mExpandedCount += count;
+	}
+	
+	/**
+	 * Records the depth of the deepest search which was completed
+	 * @param completedDepth
+	 */
+	void setCompletedDepth(int completedDepth) {
+		mCompletedDepth = completedDepth;
+	}
+	
+	/**
+	 * Records the time and memory used to pick the move
+	 * @param elapsedNanos
+	 * @param allocatedBytes UNKNOWN if allocation could not be measured
+	 */
+	void setCost(long elapsedNanos, long allocatedBytes) {
+		mElapsedNanos = elapsedNanos;
+		mAllocatedBytes = allocatedBytes;
+	}
+	
+	/**
+	 * Records that the move was looked up in the opening book
+	 */
+	void setBookMove() {
+		mBookMove = true;
+	}
+
+}
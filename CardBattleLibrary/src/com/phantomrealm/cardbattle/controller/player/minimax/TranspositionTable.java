@@ -0,0 +1,217 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+/**
+ * Fixed size cache of previously searched positions, keyed by a 64 bit hash of the position.
+ *  Each entry records the depth the position was searched to, the resulting score, whether
+ *  that score is exact or only a bound, and the best move found (as a row on the board).
+ *  Entries are packed into primitive arrays so that probing and storing never allocate.
+ *  
+ * @author matthewpape
+ */
+public class TranspositionTable {
+	
+	/**
+	 * The stored score is the exact rank of the position
+	 */
+	public static final int EXACT = 0;
+	
+	/**
+	 * The rank of the position is at least the stored score
+	 */
+	public static final int LOWER_BOUND = 1;
+	
+	/**
+	 * The rank of the position is at most the stored score
+	 */
+	public static final int UPPER_BOUND = 2;
+	
+	/**
+	 * Returned by probe when there is no entry for a given key
+	 */
+	public static final long MISSING = 0;
+	
+	private static final int DEFAULT_CAPACITY = 1 << 16;
+	private static final int MAX_DEPTH = 0xFF;
+	private static final ReplacementPolicy DEFAULT_POLICY = ReplacementPolicy.TWO_TIER;
+	private static final int DEPTH_SHIFT = 32;
+	private static final int BOUND_SHIFT = 40;
+	private static final int MOVE_SHIFT = 42;
+	private static final long VALID_BIT = 1L << 62;
+	
+	private final long[] mKeys;
+	private final long[] mData;
+	private final int mMask;
+	private final ReplacementPolicy mPolicy;
+	
+	/**
+	 * Creates a table with a default capacity (65536 entries) and replacement policy (TWO_TIER)
+	 */
+	public TranspositionTable() {
+		this(DEFAULT_CAPACITY, DEFAULT_POLICY);
+	}
+	
+	/**
+	 * Creates a table with a given capacity and replacement policy
+	 * @param capacity rounded up to the next power of two, minimum of 2
+	 * @param policy
+	 */
+	public TranspositionTable(int capacity, ReplacementPolicy policy) {
+		int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+		mKeys = new long[size];
+		mData = new long[size];
+		mMask = size - 1;
+		mPolicy = policy != null ? policy : DEFAULT_POLICY;
+	}
+	
+	/**
+	 * Gets the maximum number of entries the table can hold
+	 * @return
+	 */
+	public int getCapacity() {
+		return mData.length;
+	}
+	
+	/**
+	 * Gets the policy used to decide which entry is kept when two positions compete for a slot
+	 * @return
+	 */
+	public ReplacementPolicy getReplacementPolicy() {
+		return mPolicy;
+	}
+	
+	/**
+	 * Removes every entry from the table
+	 */
+	public void clear() {
+		for (int i = 0; i < mData.length; ++i) {
+			mKeys[i] = 0;
+			mData[i] = MISSING;
+		}
+	}
+	
+	/**
+	 * Looks up the entry for a given key. The fields of the entry can be read using getDepth,
+	 *  getScore, getBound and getMoveRow.
+	 * @param key
+	 * @return the packed entry, or MISSING if there is no entry for the key
+	 */
+	public long probe(long key) {
+		int index = (int) key & mMask;
+		if (mPolicy == ReplacementPolicy.TWO_TIER) {
+			index &= ~1;
+			long data = read(index, key);
+			return data != MISSING ? data : read(index + 1, key);
+		}
+		return read(index, key);
+	}
+	
+	/**
+	 * Stores the result of searching a position, subject to the replacement policy
+	 * @param key
+	 * @param depth searches deeper than 255 are not stored
+	 * @param score
+	 * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+	 * @param moveRow the row of the best move, or -1 if there is none
+	 */
+	public void store(long key, int depth, int score, int bound, int moveRow) {
+		if (depth < 0 || depth > MAX_DEPTH) {
+			return;
+		}
+		long data = VALID_BIT
+				| (score & 0xFFFFFFFFL)
+				| ((long) depth << DEPTH_SHIFT)
+				| ((long) (bound & 0x3) << BOUND_SHIFT)
+				| ((long) ((moveRow + 1) & 0xFFFF) << MOVE_SHIFT);
+		int index = (int) key & mMask;
+		switch (mPolicy) {
+		case ALWAYS_REPLACE:
+			write(index, key, data);
+			break;
+		case DEPTH_PREFERRED:
+			if (isReplaceable(index, key, depth)) {
+				write(index, key, data);
+			}
+			break;
+		case TWO_TIER:
+			index &= ~1;
+			if (isReplaceable(index, key, depth)) {
+				write(index, key, data);
+			} else {
+				write(index + 1, key, data);
+			}
+			break;
+		}
+	}
+	
+	/**
+	 * Gets the depth that the position of a given entry was searched to
+	 * @param entry
+	 * @return
+	 */
+	public static int getDepth(long entry) {
+		return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+	}
+	
+	/**
+	 * Gets the score of a given entry
+	 * @param entry
+	 * @return
+	 */
+	public static int getScore(long entry) {
+		return (int) entry;
+	}
+	
+	/**
+	 * Gets whether the score of a given entry is EXACT, a LOWER_BOUND or an UPPER_BOUND
+	 * @param entry
+	 * @return
+	 */
+	public static int getBound(long entry) {
+		return (int) (entry >>> BOUND_SHIFT) & 0x3;
+	}
+	
+	/**
+	 * Gets the row of the best move of a given entry
+	 * @param entry
+	 * @return -1 if no move was recorded
+	 */
+	public static int getMoveRow(long entry) {
+		return ((int) (entry >>> MOVE_SHIFT) & 0xFFFF) - 1;
+	}
+	
+	/**
+	 * Reads the entry at a given index if it belongs to a given key. Keys are stored XORed with
+	 *  their data, so an entry torn by concurrent writers reads as missing rather than corrupt.
+	 * @param index
+	 * @param key
+	 * @return
+	 */
+	private long read(int index, long key) {
+		long data = mData[index];
+		return data != MISSING && (mKeys[index] ^ data) == key ? data : MISSING;
+	}
+	
+	/**
+	 * Writes an entry at a given index
+	 * @param index
+	 * @param key
+	 * @param data
+	 */
+	private void write(int index, long key, long data) {
+		mKeys[index] = key ^ data;
+		mData[index] = data;
+	}
+	
+	/**
+	 * Indicates whether the entry at a given index may be replaced by a search of a given depth
+	 * @param index
+	 * @param key
+	 * @param depth
+	 * @return
+	 */
+	private boolean isReplaceable(int index, long key, int depth) {
+		long data = mData[index];
+		return data == MISSING || (mKeys[index] ^ data) == key || getDepth(data) <= depth;
+	}
+
+}
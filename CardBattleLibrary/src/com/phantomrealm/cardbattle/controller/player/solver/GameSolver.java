@@ -0,0 +1,262 @@
+package com.phantomrealm.cardbattle.controller.player.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.BoardSlot;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.BonusEffectTable;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+
+/**
+ * Solves a game between two known decks exactly. Since both decks are drawn in a fixed order,
+ *  the game has perfect information and no chance, so every position is either won or lost for
+ *  the player to move. Each position is solved once and remembered, identified by the contents
+ *  of each row of the board, the number of cards left in each deck, and the player to move.
+ *  Rows are sorted before positions are compared, since swapping two rows of a board never
+ *  changes the outcome of a game.
+ *
+ * @author matthewpape
+ */
+public class GameSolver {
+	
+	private static final int MAX_BOARD_WIDTH = 8;
+	private static final int MAX_CARD_CODES = 127;
+	private static final int SLOT_BITS = 8;
+	private static final int SLOT_MASK = 0xFF;
+	private static final int OWNER_BIT = 0x80;
+	private static final int WIN_BIT = 0x1;
+	private static final int ROW_SHIFT = 1;
+	
+	private final Card[] mLeftCards;
+	private final Card[] mRightCards;
+	private final Map<Card, Integer> mCardCodes;
+	private final List<Card> mDistinctCards;
+	private final Map<SolverState, Integer> mSolutions;
+	private Board mBoard;
+	
+	/**
+	 * Creates a solver for games between two given decks
+	 * @param leftDeck the cards left to the left player, which is not modified
+	 * @param rightDeck the cards left to the right player, which is not modified
+	 */
+	public GameSolver(Deck leftDeck, Deck rightDeck) {
+		mCardCodes = new IdentityHashMap<Card, Integer>();
+		mDistinctCards = new ArrayList<Card>();
+		mSolutions = new HashMap<SolverState, Integer>();
+		mLeftCards = copyCards(leftDeck);
+		mRightCards = copyCards(rightDeck);
+	}
+	
+	/**
+	 * Gets the number of positions which have been solved so far
+	 * @return
+	 */
+	public int getSolvedCount() {
+		return mSolutions.size();
+	}
+	
+	/**
+	 * Finds the player who wins from a given position, assuming both players play perfectly
+	 * @param board must be at most 8 columns wide and hold no card whose bonus effect changes its
+	 *  stats, and is not modified
+	 * @param nextPlayer the player to move next
+	 * @param leftCards the number of cards left to the left player, drawn from the top of its deck
+	 * @param rightCards the number of cards left to the right player, drawn from the top of its deck
+	 * @return
+	 */
+	public PlayerIdentity getWinner(Board board, PlayerIdentity nextPlayer, int leftCards, int rightCards) {
+		int solution = getSolution(board, nextPlayer, leftCards, rightCards);
+		return (solution & WIN_BIT) != 0 ? nextPlayer : PlayerIdentity.not(nextPlayer);
+	}
+	
+	/**
+	 * Finds the best move from a given position. If the player to move can win, the move is one
+	 *  which wins against any reply. Otherwise every move loses against perfect play, and the
+	 *  first possible move is returned.
+	 * @param board must be at most 8 columns wide and hold no card whose bonus effect changes its
+	 *  stats, and is not modified
+	 * @param nextPlayer the player to move next
+	 * @param leftCards the number of cards left to the left player, drawn from the top of its deck
+	 * @param rightCards the number of cards left to the right player, drawn from the top of its deck
+	 * @return
+	 */
+	public Position getBestMove(Board board, PlayerIdentity nextPlayer, int leftCards, int rightCards) {
+		int solution = getSolution(board, nextPlayer, leftCards, rightCards);
+		int canonicalRow = solution >>> ROW_SHIFT;
+		// any row with the same contents as the canonical row is an equally good move
+		long rowCode = SolverState.fromBoard(board, this, nextPlayer, leftCards, rightCards).getRow(canonicalRow);
+		for (Position move : board.getPossibleMoves(nextPlayer)) {
+			if (encodeRow(board, move.getRow()) == rowCode) {
+				return move;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the packed solution of a given position, solving it first if needed
+	 * @param board
+	 * @param nextPlayer
+	 * @param leftCards
+	 * @param rightCards
+	 * @return WIN_BIT if the player to move wins, combined with the canonical index of the best row
+	 */
+	private int getSolution(Board board, PlayerIdentity nextPlayer, int leftCards, int rightCards) {
+		if (board.getWidth() > MAX_BOARD_WIDTH) {
+			throw new IllegalArgumentException("boards wider than " + MAX_BOARD_WIDTH + " columns cannot be solved");
+		}
+		if (leftCards > mLeftCards.length || rightCards > mRightCards.length) {
+			throw new IllegalArgumentException("more cards left than the decks of the solver hold");
+		}
+		// a solver may be created mid-game, so the cards already played must be checked as well
+		for (int row = 0; row < board.getHeight(); ++row) {
+			for (int col = 0; col < board.getWidth(); ++col) {
+				checkCard(board.getBoardSlot(row, col).getCard());
+			}
+		}
+		SolverState state = SolverState.fromBoard(board, this, nextPlayer, leftCards, rightCards);
+		Integer solution = mSolutions.get(state);
+		if (solution == null) {
+			mBoard = board.clone();
+			solve(nextPlayer, leftCards, rightCards);
+			solution = mSolutions.get(state);
+			mBoard = null;
+		}
+		return solution;
+	}
+	
+	/**
+	 * Solves the position of the working board, remembering the result of every position reached
+	 * @param nextPlayer
+	 * @param leftCards
+	 * @param rightCards
+	 * @return true if the player to move wins
+	 */
+	private boolean solve(PlayerIdentity nextPlayer, int leftCards, int rightCards) {
+		SolverState state = SolverState.fromBoard(mBoard, this, nextPlayer, leftCards, rightCards);
+		Integer solution = mSolutions.get(state);
+		if (solution != null) {
+			return (solution & WIN_BIT) != 0;
+		}
+		
+		boolean left = nextPlayer == PlayerIdentity.LEFT_PLAYER;
+		int cards = left ? leftCards : rightCards;
+		if (cards == 0) {
+			// a player with no cards left to play has already lost
+			mSolutions.put(state, 0);
+			return false;
+		}
+		int opponentCards = left ? rightCards : leftCards;
+		Card card = left ? mLeftCards[cards - 1] : mRightCards[cards - 1];
+		int nextLeftCards = left ? leftCards - 1 : leftCards;
+		int nextRightCards = left ? rightCards : rightCards - 1;
+		Position bestMove = null;
+		boolean win = false;
+		for (Position move : mBoard.getPossibleMoves(nextPlayer)) {
+			if (bestMove == null) {
+				bestMove = move;
+			}
+			int undoMarker = mBoard.applyMove(card, nextPlayer, move);
+			PlayerIdentity winner = mBoard.getWinner();
+			if (winner == null && opponentCards == 0) {
+				// the opponent has no cards left to play, and therefore forfeits
+				winner = nextPlayer;
+			}
+			if (winner == null) {
+				win = !solve(PlayerIdentity.not(nextPlayer), nextLeftCards, nextRightCards);
+			} else {
+				win = winner == nextPlayer;
+			}
+			mBoard.undoMove(undoMarker);
+			if (win) {
+				bestMove = move;
+				break;
+			}
+		}
+		
+		// the best move is remembered by the position of its row once the rows are sorted
+		int canonicalRow = bestMove != null ? state.indexOf(encodeRow(mBoard, bestMove.getRow())) : 0;
+		mSolutions.put(state, (canonicalRow << ROW_SHIFT) | (win ? WIN_BIT : 0));
+		return win;
+	}
+	
+	/**
+	 * Encodes the contents of a row of a board, one byte per slot
+	 * @param board
+	 * @param row
+	 * @return
+	 */
+	long encodeRow(Board board, int row) {
+		long rowCode = 0;
+		for (int col = 0; col < board.getWidth(); ++col) {
+			BoardSlot boardSlot = board.getBoardSlot(row, col);
+			int slotCode = 0;
+			if (boardSlot.getOwner() != null && boardSlot.getCard() != null) {
+				slotCode = getCardCode(boardSlot.getCard()) | (boardSlot.getOwner() == PlayerIdentity.RIGHT_PLAYER ? OWNER_BIT : 0);
+			}
+			rowCode = (rowCode << SLOT_BITS) | (slotCode & SLOT_MASK);
+		}
+		return rowCode;
+	}
+	
+	/**
+	 * Gets a small code which is shared by every card with the same name and stats
+	 * @param card
+	 * @return between 1 and 127 inclusive
+	 */
+	private int getCardCode(Card card) {
+		Integer code = mCardCodes.get(card);
+		if (code == null) {
+			int index = 0;
+			while (index < mDistinctCards.size() && !mDistinctCards.get(index).equalTo(card)) {
+				++index;
+			}
+			if (index == mDistinctCards.size()) {
+				if (index == MAX_CARD_CODES) {
+					throw new IllegalArgumentException("too many different cards to solve");
+				}
+				mDistinctCards.add(card);
+			}
+			code = index + 1;
+			mCardCodes.put(card, code);
+		}
+		return code;
+	}
+	
+	/**
+	 * Copies the cards of a deck, with the top of the deck last
+	 * @param deck
+	 * @return
+	 * @throws IllegalArgumentException if any card has a bonus effect which changes its stats,
+	 *  since positions are identified by their cards alone
+	 */
+	private Card[] copyCards(Deck deck) {
+		Card[] cards = new Card[deck.size()];
+		for (int i = 0; i < cards.length; ++i) {
+			checkCard(deck.get(i));
+			cards[i] = deck.get(i).clone();
+			getCardCode(cards[i]);
+		}
+		return cards;
+	}
+	
+	/**
+	 * Rejects a card which could level up, since positions are identified by their cards alone
+	 *  and do not include the levels of the slots of a board
+	 * @param card may be null
+	 * @throws IllegalArgumentException if the card has a bonus effect which changes its stats
+	 */
+	private static void checkCard(Card card) {
+		if (card != null && (BonusEffectTable.getActions(card.getBonusEffect()) & BonusEffectTable.WIN_CHANGE_STATS) != 0) {
+			throw new IllegalArgumentException("cards whose bonus effects change their stats cannot be solved");
+		}
+	}
+
+}
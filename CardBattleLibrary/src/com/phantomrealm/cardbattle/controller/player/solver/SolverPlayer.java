@@ -0,0 +1,72 @@
+package com.phantomrealm.cardbattle.controller.player.solver;
+
+import com.phantomrealm.cardbattle.controller.player.BasePlayer;
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+
+/**
+ * A player who plays perfectly by solving the game outright. The game is solved from the first
+ *  position the player is asked to move in, after which each move is looked up in the solved
+ *  table. Solving is only practical on small boards with short decks.
+ * 
+ * @author matthewpape
+ */
+public class SolverPlayer extends BasePlayer {
+	
+	private GameSolver mSolver;
+	
+	/**
+	 * Creates a solver player, which creates its own solver from the decks of the game the first
+	 *  time it is asked to move
+	 * @param identity
+	 * @param deck
+	 */
+	public SolverPlayer(PlayerIdentity identity, Deck deck) {
+		this(identity, deck, null);
+	}
+	
+	/**
+	 * Creates a solver player which uses a given solver
+	 * @param identity
+	 * @param deck
+	 * @param solver must have been created with the decks of the game, or null
+	 */
+	public SolverPlayer(PlayerIdentity identity, Deck deck, GameSolver solver) {
+		super(identity, deck);
+		mSolver = solver;
+	}
+	
+	/**
+	 * Gets the solver used to pick moves
+	 * @return null if the player has not been asked to move yet
+	 */
+	public GameSolver getSolver() {
+		return mSolver;
+	}
+	
+	/**
+	 * Sets the solver used to pick moves. Solvers identify the state of each deck by the number
+	 *  of cards left, so the solver must be replaced before a new game with different decks.
+	 * @param solver null creates a new solver the next time the player is asked to move
+	 */
+	public void setSolver(GameSolver solver) {
+		mSolver = solver;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.phantomrealm.cardbattle.model.player.BasePlayer#getMove(com.phantomrealm.cardbattle.model.board.Board, com.phantomrealm.cardbattle.model.deck.Deck)
+	 */
+	@Override
+	public Position getMove(Board board, Deck opponentDeck) {
+		boolean left = getIdentity() == PlayerIdentity.LEFT_PLAYER;
+		Deck leftDeck = left ? getDeck() : opponentDeck;
+		Deck rightDeck = left ? opponentDeck : getDeck();
+		if (mSolver == null) {
+			mSolver = new GameSolver(leftDeck, rightDeck);
+		}
+		return mSolver.getBestMove(board, getIdentity(), leftDeck.size(), rightDeck.size());
+	}
+	
+}
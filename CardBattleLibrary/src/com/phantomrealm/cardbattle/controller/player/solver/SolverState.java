@@ -0,0 +1,82 @@
+package com.phantomrealm.cardbattle.controller.player.solver;
+
+import java.util.Arrays;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+
+/**
+ * Identifies a position solved by a GameSolver. The rows of the board are kept in sorted order,
+ *  so that boards which only differ by the order of their rows are the same position.
+ *
+ * @author matthewpape
+ */
+class SolverState {
+	
+	private final long[] mRows;
+	private final int mCards;
+	private final int mHashCode;
+	
+	/**
+	 * Creates a position from the encoded rows of a board
+	 * @param rows is sorted in place
+	 * @param cards the number of cards left in each deck and the player to move, packed together
+	 */
+	private SolverState(long[] rows, int cards) {
+		Arrays.sort(rows);
+		mRows = rows;
+		mCards = cards;
+		mHashCode = 31 * Arrays.hashCode(rows) + cards;
+	}
+	
+	/**
+	 * Creates the position of a given board
+	 * @param board
+	 * @param solver used to encode each row of the board
+	 * @param nextPlayer the player to move next
+	 * @param leftCards the number of cards left to the left player
+	 * @param rightCards the number of cards left to the right player
+	 * @return
+	 */
+	static SolverState fromBoard(Board board, GameSolver solver, PlayerIdentity nextPlayer, int leftCards, int rightCards) {
+		long[] rows = new long[board.getHeight()];
+		for (int row = 0; row < rows.length; ++row) {
+			rows[row] = solver.encodeRow(board, row);
+		}
+		int cards = (leftCards << 16) | (rightCards << 1) | (nextPlayer == PlayerIdentity.LEFT_PLAYER ? 0 : 1);
+		return new SolverState(rows, cards);
+	}
+	
+	/**
+	 * Gets the encoded contents of the row at a given index once the rows are sorted
+	 * @param index
+	 * @return
+	 */
+	long getRow(int index) {
+		return mRows[index];
+	}
+	
+	/**
+	 * Gets the index of a row with the given contents once the rows are sorted
+	 * @param rowCode
+	 * @return
+	 */
+	int indexOf(long rowCode) {
+		return Arrays.binarySearch(mRows, rowCode);
+	}
+	
+	@Override
+	public int hashCode() {
+		return mHashCode;
+	}
+	
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof SolverState)) {
+			return false;
+		}
+		SolverState state = (SolverState) object;
+		return mCards == state.mCards && Arrays.equals(mRows, state.mRows);
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.phantomrealm.cardbattle.controller.tournament;
+
+import com.phantomrealm.cardbattle.model.deck.Deck;
+
+/**
+ * Generates the decks played with in a Tournament. A new deck is generated for each player of
+ *  every game, and this may be called from several threads at once.
+ * 
+ * @author matthewpape
+ */
+public interface DeckGenerator {
+	
+	/**
+	 * Generates a deck for a single player of a single game
+	 * @return
+	 */
+	public Deck generateDeck();
+
+}
@@ -0,0 +1,89 @@
+package com.phantomrealm.cardbattle.controller.tournament;
+
+/**
+ * The results of the games played by one entrant of a Tournament as the left player against
+ *  another as the right player, across every board size
+ * 
+ * @author matthewpape
+ */
+public class PairingResult {
+	
+	private final String mLeftEntrant;
+	private final String mRightEntrant;
+	private final long mLeftWinCount;
+	private final long mRightWinCount;
+	private final long mDrawCount;
+	
+	/**
+	 * Creates the results of a pairing
+	 * @param leftEntrant
+	 * @param rightEntrant
+	 * @param leftWinCount
+	 * @param rightWinCount
+	 * @param drawCount
+	 */
+	PairingResult(String leftEntrant, String rightEntrant, long leftWinCount, long rightWinCount, long drawCount) {
+		mLeftEntrant = leftEntrant;
+		mRightEntrant = rightEntrant;
+		mLeftWinCount = leftWinCount;
+		mRightWinCount = rightWinCount;
+		mDrawCount = drawCount;
+	}
+	
+	/**
+	 * Gets the name of the entrant who played as the left player, and so moved first
+	 * @return
+	 */
+	public String getLeftEntrant() {
+		return mLeftEntrant;
+	}
+	
+	/**
+	 * Gets the name of the entrant who played as the right player
+	 * @return
+	 */
+	public String getRightEntrant() {
+		return mRightEntrant;
+	}
+	
+	/**
+	 * Gets the number of games won by the left player
+	 * @return
+	 */
+	public long getLeftWinCount() {
+		return mLeftWinCount;
+	}
+	
+	/**
+	 * Gets the number of games won by the right player
+	 * @return
+	 */
+	public long getRightWinCount() {
+		return mRightWinCount;
+	}
+	
+	/**
+	 * Gets the number of games stopped by the round limit before either player won
+	 * @return
+	 */
+	public long getDrawCount() {
+		return mDrawCount;
+	}
+	
+	/**
+	 * Gets the number of games played
+	 * @return
+	 */
+	public long getGameCount() {
+		return mLeftWinCount + mRightWinCount + mDrawCount;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return mLeftEntrant + " vs " + mRightEntrant + ": " + mLeftWinCount + "-" + mRightWinCount + "-" + mDrawCount;
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.phantomrealm.cardbattle.controller.tournament;
+
+import com.phantomrealm.cardbattle.controller.player.Player;
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+
+/**
+ * Creates the players of one configuration entered into a Tournament. A new player is created
+ *  for every game, and may be called from several threads at once.
+ * 
+ * @author matthewpape
+ */
+public interface PlayerFactory {
+	
+	/**
+	 * Creates a player for a single game
+	 * @param identity
+	 * @param deck the deck the player will play with, which is not shared with any other game
+	 * @return
+	 */
+	public Player createPlayer(PlayerIdentity identity, Deck deck);
+
+}
@@ -0,0 +1,350 @@
+package com.phantomrealm.cardbattle.controller.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.phantomrealm.cardbattle.controller.game.Game;
+import com.phantomrealm.cardbattle.controller.game.GameControllerListener;
+import com.phantomrealm.cardbattle.controller.player.Player;
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+import com.phantomrealm.cardbattle.util.RandomSource;
+
+/**
+ * Ranks player configurations by playing large numbers of games between them. Every entrant
+ *  plays every other entrant as both the left and the right player, a given number of times on
+ *  every board size. Games are spread across the threads of a ForkJoinPool, but each game is
+ *  confined to a single thread, with its own board, decks and players. Before each game the
+ *  RandomSource of its thread is seeded from the seed of the tournament, so every game can be
+ *  replayed on its own, whichever thread it ran on.
+ * 
+ * @author matthewpape
+ */
+public class Tournament {
+	
+	/**
+	 * Used to build a Tournament instance
+	 * 
+	 * @author matthewpape
+	 */
+	public static class Builder {
+		
+		private List<String> mEntrants;
+		private List<PlayerFactory> mPlayerFactories;
+		private List<int[]> mBoardSizes;
+		private DeckGenerator mDeckGenerator;
+		private int mGamesPerPairing;
+		private int mMaxRounds;
+		private GameControllerListener mListener;
+		private ForkJoinPool mForkJoinPool;
+		private Long mSeed;
+		
+		public Builder() {
+			mEntrants = new ArrayList<String>();
+			mPlayerFactories = new ArrayList<PlayerFactory>();
+			mBoardSizes = new ArrayList<int[]>();
+			mGamesPerPairing = 1;
+		}
+		
+		/**
+		 * Adds a player configuration to the tournament
+		 * @param name identifies the entrant in the results, and must be unique
+		 * @param playerFactory
+		 * @return
+		 */
+		public Builder addEntrant(String name, PlayerFactory playerFactory) {
+			if (mEntrants.contains(name)) {
+				throw new IllegalArgumentException("an entrant named " + name + " was already added");
+			}
+			mEntrants.add(name);
+			mPlayerFactories.add(playerFactory);
+			return this;
+		}
+		
+		/**
+		 * Adds a size of board to play every pairing on. A 3x3 board is used if no size is added.
+		 * @param width
+		 * @param height
+		 * @return
+		 */
+		public Builder addBoardSize(int width, int height) {
+			mBoardSizes.add(new int[] { width, height });
+			return this;
+		}
+		
+		/**
+		 * Sets the generator of the decks played with, or null to use DeckFactory.generateTestDeck
+		 * @param deckGenerator
+		 * @return
+		 */
+		public Builder setDeckGenerator(DeckGenerator deckGenerator) {
+			mDeckGenerator = deckGenerator;
+			return this;
+		}
+		
+		/**
+		 * Sets the number of games played by each pairing on each board size
+		 * @param gamesPerPairing
+		 * @return
+		 */
+		public Builder setGamesPerPairing(int gamesPerPairing) {
+			mGamesPerPairing = Math.max(gamesPerPairing, 0);
+			return this;
+		}
+		
+		/**
+		 * Sets the number of rounds after which a game is stopped and counted as a draw
+		 * @param maxRounds 0 to play every game until it is won
+		 * @return
+		 */
+		public Builder setMaxRounds(int maxRounds) {
+			mMaxRounds = Math.max(maxRounds, 0);
+			return this;
+		}
+		
+		/**
+		 * Sets the listener to be called on the events of every game. Without a listener the
+		 *  tournament runs in throughput mode, where no listener is attached to any game.
+		 * @param listener will be called from several threads at once, or null for throughput mode
+		 * @return
+		 */
+		public Builder setGameControllerListener(GameControllerListener listener) {
+			mListener = listener;
+			return this;
+		}
+		
+		/**
+		 * Sets the pool to play games on
+		 * @param forkJoinPool or null to create a pool with a thread for each processor for every run
+		 * @return
+		 */
+		public Builder setForkJoinPool(ForkJoinPool forkJoinPool) {
+			mForkJoinPool = forkJoinPool;
+			return this;
+		}
+		
+		/**
+		 * Sets the seed every game of the tournament is seeded from
+		 * @param seed or null to pick a seed at random
+		 * @return
+		 */
+		public Builder setSeed(Long seed) {
+			mSeed = seed;
+			return this;
+		}
+		
+		public Tournament build() {
+			if (mEntrants.size() < 2) {
+				throw new IllegalArgumentException("a tournament needs at least two entrants");
+			}
+			List<int[]> boardSizes = mBoardSizes.isEmpty() ? null : mBoardSizes;
+			long seed = mSeed != null ? mSeed : RandomSource.current().nextLong();
+			return new Tournament(mEntrants, mPlayerFactories, boardSizes, mDeckGenerator, mGamesPerPairing, mMaxRounds, mListener, mForkJoinPool, seed);
+		}
+	
+	}
+	
+	private static final int DEFAULT_BOARD_SIZE = 3;
+	private static final int GAMES_PER_TASK = 16;
+	
+	private final List<String> mEntrants;
+	private final List<PlayerFactory> mPlayerFactories;
+	private final int[][] mBoardSizes;
+	private final DeckGenerator mDeckGenerator;
+	private final int mGamesPerPairing;
+	private final int mMaxRounds;
+	private final GameControllerListener mListener;
+	private final ForkJoinPool mForkJoinPool;
+	private final int[] mPairings;
+	private final long mSeed;
+	
+	/**
+	 * Creates a tournament with the given settings
+	 * @param entrants
+	 * @param playerFactories
+	 * @param boardSizes null for a single 3x3 board
+	 * @param deckGenerator null for DeckFactory.generateTestDeck
+	 * @param gamesPerPairing
+	 * @param maxRounds
+	 * @param listener null for throughput mode
+	 * @param forkJoinPool null to create a pool for every run
+	 * @param seed
+	 */
+	private Tournament(List<String> entrants, List<PlayerFactory> playerFactories, List<int[]> boardSizes, DeckGenerator deckGenerator,
+			int gamesPerPairing, int maxRounds, GameControllerListener listener, ForkJoinPool forkJoinPool, long seed) {
+		mEntrants = new ArrayList<String>(entrants);
+		mPlayerFactories = new ArrayList<PlayerFactory>(playerFactories);
+		mBoardSizes = boardSizes == null ? new int[][] { { DEFAULT_BOARD_SIZE, DEFAULT_BOARD_SIZE } } : boardSizes.toArray(new int[boardSizes.size()][]);
+		mDeckGenerator = deckGenerator != null ? deckGenerator : new DeckGenerator() {
+			@Override
+			public Deck generateDeck() {
+				return DeckFactory.generateTestDeck();
+			}
+		};
+		mGamesPerPairing = gamesPerPairing;
+		mMaxRounds = maxRounds;
+		mListener = listener;
+		mForkJoinPool = forkJoinPool;
+		mSeed = seed;
+		
+		// every ordered pair of different entrants, packed as left * entrants + right
+		int entrantCount = mEntrants.size();
+		mPairings = new int[entrantCount * (entrantCount - 1)];
+		int pairing = 0;
+		for (int left = 0; left < entrantCount; ++left) {
+			for (int right = 0; right < entrantCount; ++right) {
+				if (left != right) {
+					mPairings[pairing++] = left * entrantCount + right;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Indicates whether or not games are played without any listener attached
+	 * @return
+	 */
+	public boolean isThroughputMode() {
+		return mListener == null;
+	}
+	
+	/**
+	 * Gets the seed every game of the tournament is seeded from
+	 * @return
+	 */
+	public long getSeed() {
+		return mSeed;
+	}
+	
+	/**
+	 * Gets the seed of a single game. Seeding the RandomSource of a thread with it and playing
+	 *  the game on that thread plays the game exactly as the tournament did, as long as the
+	 *  players only draw random numbers from the RandomSource of their thread.
+	 * @param gameIndex between 0 and getGameCount()
+	 * @return
+	 */
+	public long getGameSeed(long gameIndex) {
+		return RandomSource.mix(mSeed + gameIndex);
+	}
+	
+	/**
+	 * Gets the total number of games played by each run of the tournament
+	 * @return
+	 */
+	public long getGameCount() {
+		return (long) mPairings.length * mBoardSizes.length * mGamesPerPairing;
+	}
+	
+	/**
+	 * Plays every game of the tournament, returning once all of them are over
+	 * @return
+	 */
+	public TournamentResults run() {
+		final long[] counts = new long[mEntrants.size() * mEntrants.size() * TournamentResults.COUNTS_PER_PAIRING];
+		ForkJoinPool pool = mForkJoinPool != null ? mForkJoinPool : new ForkJoinPool();
+		long start = System.nanoTime();
+		try {
+			pool.invoke(new GameRangeTask(0, getGameCount(), counts));
+		} finally {
+			if (pool != mForkJoinPool) {
+				pool.shutdown();
+			}
+		}
+		return new TournamentResults(mEntrants, counts, System.nanoTime() - start);
+	}
+	
+	/**
+	 * Plays a single game of the tournament
+	 * @param gameIndex between 0 and getGameCount(), ordered by pairing, then board size
+	 * @param counts the counts of the calling thread, to add the result to
+	 */
+	private void playGame(long gameIndex, long[] counts) {
+		long gamesPerPairing = (long) mBoardSizes.length * mGamesPerPairing;
+		int pairing = mPairings[(int) (gameIndex / gamesPerPairing)];
+		int[] boardSize = mBoardSizes[(int) (gameIndex % gamesPerPairing / mGamesPerPairing)];
+		int entrantCount = mEntrants.size();
+		int left = pairing / entrantCount;
+		int right = pairing % entrantCount;
+		RandomSource.current().setSeed(getGameSeed(gameIndex));
+		
+		Player leftPlayer = mPlayerFactories.get(left).createPlayer(PlayerIdentity.LEFT_PLAYER, mDeckGenerator.generateDeck());
+		Player rightPlayer = mPlayerFactories.get(right).createPlayer(PlayerIdentity.RIGHT_PLAYER, mDeckGenerator.generateDeck());
+		Game.Builder builder = new Game.Builder(leftPlayer, rightPlayer, new Board(boardSize[0], boardSize[1]));
+		if (mListener != null) {
+			builder.setGameControllerListener(mListener);
+		}
+		Game game = builder.build();
+		
+		PlayerIdentity winner;
+		if (mMaxRounds == 0) {
+			winner = game.playToCompletion();
+		} else {
+			int result = Game.IN_PROGRESS;
+			for (int round = 0; result == Game.IN_PROGRESS && round < mMaxRounds; ++round) {
+				result = game.step();
+			}
+			winner = Game.getWinner(result);
+		}
+		
+		int index = TournamentResults.getPairingIndex(left, right, entrantCount);
+		if (winner == PlayerIdentity.LEFT_PLAYER) {
+			++counts[index + TournamentResults.LEFT_WINS];
+		} else if (winner == PlayerIdentity.RIGHT_PLAYER) {
+			++counts[index + TournamentResults.RIGHT_WINS];
+		} else {
+			++counts[index + TournamentResults.DRAWS];
+		}
+	}
+	
+	/**
+	 * Plays a range of games, splitting it between tasks until each plays only a few games
+	 * 
+	 * @author matthewpape
+	 */
+	private class GameRangeTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final long mStart;
+		private final long mEnd;
+		private final long[] mCounts;
+		
+		/**
+		 * Creates a task for a range of games
+		 * @param start the index of the first game
+		 * @param end the index after the last game
+		 * @param counts the counts of the whole tournament
+		 */
+		GameRangeTask(long start, long end, long[] counts) {
+			mStart = start;
+			mEnd = end;
+			mCounts = counts;
+		}
+		
+		@Override
+		protected void compute() {
+			if (mEnd - mStart > GAMES_PER_TASK) {
+				long middle = (mStart + mEnd) >>> 1;
+				invokeAll(new GameRangeTask(mStart, middle, mCounts), new GameRangeTask(middle, mEnd, mCounts));
+				return;
+			}
+			
+			// results are counted privately, so threads only meet once per task
+			long[] counts = new long[mCounts.length];
+			for (long gameIndex = mStart; gameIndex < mEnd; ++gameIndex) {
+				playGame(gameIndex, counts);
+			}
+			synchronized (mCounts) {
+				for (int i = 0; i < counts.length; ++i) {
+					mCounts[i] += counts[i];
+				}
+			}
+		}
+	
+	}
+
+}
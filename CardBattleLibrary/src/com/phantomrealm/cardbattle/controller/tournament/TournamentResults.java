@@ -0,0 +1,184 @@
+package com.phantomrealm.cardbattle.controller.tournament;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of running a Tournament. Every entrant plays every other entrant both as the left
+ *  player and as the right player, so each ordered pair of entrants is a separate pairing.
+ * 
+ * @author matthewpape
+ */
+public class TournamentResults {
+	
+	/**
+	 * Index of the left player's wins in the counts of a pairing
+	 */
+	static final int LEFT_WINS = 0;
+	
+	/**
+	 * Index of the right player's wins in the counts of a pairing
+	 */
+	static final int RIGHT_WINS = 1;
+	
+	/**
+	 * Index of the draws in the counts of a pairing
+	 */
+	static final int DRAWS = 2;
+	
+	/**
+	 * Number of counts kept for each pairing
+	 */
+	static final int COUNTS_PER_PAIRING = 3;
+	
+	private final List<String> mEntrants;
+	private final long[] mCounts;
+	private final long mElapsedNanos;
+	
+	/**
+	 * Creates the results of a tournament
+	 * @param entrants the names of the entrants, in the order they were added
+	 * @param counts COUNTS_PER_PAIRING counts for each pairing, indexed by getPairingIndex
+	 * @param elapsedNanos the time taken to play every game
+	 */
+	TournamentResults(List<String> entrants, long[] counts, long elapsedNanos) {
+		mEntrants = Collections.unmodifiableList(new ArrayList<String>(entrants));
+		mCounts = counts;
+		mElapsedNanos = elapsedNanos;
+	}
+	
+	/**
+	 * Gets the index of the counts of a pairing
+	 * @param leftIndex the index of the left entrant
+	 * @param rightIndex the index of the right entrant
+	 * @param entrantCount
+	 * @return
+	 */
+	static int getPairingIndex(int leftIndex, int rightIndex, int entrantCount) {
+		return (leftIndex * entrantCount + rightIndex) * COUNTS_PER_PAIRING;
+	}
+	
+	/**
+	 * Gets the names of the entrants, in the order they were added to the tournament
+	 * @return
+	 */
+	public List<String> getEntrants() {
+		return mEntrants;
+	}
+	
+	/**
+	 * Gets the total number of games played
+	 * @return
+	 */
+	public long getGameCount() {
+		long gameCount = 0;
+		for (long count : mCounts) {
+			gameCount += count;
+		}
+		return gameCount;
+	}
+	
+	/**
+	 * Gets the time taken to play every game
+	 * @return
+	 */
+	public long getElapsedNanos() {
+		return mElapsedNanos;
+	}
+	
+	/**
+	 * Gets the number of games played per second of elapsed time, across all threads
+	 * @return 0 if no time has elapsed
+	 */
+	public double getGamesPerSecond() {
+		return mElapsedNanos == 0 ? 0 : getGameCount() * 1e9 / mElapsedNanos;
+	}
+	
+	/**
+	 * Gets the number of games won by an entrant, playing either side
+	 * @param entrant
+	 * @return
+	 */
+	public long getWinCount(String entrant) {
+		return getEntrantCount(entrant, LEFT_WINS, RIGHT_WINS);
+	}
+	
+	/**
+	 * Gets the number of games lost by an entrant, playing either side
+	 * @param entrant
+	 * @return
+	 */
+	public long getLossCount(String entrant) {
+		return getEntrantCount(entrant, RIGHT_WINS, LEFT_WINS);
+	}
+	
+	/**
+	 * Gets the number of games drawn by an entrant, playing either side
+	 * @param entrant
+	 * @return
+	 */
+	public long getDrawCount(String entrant) {
+		return getEntrantCount(entrant, DRAWS, DRAWS);
+	}
+	
+	/**
+	 * Gets the results of the games played by one entrant as the left player against another as
+	 *  the right player
+	 * @param leftEntrant
+	 * @param rightEntrant
+	 * @return
+	 */
+	public PairingResult getPairingResult(String leftEntrant, String rightEntrant) {
+		int index = getPairingIndex(getEntrantIndex(leftEntrant), getEntrantIndex(rightEntrant), mEntrants.size());
+		return new PairingResult(leftEntrant, rightEntrant, mCounts[index + LEFT_WINS], mCounts[index + RIGHT_WINS], mCounts[index + DRAWS]);
+	}
+	
+	/**
+	 * Gets the results of every pairing, grouped by left entrant in the order they were added
+	 * @return
+	 */
+	public List<PairingResult> getPairingResults() {
+		List<PairingResult> results = new ArrayList<PairingResult>();
+		for (String leftEntrant : mEntrants) {
+			for (String rightEntrant : mEntrants) {
+				if (!leftEntrant.equals(rightEntrant)) {
+					results.add(getPairingResult(leftEntrant, rightEntrant));
+				}
+			}
+		}
+		return results;
+	}
+	
+	/**
+	 * Sums one count of every pairing an entrant played in
+	 * @param entrant
+	 * @param leftCount the count to sum when the entrant played as the left player
+	 * @param rightCount the count to sum when the entrant played as the right player
+	 * @return
+	 */
+	private long getEntrantCount(String entrant, int leftCount, int rightCount) {
+		int entrantIndex = getEntrantIndex(entrant);
+		int entrantCount = mEntrants.size();
+		long count = 0;
+		for (int other = 0; other < entrantCount; ++other) {
+			count += mCounts[getPairingIndex(entrantIndex, other, entrantCount) + leftCount];
+			count += mCounts[getPairingIndex(other, entrantIndex, entrantCount) + rightCount];
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets the index of an entrant
+	 * @param entrant
+	 * @return
+	 */
+	private int getEntrantIndex(String entrant) {
+		int index = mEntrants.indexOf(entrant);
+		if (index < 0) {
+			throw new IllegalArgumentException("no entrant named " + entrant);
+		}
+		return index;
+	}
+
+}
@@ -0,0 +1,449 @@
+package com.phantomrealm.cardbattle.model.board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.card.BattleOutcomes;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.card.CardRegistry;
+
+/**
+ * A compact form of a Board with up to 64 slots, meant for searches which copy and compare
+ *  boards often. It stands alone for now: none of the players search on it, and they all play
+ *  on Board instead, which also supports bonus effects. The owner of each slot is stored as one
+ *  bit in a mask for each player, numbered row by row (bit row * width + column), and the card
+ *  in each slot as an id into a table of the cards seen by the board, which holds the index of
+ *  the archetype of each card from CardRegistry. Moves, stalemates and the winner are all worked
+ *  out with bit operations, and conflicts with BattleOutcomes, following the same rules as
+ *  Board. Bonus effects are not supported, so cards with one are rejected rather than resolved
+ *  differently than on a Board. No listener is signaled, and the stats of each card are read
+ *  once, when the card is first placed.
+ * 
+ * @author matthewpape
+ */
+public class BitBoard {
+	
+	/**
+	 * The largest number of slots a BitBoard can hold
+	 */
+	public static final int MAX_SLOTS = Long.SIZE;
+	
+	/**
+	 * The id of an empty slot, which has no card
+	 */
+	public static final int NO_CARD = 0;
+	
+	private final int mWidth;
+	private final int mHeight;
+	private final long mFullMask;
+	private final long mFirstColumnMask;
+	private final long mLastColumnMask;
+	private final long mPairMask;
+	private final long mRowMask;
+	// shared with every Board of the same size, so moves compare by identity as they do there
+	private final Position[] mPositions;
+	private long mLeftOwned;
+	private long mRightOwned;
+	private short[] mCardIds;
+	// the card table is never modified once built, so that copies of a board can share it
+	private Card[] mCards;
+	private int[] mArchetypeIndexes;
+	
+	/**
+	 * Creates an empty board of a given size
+	 * @param boardWidth minimum of 2
+	 * @param boardHeight minimum of 1
+	 * @throws IllegalArgumentException if the board has more than 64 slots
+	 */
+	public BitBoard(int boardWidth, int boardHeight) {
+		mWidth = Math.max(boardWidth, 2);
+		mHeight = Math.max(boardHeight, 1);
+		if (mWidth * mHeight > MAX_SLOTS) {
+			throw new IllegalArgumentException("a BitBoard may have at most " + MAX_SLOTS + " slots");
+		}
+		mRowMask = mWidth == MAX_SLOTS ? -1L : (1L << mWidth) - 1;
+		long firstColumnMask = 0;
+		for (int row = 0; row < mHeight; ++row) {
+			firstColumnMask |= 1L << (row * mWidth);
+		}
+		mFirstColumnMask = firstColumnMask;
+		mLastColumnMask = firstColumnMask << (mWidth - 1);
+		mFullMask = mWidth * mHeight == MAX_SLOTS ? -1L : (1L << (mWidth * mHeight)) - 1;
+		mPairMask = mFullMask & ~mLastColumnMask;
+		mCardIds = new short[mWidth * mHeight];
+		mPositions = Board.getPositionTable(mWidth, mHeight);
+		mCards = new Card[] { null };
+		mArchetypeIndexes = new int[] { CardRegistry.NO_INDEX };
+	}
+	
+	/**
+	 * Creates a BitBoard in the same state as a given board
+	 * @param board is not modified
+	 * @return
+	 * @throws IllegalArgumentException if the board has more than 64 slots
+	 */
+	public static BitBoard fromBoard(Board board) {
+		BitBoard bitBoard = new BitBoard(board.getWidth(), board.getHeight());
+		for (int row = 0; row < board.getHeight(); ++row) {
+			for (int col = 0; col < board.getWidth(); ++col) {
+				BoardSlot boardSlot = board.getBoardSlot(row, col);
+				if (boardSlot.getOwner() != null) {
+					bitBoard.executeMove(bitBoard.getCardId(boardSlot.getCard()), boardSlot.getOwner(), row, col);
+				}
+			}
+		}
+		return bitBoard;
+	}
+	
+	/**
+	 * Creates a Board in the same state as this board, holding copies of its cards
+	 * @return
+	 */
+	public Board toBoard() {
+		Board board = new Board(mWidth, mHeight);
+		for (int row = 0; row < mHeight; ++row) {
+			for (int col = 0; col < mWidth; ++col) {
+				PlayerIdentity owner = getOwner(row, col);
+				if (owner != null) {
+					Card card = getCard(row, col);
+					board.executeMove(card != null ? card.clone() : null, owner, board.getPosition(row, col));
+				}
+			}
+		}
+		return board;
+	}
+	
+	/**
+	 * Creates a copy of this board, which shares its table of cards
+	 */
+	public BitBoard clone() {
+		BitBoard clonedBoard = new BitBoard(mWidth, mHeight);
+		clonedBoard.copyFrom(this);
+		return clonedBoard;
+	}
+	
+	/**
+	 * Puts this board in the same state as another board of the same size, without allocating
+	 * @param bitBoard
+	 */
+	public void copyFrom(BitBoard bitBoard) {
+		if (bitBoard.mWidth != mWidth || bitBoard.mHeight != mHeight) {
+			throw new IllegalArgumentException("boards must be the same size to copy");
+		}
+		mLeftOwned = bitBoard.mLeftOwned;
+		mRightOwned = bitBoard.mRightOwned;
+		System.arraycopy(bitBoard.mCardIds, 0, mCardIds, 0, mCardIds.length);
+		mCards = bitBoard.mCards;
+		mArchetypeIndexes = bitBoard.mArchetypeIndexes;
+	}
+	
+	/**
+	 * Returns the width of the board
+	 * @return
+	 */
+	public int getWidth() {
+		return mWidth;
+	}
+	
+	/**
+	 * Returns the height of the board
+	 * @return
+	 */
+	public int getHeight() {
+		return mHeight;
+	}
+	
+	/**
+	 * Gets the mask of the slots owned by a given player
+	 * @param player
+	 * @return
+	 */
+	public long getOwnedMask(PlayerIdentity player) {
+		return player == PlayerIdentity.LEFT_PLAYER ? mLeftOwned : player == PlayerIdentity.RIGHT_PLAYER ? mRightOwned : 0;
+	}
+	
+	/**
+	 * Gets the owner of the slot at a given position
+	 * @param row
+	 * @param col
+	 * @return null if the slot is empty
+	 */
+	public PlayerIdentity getOwner(int row, int col) {
+		long bit = getBit(row, col);
+		if ((mLeftOwned & bit) != 0) {
+			return PlayerIdentity.LEFT_PLAYER;
+		} else if ((mRightOwned & bit) != 0) {
+			return PlayerIdentity.RIGHT_PLAYER;
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the id of the card in the slot at a given position
+	 * @param row
+	 * @param col
+	 * @return NO_CARD if the slot is empty
+	 */
+	public int getCardId(int row, int col) {
+		return getOwner(row, col) != null ? mCardIds[row * mWidth + col] : NO_CARD;
+	}
+	
+	/**
+	 * Gets the card in the slot at a given position
+	 * @param row
+	 * @param col
+	 * @return null if the slot is empty
+	 */
+	public Card getCard(int row, int col) {
+		return mCards[getCardId(row, col)];
+	}
+	
+	/**
+	 * Gets the id of a given card, adding the card to the table of this board if it has not been
+	 *  seen before. Cards are identified by instance, not by name and stats.
+	 * @param card
+	 * @return NO_CARD for null
+	 * @throws IllegalArgumentException if the card has a bonus effect or cannot be packed by CardRegistry
+	 */
+	public int getCardId(Card card) {
+		if (card == null) {
+			return NO_CARD;
+		}
+		for (int id = 1; id < mCards.length; ++id) {
+			if (mCards[id] == card) {
+				return id;
+			}
+		}
+		if (card.getBonusEffect() != null) {
+			throw new IllegalArgumentException("cards with bonus effects cannot be placed on a BitBoard");
+		}
+		if (mCards.length > Short.MAX_VALUE) {
+			throw new IllegalStateException("too many different cards on one board");
+		}
+		// the old table may be shared with copies of this board, so it is replaced rather than changed
+		int archetypeIndex = CardRegistry.getArchetype(card).getIndex();
+		int id = mCards.length;
+		mCards = Arrays.copyOf(mCards, id + 1);
+		mArchetypeIndexes = Arrays.copyOf(mArchetypeIndexes, id + 1);
+		mCards[id] = card;
+		mArchetypeIndexes[id] = archetypeIndex;
+		return id;
+	}
+	
+	/**
+	 * Checks if every single slot on the board is owned
+	 * @return
+	 */
+	public boolean isFull() {
+		return (mLeftOwned | mRightOwned) == mFullMask;
+	}
+	
+	/**
+	 * Gets the number of slots on the board which are owned by a given player
+	 * @param player
+	 * @return
+	 */
+	public int getCardCount(PlayerIdentity player) {
+		return Long.bitCount(getOwnedMask(player));
+	}
+	
+	/**
+	 * Places a card from a given player in a given position
+	 * @param card
+	 * @param cardOwner
+	 * @param move
+	 */
+	public void executeMove(Card card, PlayerIdentity cardOwner, Position move) {
+		if (move == null) {
+			return;
+		}
+		executeMove(getCardId(card), cardOwner, move.getRow(), move.getColumn());
+	}
+	
+	/**
+	 * Places a card from a given player in a given position
+	 * @param cardId from getCardId
+	 * @param cardOwner
+	 * @param row
+	 * @param col
+	 */
+	public void executeMove(int cardId, PlayerIdentity cardOwner, int row, int col) {
+		long bit = getBit(row, col);
+		mLeftOwned &= ~bit;
+		mRightOwned &= ~bit;
+		if (cardOwner == PlayerIdentity.LEFT_PLAYER) {
+			mLeftOwned |= bit;
+		} else if (cardOwner == PlayerIdentity.RIGHT_PLAYER) {
+			mRightOwned |= bit;
+		}
+		mCardIds[row * mWidth + col] = (short) cardId;
+	}
+	
+	/**
+	 * Gets a mask with one bit for the first pair of neighboring slots in each row which are
+	 *  owned by different players, set on the left slot of the pair
+	 * @return
+	 */
+	private long getFirstConflicts() {
+		long conflicts = ((mLeftOwned & (mRightOwned >>> 1)) | (mRightOwned & (mLeftOwned >>> 1))) & mPairMask;
+		long firstConflicts = 0;
+		while (conflicts != 0) {
+			long first = Long.lowestOneBit(conflicts);
+			firstConflicts |= first;
+			int row = Long.numberOfTrailingZeros(first) / mWidth;
+			conflicts &= ~(mRowMask << (row * mWidth));
+		}
+		return firstConflicts;
+	}
+	
+	/**
+	 * Settles the first conflict in every row of the board
+	 */
+	public void resolveBoardConflicts() {
+		long conflicts = getFirstConflicts();
+		while (conflicts != 0) {
+			int leftIndex = Long.numberOfTrailingZeros(conflicts);
+			conflicts &= conflicts - 1;
+			int outcome = BattleOutcomes.getOutcome(mArchetypeIndexes[mCardIds[leftIndex]], mArchetypeIndexes[mCardIds[leftIndex + 1]]);
+			if ((outcome & BattleOutcomes.LEFT_DIES) != 0) {
+				emptySlot(leftIndex);
+			}
+			if ((outcome & BattleOutcomes.RIGHT_DIES) != 0) {
+				emptySlot(leftIndex + 1);
+			}
+		}
+	}
+	
+	/**
+	 * Clears out the first stalemated pair of cards in every row if the board is full
+	 */
+	public void resolveBoardStalemates() {
+		if (isFull()) {
+			long conflicts = getFirstConflicts();
+			while (conflicts != 0) {
+				int leftIndex = Long.numberOfTrailingZeros(conflicts);
+				conflicts &= conflicts - 1;
+				emptySlot(leftIndex);
+				emptySlot(leftIndex + 1);
+			}
+		}
+	}
+	
+	/**
+	 * Clears every card from the board if the players control all of the rows between them
+	 *  without either having a majority, as for Board
+	 */
+	public void resolveBoardSuperStalemate() {
+		if (getWinner() == null && getControlledRowCount(PlayerIdentity.LEFT_PLAYER) + getControlledRowCount(PlayerIdentity.RIGHT_PLAYER) == mHeight) {
+			mLeftOwned = 0;
+			mRightOwned = 0;
+			Arrays.fill(mCardIds, (short) NO_CARD);
+		}
+	}
+	
+	/**
+	 * Returns the player who has won the game by controlling a majority of rows, or null if no
+	 *  player has yet won. The board is not modified.
+	 * @return
+	 */
+	public PlayerIdentity getWinner() {
+		int majority = mHeight / 2 + 1;
+		if (getControlledRowCount(PlayerIdentity.RIGHT_PLAYER) >= majority) {
+			return PlayerIdentity.RIGHT_PLAYER;
+		} else if (getControlledRowCount(PlayerIdentity.LEFT_PLAYER) >= majority) {
+			return PlayerIdentity.LEFT_PLAYER;
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the number of rows controlled by a given player, as for Board
+	 * @param player
+	 * @return
+	 */
+	public int getControlledRowCount(PlayerIdentity player) {
+		long rightRows = mRightOwned & mFirstColumnMask;
+		if (player == PlayerIdentity.RIGHT_PLAYER) {
+			return Long.bitCount(rightRows);
+		} else if (player == PlayerIdentity.LEFT_PLAYER) {
+			// the right player owning the leftmost slot of a row takes precedence
+			return Long.bitCount(mLeftOwned & mLastColumnMask & ~(rightRows << (mWidth - 1)));
+		}
+		return 0;
+	}
+	
+	/**
+	 * Gets a mask of all the slots where a given player could currently place a card: the first
+	 *  empty slot of each row, counting from the player's own side of the board
+	 * @param player
+	 * @return
+	 */
+	public long getMoveMask(PlayerIdentity player) {
+		long occupied = mLeftOwned | mRightOwned;
+		long moves = 0;
+		for (int row = 0; row < mHeight; ++row) {
+			int shift = row * mWidth;
+			long empty = ~(occupied >>> shift) & mRowMask;
+			if (empty != 0) {
+				long move = player == PlayerIdentity.LEFT_PLAYER ? Long.lowestOneBit(empty) : Long.highestOneBit(empty);
+				moves |= move << shift;
+			}
+		}
+		return moves;
+	}
+	
+	/**
+	 * Returns a list of all the possible positions on the board where a given player
+	 *  could currently place a card, in the same order as Board.getPossibleMoves and as the same
+	 *  shared Position instances
+	 * @param player
+	 * @return
+	 */
+	public List<Position> getPossibleMoves(PlayerIdentity player) {
+		List<Position> moves = new ArrayList<Position>();
+		long moveMask = getMoveMask(player);
+		while (moveMask != 0) {
+			int index = Long.numberOfTrailingZeros(moveMask);
+			moveMask &= moveMask - 1;
+			moves.add(mPositions[index]);
+		}
+		return moves;
+	}
+	
+	/**
+	 * Indicates whether or not a given move is valid for a given player
+	 * @param player
+	 * @param move
+	 * @return
+	 */
+	public boolean isValidMove(PlayerIdentity player, Position move) {
+		if (move == null || move.getRow() < 0 || move.getRow() >= mHeight || move.getColumn() < 0 || move.getColumn() >= mWidth) {
+			return false;
+		}
+		return (getMoveMask(player) & getBit(move.getRow(), move.getColumn())) != 0;
+	}
+	
+	/**
+	 * Gets the bit standing for the slot at a given position
+	 * @param row
+	 * @param col
+	 * @return
+	 */
+	private long getBit(int row, int col) {
+		return 1L << (row * mWidth + col);
+	}
+	
+	/**
+	 * Removes the card and owner from the slot with a given index
+	 * @param index
+	 */
+	private void emptySlot(int index) {
+		long bit = 1L << index;
+		mLeftOwned &= ~bit;
+		mRightOwned &= ~bit;
+		mCardIds[index] = NO_CARD;
+	}
+
+}
@@ -1,13 +1,18 @@
 package com.phantomrealm.cardbattle.model.board;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import com.phantomrealm.cardbattle.controller.game.EmptyGameControllerListener;
 import com.phantomrealm.cardbattle.controller.game.GameControllerListener;
 import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
 import com.phantomrealm.cardbattle.model.card.AttackType;
+import com.phantomrealm.cardbattle.model.card.BattleOutcomes;
+import com.phantomrealm.cardbattle.model.card.BonusEffectTable;
 import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.card.CardRegistry;
 
 /**
  * Model object used to represent the board on which the game is played
@@ -15,14 +20,55 @@ import com.phantomrealm.cardbattle.model.card.Card;
  * @author matthewpape
  */
 public class Board {
-
+	
 	private static final int DEFAULT_BOARD_WIDTH = 3;
 	private static final int DEFAULT_BOARD_HEIGHT = 3;
 	private static final int MIN_BOARD_WIDTH = 2;
 	private static final int MIN_BOARD_HEIGHT = 1;
+	private static final int INITIAL_UNDO_CAPACITY = 64;
+	private static final int UNDO_OWNER_BITS = 2;
+	// set in a record of the undo stack when the slot had stat levels, which are kept in mUndoLevels
+	private static final int UNDO_LEVELS_FLAG = 1 << UNDO_OWNER_BITS;
+	private static final int UNDO_SLOT_SHIFT = UNDO_OWNER_BITS + 1;
+	private static final int UNDO_OWNER_MASK = 0x3;
+	private static final PlayerIdentity[] UNDO_OWNERS = { null, PlayerIdentity.LEFT_PLAYER, PlayerIdentity.RIGHT_PLAYER };
+	private static final int MAX_MASKED_WIDTH = Long.SIZE;
+	private static final int ATTACK_LEVEL_SHIFT = 0;
+	private static final int DEFENSE_LEVEL_SHIFT = 8;
+	private static final int RESISTANCE_LEVEL_SHIFT = 16;
+	private static final int LEVEL_BITS = 8;
+	private static final int LEVEL_MASK = 0xFF;
+	private static final ConcurrentMap<Long, Position[]> POSITION_TABLES = new ConcurrentHashMap<Long, Position[]>();
 	
+	// null unless a listener is set; no events are dispatched while it is null
 	private GameControllerListener mListener;
 	private BoardSlot[][] mBoardSlots;
+	// kept alongside the slots, since every slot index is worked out from it
+	private int mWidth;
+	private long mHash;
+	private int mOccupiedCount;
+	private int mLeftCardCount;
+	private int mRightCardCount;
+	private PlayerIdentity[] mRowControllers;
+	private long[] mRowOccupancy;
+	private boolean[] mDirtyRows;
+	private int[] mDirtyRowList;
+	private int[] mResolvingRows;
+	private int mDirtyRowCount;
+	private Position[] mPositions;
+	// the packed form of the card in each slot when it was placed, which conflicts are resolved from
+	private int[] mSlotCards;
+	// the changes made by bonus effects to the stats of the card in each slot, one signed byte per stat
+	private int[] mSlotLevels;
+	private int mLeveledSlotCount;
+	private int mLeftRowCount;
+	private int mRightRowCount;
+	private int mOpenMoves;
+	private int mUndoSize;
+	private int[] mUndoSlots;
+	private Card[] mUndoCards;
+	private int[] mUndoPackedCards;
+	private int[] mUndoLevels;
 	
 	/**
 	 * Creates a board of default size (3x3)
@@ -40,19 +86,54 @@ public class Board {
 	 * @param boardHeight minimum of 1
 	 */
 	public Board(int boardWidth, int boardHeight) {
-		mListener = new EmptyGameControllerListener();
 		boardWidth = Math.max(boardWidth, MIN_BOARD_WIDTH);
 		boardHeight = Math.max(boardHeight, MIN_BOARD_HEIGHT);
 		mBoardSlots = new BoardSlot[boardHeight][boardWidth];
+		mWidth = boardWidth;
+		mRowControllers = new PlayerIdentity[boardHeight];
+		mRowOccupancy = boardWidth <= MAX_MASKED_WIDTH ? new long[boardHeight] : null;
+		mDirtyRows = new boolean[boardHeight];
+		mDirtyRowList = new int[boardHeight];
+		mResolvingRows = new int[boardHeight];
+		mPositions = getPositionTable(boardWidth, boardHeight);
+		mSlotCards = new int[boardWidth * boardHeight];
+		mSlotLevels = new int[boardWidth * boardHeight];
 		for (int row = 0; row < boardHeight; ++row) {
 			for (int col = 0; col < boardWidth; ++col) {
-				mBoardSlots[row][col] = new BoardSlot();
+				mBoardSlots[row][col] = new BoardSlot(this, row, col);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the shared Position of every slot on boards of a given size, indexed by row then column
+	 * @param boardWidth
+	 * @param boardHeight
+	 * @return which must not be modified, since it is shared by every board of the same size
+	 */
+	static Position[] getPositionTable(int boardWidth, int boardHeight) {
+		Long key = ((long) boardWidth << Integer.SIZE) | boardHeight;
+		Position[] positions = POSITION_TABLES.get(key);
+		if (positions == null) {
+			positions = new Position[boardWidth * boardHeight];
+			for (int row = 0; row < boardHeight; ++row) {
+				for (int col = 0; col < boardWidth; ++col) {
+					positions[row * boardWidth + col] = new Position(row, col);
+				}
+			}
+			Position[] existingPositions = POSITION_TABLES.putIfAbsent(key, positions);
+			if (existingPositions != null) {
+				positions = existingPositions;
 			}
 		}
+		return positions;
 	}
 	
 	/**
-	 * Creates a copy of an existing board
+	 * Creates a copy of an existing board. The packed cards, stat levels and counts of the board
+	 *  are copied as arrays of ints, and the Card in each slot is shared with the copy rather than
+	 *  cloned, since both boards play with the packed form the card had when it was placed. The
+	 *  listener and any moves still open for undoMove are not copied.
 	 */
 	public Board clone() {
 		int boardWidth = getWidth();
@@ -60,32 +141,42 @@ public class Board {
 		Board clonedBoard = new Board(boardWidth, boardHeight);
 		for (int row = 0; row < boardHeight; ++row) {
 			for (int col = 0; col < boardWidth; ++col) {
-				BoardSlot boardSlot = getBoardSlot(row, col);
-				BoardSlot clonedSlot = clonedBoard.getBoardSlot(row, col);
-				clonedSlot.setSlotOwner(boardSlot.getOwner());
-				Card card = boardSlot.getCard();
-				if (card != null) {
-					clonedSlot.setCard(card.clone());
-				}
+				clonedBoard.getBoardSlot(row, col).copyFrom(getBoardSlot(row, col));
 			}
 		}
+		System.arraycopy(mSlotCards, 0, clonedBoard.mSlotCards, 0, mSlotCards.length);
+		System.arraycopy(mSlotLevels, 0, clonedBoard.mSlotLevels, 0, mSlotLevels.length);
+		System.arraycopy(mRowControllers, 0, clonedBoard.mRowControllers, 0, boardHeight);
+		if (mRowOccupancy != null) {
+			System.arraycopy(mRowOccupancy, 0, clonedBoard.mRowOccupancy, 0, boardHeight);
+		}
+		System.arraycopy(mDirtyRows, 0, clonedBoard.mDirtyRows, 0, boardHeight);
+		System.arraycopy(mDirtyRowList, 0, clonedBoard.mDirtyRowList, 0, mDirtyRowCount);
+		clonedBoard.mDirtyRowCount = mDirtyRowCount;
+		clonedBoard.mLeveledSlotCount = mLeveledSlotCount;
+		clonedBoard.mOccupiedCount = mOccupiedCount;
+		clonedBoard.mLeftCardCount = mLeftCardCount;
+		clonedBoard.mRightCardCount = mRightCardCount;
+		clonedBoard.mLeftRowCount = mLeftRowCount;
+		clonedBoard.mRightRowCount = mRightRowCount;
+		clonedBoard.mHash = mHash;
 		return clonedBoard;
 	}
 	
 	/**
 	 * Sets the listener to be called on specific game events
-	 * @param listener
+	 * @param listener null if no events should be dispatched at all, which is the default
 	 */
 	public void setGameControllerListener(GameControllerListener listener) {
-		mListener = listener != null ? listener : new EmptyGameControllerListener();
+		mListener = listener;
 	}
-
+	
 	/**
 	 * Returns the width of the board
 	 * @return
 	 */
 	public int getWidth() {
-		return mBoardSlots[0].length;
+		return mWidth;
 	}
 	
 	/**
@@ -96,6 +187,16 @@ public class Board {
 		return mBoardSlots.length;
 	}
 	
+	/**
+	 * Gets the Zobrist hash of the current state of the board. The hash is updated incrementally
+	 *  as the board changes, so it is only accurate for changes made through the board itself
+	 *  (moves and conflict/stalemate resolution), not for slots or cards which are modified directly.
+	 * @return
+	 */
+	public long getHash() {
+		return mHash;
+	}
+	
 	/**
 	 * Retrieves the given row of BoardSlots
 	 * @param row
@@ -121,14 +222,31 @@ public class Board {
 	 * @return null in the event that the given boardslot was not found
 	 */
 	public Position getPosition(BoardSlot boardSlot) {
-		for (int row = 0; row < mBoardSlots.length; ++row) {
-			for (int col = 0; col < getBoardRow(row).length; ++col) {
-				if (mBoardSlots[row][col] == boardSlot) {
-					return new Position(row, col);
-				}
-			}
+		// every slot of a board knows its own coordinates
+		if (boardSlot == null || boardSlot.getBoard() != this) {
+			return null;
 		}
-		return null;
+		return getPosition(boardSlot.getRow(), boardSlot.getColumn());
+	}
+	
+	/**
+	 * Gets the Position of the slot at given coordinates. The same instance is shared by every
+	 *  board of the same size, so no Position is allocated.
+	 * @param row
+	 * @param column
+	 * @return
+	 */
+	public Position getPosition(int row, int column) {
+		return mPositions[row * getWidth() + column];
+	}
+	
+	/**
+	 * Gets the Position of the slot with a given index, as written by getPossibleMoves
+	 * @param slotIndex (row * width + column)
+	 * @return
+	 */
+	public Position getPosition(int slotIndex) {
+		return mPositions[slotIndex];
 	}
 	
 	/**
@@ -136,14 +254,156 @@ public class Board {
 	 * @return
 	 */
 	public boolean isFull() {
-		for (int row = 0; row < mBoardSlots.length; ++row) {
-			for (int col = 0; col < getBoardRow(row).length; ++col) {
-				if (getBoardSlot(row, col).getOwner() == null) {
-					return false;
-				}
+		return mOccupiedCount == getWidth() * getHeight();
+	}
+	
+	/**
+	 * Gets the number of slots on the board which are owned by either player
+	 * @return
+	 */
+	public int getOccupiedCount() {
+		return mOccupiedCount;
+	}
+	
+	/**
+	 * Gets the number of slots on the board which are owned by a given player
+	 * @param player
+	 * @return
+	 */
+	public int getCardCount(PlayerIdentity player) {
+		if (player == PlayerIdentity.LEFT_PLAYER) {
+			return mLeftCardCount;
+		} else if (player == PlayerIdentity.RIGHT_PLAYER) {
+			return mRightCardCount;
+		}
+		return 0;
+	}
+	
+	/**
+	 * Gets the player who controls a given row, by owning the slot at the far end of the row
+	 *  from its own side of the board. The right player controls a row when it owns the leftmost
+	 *  slot, otherwise the left player controls it when it owns the rightmost slot.
+	 * @param row
+	 * @return null if neither player controls the row
+	 */
+	public PlayerIdentity getRowController(int row) {
+		return mRowControllers[row];
+	}
+	
+	/**
+	 * Gets the number of rows controlled by a given player
+	 * @param player
+	 * @return
+	 */
+	public int getControlledRowCount(PlayerIdentity player) {
+		if (player == PlayerIdentity.LEFT_PLAYER) {
+			return mLeftRowCount;
+		} else if (player == PlayerIdentity.RIGHT_PLAYER) {
+			return mRightRowCount;
+		}
+		return 0;
+	}
+	
+	/**
+	 * Updates the counts kept by the board when the owner of one of its slots changes. Every
+	 *  change of owner goes through here, whether it is made by the board or directly on a slot.
+	 * @param row
+	 * @param col
+	 * @param oldOwner
+	 * @param newOwner
+	 */
+	void onSlotOwnerChanged(int row, int col, PlayerIdentity oldOwner, PlayerIdentity newOwner) {
+		addCardCount(oldOwner, -1);
+		addCardCount(newOwner, 1);
+		if (mRowOccupancy != null) {
+			if (newOwner != null) {
+				mRowOccupancy[row] |= 1L << col;
+			} else {
+				mRowOccupancy[row] &= ~(1L << col);
 			}
 		}
-		return true;
+		if (col == 0 || col == getWidth() - 1) {
+			updateRowController(row);
+		}
+		markRowDirty(row);
+	}
+	
+	/**
+	 * Notes that the card in one of the slots of the board has changed, and keeps the packed
+	 *  form of the new card. Like every change of owner, this may create a conflict in the row of
+	 *  the slot. Any stat levels gained by the old card through bonus effects are dropped, since
+	 *  they belonged to that card.
+	 * @param row
+	 * @param col
+	 * @param packedCard CardRegistry.NO_CARD if the slot no longer has a card
+	 */
+	void onSlotCardChanged(int row, int col, int packedCard) {
+		int slotIndex = row * getWidth() + col;
+		mSlotCards[slotIndex] = packedCard;
+		markRowDirty(row);
+		if (mLeveledSlotCount != 0) {
+			setSlotLevels(slotIndex, 0);
+		}
+	}
+	
+	/**
+	 * Marks a row as needing its conflicts resolved by the next call to resolveBoardConflicts
+	 * @param row
+	 */
+	private void markRowDirty(int row) {
+		if (!mDirtyRows[row]) {
+			mDirtyRows[row] = true;
+			mDirtyRowList[mDirtyRowCount] = row;
+			++mDirtyRowCount;
+		}
+	}
+	
+	/**
+	 * Adds to the number of slots owned by a given player
+	 * @param player
+	 * @param delta
+	 */
+	private void addCardCount(PlayerIdentity player, int delta) {
+		if (player == PlayerIdentity.LEFT_PLAYER) {
+			mLeftCardCount += delta;
+			mOccupiedCount += delta;
+		} else if (player == PlayerIdentity.RIGHT_PLAYER) {
+			mRightCardCount += delta;
+			mOccupiedCount += delta;
+		}
+	}
+	
+	/**
+	 * Works out again which player controls a given row, after one of its end slots changed owner
+	 * @param row
+	 */
+	private void updateRowController(int row) {
+		BoardSlot[] boardRow = getBoardRow(row);
+		PlayerIdentity controller = null;
+		if (boardRow[0].getOwner() == PlayerIdentity.RIGHT_PLAYER) {
+			controller = PlayerIdentity.RIGHT_PLAYER;
+		} else if (boardRow[boardRow.length - 1].getOwner() == PlayerIdentity.LEFT_PLAYER) {
+			controller = PlayerIdentity.LEFT_PLAYER;
+		}
+		PlayerIdentity oldController = mRowControllers[row];
+		if (controller != oldController) {
+			mRowControllers[row] = controller;
+			addRowCount(oldController, -1);
+			addRowCount(controller, 1);
+		}
+	}
+	
+	/**
+	 * Adds to the number of rows controlled by a given player
+	 * @param player
+	 * @param delta
+	 */
+	private void addRowCount(PlayerIdentity player, int delta) {
+		if (player == PlayerIdentity.LEFT_PLAYER) {
+			mLeftRowCount += delta;
+		} else if (player == PlayerIdentity.RIGHT_PLAYER) {
+			mRightRowCount += delta;
+		}
 	}
 	
 	/**
@@ -151,37 +411,162 @@ public class Board {
 	 *  signaling the callback for a card being moved.
 	 * @param player
 	 * @param move
+	 * @throws IllegalArgumentException if any stat of the card is negative or above
+	 *  CardRegistry.MAX_STAT, in which case the board is not changed
 	 */
 	public void executeMove(Card card, PlayerIdentity cardOwner, Position move) {
 		if (move == null) {
 			return;
 		}
 		
-		mListener.onCardMoved(cardOwner, move);
+		int packedCard = CardRegistry.pack(card);
+		if (mListener != null) {
+			mListener.onCardMoved(cardOwner, move);
+		}
 		BoardSlot position = getBoardSlot(move.getRow(), move.getColumn());
-		position.setCard(card);
+		int slotIndex = move.getRow() * getWidth() + move.getColumn();
+		recordSlot(move.getRow(), move.getColumn(), position);
+		mHash ^= ZobristHash.getSlotKey(move.getRow(), move.getColumn(), position.getOwner(), mSlotCards[slotIndex]);
+		if (mLeveledSlotCount != 0 && position.getCard() == card) {
+			// levels are otherwise dropped by onSlotCardChanged as the card is replaced
+			setSlotLevels(slotIndex, 0);
+		}
+		position.setCard(card, packedCard);
+		// a card placed again over itself is played with the stats it has now
+		mSlotCards[slotIndex] = packedCard;
 		position.setSlotOwner(cardOwner);
+		mHash ^= ZobristHash.getSlotKey(move.getRow(), move.getColumn(), cardOwner, packedCard);
+	}
+	
+	/**
+	 * Places a card like executeMove, then resolves conflicts, stalemates and super stalemates
+	 *  on the board. Every change to the board is recorded from this point on, including any
+	 *  further moves, until undoMove is called with the returned marker.
+	 * @param card
+	 * @param cardOwner
+	 * @param move
+	 * @return the marker to pass to undoMove to revert the board to its state before this move
+	 */
+	public int applyMove(Card card, PlayerIdentity cardOwner, Position move) {
+		int undoMarker = mUndoSize;
+		++mOpenMoves;
+		executeMove(card, cardOwner, move);
+		resolveBoardConflicts();
+		resolveBoardStalemates();
+		resolveBoardSuperStalemate();
+		return undoMarker;
+	}
+	
+	/**
+	 * Reverts every change recorded since a call to applyMove. Moves must be undone in the
+	 *  reverse order that they were applied. Listeners are not signaled.
+	 * @param undoMarker returned by applyMove
+	 */
+	public void undoMove(int undoMarker) {
+		while (mUndoSize > undoMarker) {
+			--mUndoSize;
+			int undoSlot = mUndoSlots[mUndoSize];
+			int slotIndex = undoSlot >>> UNDO_SLOT_SHIFT;
+			PlayerIdentity owner = UNDO_OWNERS[undoSlot & UNDO_OWNER_MASK];
+			int row = slotIndex / getWidth();
+			int col = slotIndex % getWidth();
+			BoardSlot boardSlot = getBoardSlot(row, col);
+			Card card = mUndoCards[mUndoSize];
+			int packedCard = mUndoPackedCards[mUndoSize];
+			mUndoCards[mUndoSize] = null;
+			mHash ^= ZobristHash.getSlotKey(row, col, boardSlot.getOwner(), mSlotCards[slotIndex]);
+			boardSlot.setCard(card, packedCard);
+			mSlotCards[slotIndex] = packedCard;
+			boardSlot.setSlotOwner(owner);
+			mHash ^= ZobristHash.getSlotKey(row, col, owner, packedCard);
+			if ((undoSlot & UNDO_LEVELS_FLAG) != 0) {
+				setSlotLevels(slotIndex, mUndoLevels[mUndoSize]);
+			} else if (mLeveledSlotCount != 0) {
+				setSlotLevels(slotIndex, 0);
+			}
+		}
+		mOpenMoves = Math.max(mOpenMoves - 1, 0);
+	}
+	
+	/**
+	 * Records the state of a slot before it is changed, if a move applied by applyMove is
+	 *  still open
+	 * @param row
+	 * @param col
+	 * @param boardSlot
+	 */
+	private void recordSlot(int row, int col, BoardSlot boardSlot) {
+		if (mOpenMoves == 0) {
+			return;
+		}
+		if (mUndoSlots == null || mUndoSize == mUndoSlots.length) {
+			growUndoStack();
+		}
+		PlayerIdentity owner = boardSlot.getOwner();
+		int ownerCode = owner == PlayerIdentity.LEFT_PLAYER ? 1 : owner == PlayerIdentity.RIGHT_PLAYER ? 2 : 0;
+		int slotIndex = row * getWidth() + col;
+		int undoSlot = (slotIndex << UNDO_SLOT_SHIFT) | ownerCode;
+		// levels are only looked up while some slot has them, so boards without bonus effects skip them
+		if (mLeveledSlotCount != 0 && mSlotLevels[slotIndex] != 0) {
+			mUndoLevels[mUndoSize] = mSlotLevels[slotIndex];
+			undoSlot |= UNDO_LEVELS_FLAG;
+		}
+		mUndoSlots[mUndoSize] = undoSlot;
+		mUndoCards[mUndoSize] = boardSlot.getCard();
+		mUndoPackedCards[mUndoSize] = mSlotCards[slotIndex];
+		++mUndoSize;
+	}
+	
+	/**
+	 * Makes room for more records in the undo stack, which is kept out of recordSlot so that it
+	 *  stays small enough to be inlined
+	 */
+	private void growUndoStack() {
+		int capacity = mUndoSlots == null ? INITIAL_UNDO_CAPACITY : mUndoSlots.length * 2;
+		mUndoSlots = mUndoSlots == null ? new int[capacity] : Arrays.copyOf(mUndoSlots, capacity);
+		mUndoCards = mUndoCards == null ? new Card[capacity] : Arrays.copyOf(mUndoCards, capacity);
+		mUndoPackedCards = mUndoPackedCards == null ? new int[capacity] : Arrays.copyOf(mUndoPackedCards, capacity);
+		mUndoLevels = mUndoLevels == null ? new int[capacity] : Arrays.copyOf(mUndoLevels, capacity);
 	}
 	
 	/**
-	 * Settles conflicts anywhere on the board, and updates the board accordingly
+	 * Settles conflicts anywhere on the board, and updates the board accordingly. A conflict can
+	 *  only appear in a row whose slots have changed since it was last resolved, so only those
+	 *  rows are visited, in order from the top of the board as if every row were.
 	 */
 	public void resolveBoardConflicts() {
-		for (int row = 0; row < getHeight(); ++row) {
-			resolveRow(getBoardRow(row));
+		int rowCount = mDirtyRowCount;
+		if (rowCount == 0) {
+			return;
+		}
+		// rows marked while resolving (by any card killed) are left for the next call, since only
+		//  the first conflict of each row is settled per call
+		int[] rows = mDirtyRowList;
+		mDirtyRowList = mResolvingRows;
+		mResolvingRows = rows;
+		mDirtyRowCount = 0;
+		for (int i = 0; i < rowCount; ++i) {
+			mDirtyRows[rows[i]] = false;
+		}
+		if (rowCount > 1) {
+			Arrays.sort(rows, 0, rowCount);
+		}
+		for (int i = 0; i < rowCount; ++i) {
+			resolveRow(rows[i]);
 		}
 	}
 	
 	/**
 	 * Settles conflicts in a given row, and updates the row accordingly
-	 * @param boardRow
+	 * @param row
 	 */
-	private void resolveRow(BoardSlot[] boardRow) {
+	private void resolveRow(int row) {
+		BoardSlot[] boardRow = getBoardRow(row);
 		PlayerIdentity previousOwner = boardRow[0].getOwner();
 		for (int col = 1; col < boardRow.length; ++col) {
 			PlayerIdentity currentOwner = boardRow[col].getOwner();
 			if (previousOwner != null && currentOwner != null && previousOwner != currentOwner) {
-				resolveConflict(boardRow[col -1], boardRow[col]);
+				resolveConflict(boardRow[col -1], boardRow[col], row * boardRow.length + col - 1);
 				return;
 			}
 			previousOwner = currentOwner;
@@ -192,21 +577,219 @@ public class Board {
 	 * Resolves a conflict between two given positions on the board
 	 * @param leftSlot controlled by the left player
 	 * @param rightSlot controlled by the right player
+	 * @param leftIndex the slot index of leftSlot, which rightSlot follows
 	 */
-	private void resolveConflict(BoardSlot leftSlot, BoardSlot rightSlot) {
-		Card leftCard = leftSlot.getCard();
-		Card rightCard = rightSlot.getCard();
-		boolean leftDead = rightCard.getAttack() > leftCard.getDefenseForAttackType(rightCard.getAttackType());
-		boolean rightDead = leftCard.getAttack() > rightCard.getDefenseForAttackType(leftCard.getAttackType());
-
-		//TODO: handle BonusEffects
+	private void resolveConflict(BoardSlot leftSlot, BoardSlot rightSlot, int leftIndex) {
+		int leftCard = mSlotCards[leftIndex];
+		int rightCard = mSlotCards[leftIndex + 1];
+		if (CardRegistry.hasBonusEffect(leftCard | rightCard) || mLeveledSlotCount != 0) {
+			resolveBonusConflict(leftSlot, leftIndex, rightSlot, leftIndex + 1);
+			return;
+		}
 		
-		if (leftDead) {
-			killSlot(leftSlot, rightCard.getAttackType());
+		int outcome = BattleOutcomes.computeOutcome(leftCard, rightCard);
+		if ((outcome & BattleOutcomes.LEFT_DIES) != 0) {
+			killSlot(leftSlot, CardRegistry.getAttackType(rightCard));
+		}
+		if ((outcome & BattleOutcomes.RIGHT_DIES) != 0) {
+			killSlot(rightSlot, CardRegistry.getAttackType(leftCard));
 		}
-		if (rightDead) {
-			killSlot(rightSlot, leftCard.getAttackType());
+	}
+	
+	/**
+	 * Resolves a conflict in which either card has a bonus effect, or stats changed by one
+	 * @param leftSlot controlled by the left player
+	 * @param leftIndex the slot index of leftSlot
+	 * @param rightSlot controlled by the right player
+	 * @param rightIndex the slot index of rightSlot
+	 */
+	private void resolveBonusConflict(BoardSlot leftSlot, int leftIndex, BoardSlot rightSlot, int rightIndex) {
+		int leftCard = mSlotCards[leftIndex];
+		int rightCard = mSlotCards[rightIndex];
+		int leftActions = BonusEffectTable.getActions(CardRegistry.getBonusEffect(leftCard));
+		int rightActions = BonusEffectTable.getActions(CardRegistry.getBonusEffect(rightCard));
+		int outcome = getLeveledOutcome(leftCard, leftIndex, rightCard, rightIndex);
+		outcome = BonusEffectTable.adjustOutcome(outcome, leftActions, rightActions);
+		
+		if ((outcome & BattleOutcomes.LEFT_DIES) != 0) {
+			killSlot(leftSlot, CardRegistry.getAttackType(rightCard));
+		}
+		if ((outcome & BattleOutcomes.RIGHT_DIES) != 0) {
+			killSlot(rightSlot, CardRegistry.getAttackType(leftCard));
+		}
+		
+		if (outcome == BattleOutcomes.RIGHT_DIES && leftActions != BonusEffectTable.NO_ACTIONS) {
+			applyWinnerActions(leftSlot, leftIndex, rightSlot, rightIndex, leftActions);
+		} else if (outcome == BattleOutcomes.LEFT_DIES && rightActions != BonusEffectTable.NO_ACTIONS) {
+			applyWinnerActions(rightSlot, rightIndex, leftSlot, leftIndex, rightActions);
+		}
+	}
+	
+	/**
+	 * Works out the outcome of a conflict between two cards whose stats were changed by bonus effects
+	 * @param leftCard the packed left card
+	 * @param leftIndex the slot index of the left card
+	 * @param rightCard the packed right card
+	 * @param rightIndex the slot index of the right card
+	 * @return a combination of BattleOutcomes.LEFT_DIES and BattleOutcomes.RIGHT_DIES
+	 */
+	private int getLeveledOutcome(int leftCard, int leftIndex, int rightCard, int rightIndex) {
+		int outcome = BattleOutcomes.NEITHER_DIES;
+		if (getLeveledAttack(rightCard, rightIndex) > getLeveledDefense(leftCard, leftIndex, CardRegistry.getAttackType(rightCard))) {
+			outcome |= BattleOutcomes.LEFT_DIES;
+		}
+		if (getLeveledAttack(leftCard, leftIndex) > getLeveledDefense(rightCard, rightIndex, CardRegistry.getAttackType(leftCard))) {
+			outcome |= BattleOutcomes.RIGHT_DIES;
+		}
+		return outcome;
+	}
+	
+	/**
+	 * Applies the bonus effect of the card which won a conflict. Stat changes are kept by the
+	 *  board alongside the slot rather than made to the card, so cards are never modified and
+	 *  undoMove can revert them like any other change to a slot.
+	 * @param winnerSlot
+	 * @param winnerIndex the slot index of winnerSlot
+	 * @param loserSlot which has already been emptied
+	 * @param loserIndex the slot index of loserSlot
+	 * @param actions the compiled bonus effect of the winning card
+	 */
+	private void applyWinnerActions(BoardSlot winnerSlot, int winnerIndex, BoardSlot loserSlot, int loserIndex, int actions) {
+		int packedCard = mSlotCards[winnerIndex];
+		if ((actions & BonusEffectTable.WIN_CHANGE_STATS) != 0) {
+			int levels = mSlotLevels[winnerIndex];
+			levels = changeLevel(levels, ATTACK_LEVEL_SHIFT, CardRegistry.getAttack(packedCard), BonusEffectTable.getAttackChange(actions));
+			levels = changeLevel(levels, DEFENSE_LEVEL_SHIFT, CardRegistry.getDefense(packedCard), BonusEffectTable.getDefenseChange(actions));
+			levels = changeLevel(levels, RESISTANCE_LEVEL_SHIFT, CardRegistry.getResistance(packedCard), BonusEffectTable.getResistanceChange(actions));
+			recordSlot(winnerSlot.getRow(), winnerSlot.getColumn(), winnerSlot);
+			setSlotLevels(winnerIndex, levels);
+		}
+		if ((actions & BonusEffectTable.WIN_DUPLICATE) != 0) {
+			Position position = getPosition(loserSlot);
+			PlayerIdentity owner = winnerSlot.getOwner();
+			if (mListener != null) {
+				mListener.onCardMoved(owner, position);
+			}
+			recordSlot(position.getRow(), position.getColumn(), loserSlot);
+			// the duplicate is a card of its own, so changes to either card never reach the other
+			loserSlot.setCard(winnerSlot.getCard().clone(), packedCard);
+			loserSlot.setSlotOwner(owner);
+			mHash ^= ZobristHash.getSlotKey(position.getRow(), position.getColumn(), owner, packedCard);
+			setSlotLevels(loserIndex, mSlotLevels[winnerIndex]);
+		}
+	}
+	
+	/**
+	 * Changes one of the stat levels of a slot, keeping the stat it applies to no less than 0
+	 * @param levels the stat levels of the slot
+	 * @param shift the position of the level to change
+	 * @param stat the stat of the card before any levels
+	 * @param change -1, 0 or 1
+	 * @return the new stat levels of the slot
+	 */
+	private static int changeLevel(int levels, int shift, int stat, int change) {
+		int level = getLevel(levels, shift);
+		int newLevel = level + change;
+		if (newLevel > Byte.MAX_VALUE || newLevel < Byte.MIN_VALUE || stat + newLevel < 0) {
+			// a stat already at 0 cannot drop any further, and levels are capped at one byte
+			return levels;
+		}
+		return (levels & ~(LEVEL_MASK << shift)) | ((newLevel & LEVEL_MASK) << shift);
+	}
+	
+	/**
+	 * Gets one of the stat levels of a slot
+	 * @param levels the stat levels of the slot
+	 * @param shift the position of the level
+	 * @return
+	 */
+	private static int getLevel(int levels, int shift) {
+		return (levels << (Integer.SIZE - LEVEL_BITS - shift)) >> (Integer.SIZE - LEVEL_BITS);
+	}
+	
+	/**
+	 * Replaces the stat levels of a slot, keeping the hash of the board up to date
+	 * @param slotIndex
+	 * @param levels
+	 */
+	private void setSlotLevels(int slotIndex, int levels) {
+		int oldLevels = mSlotLevels[slotIndex];
+		if (oldLevels != levels) {
+			mHash ^= getLevelsKey(slotIndex, oldLevels) ^ getLevelsKey(slotIndex, levels);
+			mSlotLevels[slotIndex] = levels;
+			mLeveledSlotCount += (levels != 0 ? 1 : 0) - (oldLevels != 0 ? 1 : 0);
+		}
+	}
+	
+	/**
+	 * Gets the Zobrist key for the stat levels of a slot
+	 * @param slotIndex
+	 * @param levels
+	 * @return 0 for a slot without levels, so that boards without bonus effects hash as before
+	 */
+	private static long getLevelsKey(int slotIndex, int levels) {
+		return levels == 0 ? 0 : ZobristHash.mix(((long) slotIndex << Integer.SIZE) | (levels & 0xFFFFFFFFL));
+	}
+	
+	/**
+	 * Gets the attack of a packed card in a given slot, including any levels from bonus effects
+	 * @param packedCard
+	 * @param slotIndex
+	 * @return
+	 */
+	private int getLeveledAttack(int packedCard, int slotIndex) {
+		return CardRegistry.getAttack(packedCard) + getLevel(mSlotLevels[slotIndex], ATTACK_LEVEL_SHIFT);
+	}
+	
+	/**
+	 * Gets the defense of a packed card in a given slot against a given attack type, including
+	 *  any levels from bonus effects
+	 * @param packedCard
+	 * @param slotIndex
+	 * @param attackType
+	 * @return
+	 */
+	private int getLeveledDefense(int packedCard, int slotIndex, AttackType attackType) {
+		if (attackType == AttackType.MAGICAL) {
+			return CardRegistry.getResistance(packedCard) + getLevel(mSlotLevels[slotIndex], RESISTANCE_LEVEL_SHIFT);
 		}
+		return CardRegistry.getDefense(packedCard) + getLevel(mSlotLevels[slotIndex], DEFENSE_LEVEL_SHIFT);
+	}
+	
+	/**
+	 * Gets the attack of the card in a given slot, including any change made by bonus effects
+	 * @param row
+	 * @param column
+	 * @return 0 if the slot has no card
+	 */
+	public int getAttack(int row, int column) {
+		int slotIndex = row * getWidth() + column;
+		int packedCard = mSlotCards[slotIndex];
+		return packedCard != CardRegistry.NO_CARD ? getLeveledAttack(packedCard, slotIndex) : 0;
+	}
+	
+	/**
+	 * Gets the defense of the card in a given slot, including any change made by bonus effects
+	 * @param row
+	 * @param column
+	 * @return 0 if the slot has no card
+	 */
+	public int getDefense(int row, int column) {
+		int slotIndex = row * getWidth() + column;
+		int packedCard = mSlotCards[slotIndex];
+		return packedCard != CardRegistry.NO_CARD ? getLeveledDefense(packedCard, slotIndex, AttackType.PHYSICAL) : 0;
+	}
+	
+	/**
+	 * Gets the resistance of the card in a given slot, including any change made by bonus effects
+	 * @param row
+	 * @param column
+	 * @return 0 if the slot has no card
+	 */
+	public int getResistance(int row, int column) {
+		int slotIndex = row * getWidth() + column;
+		int packedCard = mSlotCards[slotIndex];
+		return packedCard != CardRegistry.NO_CARD ? getLeveledDefense(packedCard, slotIndex, AttackType.MAGICAL) : 0;
 	}
 	
 	/**
@@ -226,16 +809,23 @@ public class Board {
 	 * @param attackType
 	 */
 	private void killSlot(BoardSlot boardSlot, AttackType attackType) {
-		mListener.onCardDefeated(getPosition(boardSlot), attackType);
-		emptySlot(boardSlot);
+		Position position = getPosition(boardSlot);
+		if (mListener != null) {
+			mListener.onCardDefeated(position, attackType);
+		}
+		emptySlot(boardSlot, position);
 	}
 	
 	/**
 	 * Empties a given slot by removing the card and assigning the owner to NONE
 	 * @param boardSlot
+	 * @param position the coordinates of boardSlot
 	 */
-	private void emptySlot(BoardSlot boardSlot) {
-		boardSlot.setCard(null);
+	private void emptySlot(BoardSlot boardSlot, Position position) {
+		recordSlot(position.getRow(), position.getColumn(), boardSlot);
+		int slotIndex = position.getRow() * getWidth() + position.getColumn();
+		mHash ^= ZobristHash.getSlotKey(position.getRow(), position.getColumn(), boardSlot.getOwner(), mSlotCards[slotIndex]);
+		boardSlot.setCard(null, CardRegistry.NO_CARD);
 		boardSlot.setSlotOwner(null);
 	}
 	
@@ -271,43 +861,38 @@ public class Board {
 	 * @param rightSlot controlled by the right player
 	 */
 	private void unstalemateConflict(BoardSlot leftSlot, BoardSlot rightSlot) {
-		Card leftCard = leftSlot.getCard();
-		Card rightCard = rightSlot.getCard();
+		int leftIndex = leftSlot.getRow() * getWidth() + leftSlot.getColumn();
+		int leftCard = mSlotCards[leftIndex];
+		int rightCard = mSlotCards[leftIndex + 1];
 		
-		killSlot(leftSlot, rightCard.getAttackType());
-		killSlot(rightSlot, leftCard.getAttackType());
+		killSlot(leftSlot, CardRegistry.getAttackType(rightCard));
+		killSlot(rightSlot, CardRegistry.getAttackType(leftCard));
+	}
+	
+	/**
+	 * Clears every card from the board if the players have super stalemated, by controlling
+	 *  all of the rows between them without either having a majority
+	 */
+	public void resolveBoardSuperStalemate() {
+		if (getWinner() == null && mLeftRowCount + mRightRowCount == getHeight()) {
+			killBoard();
+		}
 	}
 	
 	/**
 	 * The fourth and final step of each round of play
-	 *  Returns the player who has won the game, either by controlling a majority
-	 *  of rows or by being the last player left with cards in their deck, or
-	 *  null if no player has yet won.
+	 *  Returns the player who has won the game by controlling a majority of rows,
+	 *  or null if no player has yet won. The board is not modified, and the
+	 *  answer comes straight from the number of rows each player controls.
 	 * @return
 	 */
 	public PlayerIdentity getWinner() {
 		int majority = getHeight() / 2 + 1;
-		int rightRows = 0;
-		int leftRows = 0;
-		for (int row = 0; row < getHeight(); ++row) {
-			BoardSlot[] boardRow = getBoardRow(row);
-			if (boardRow[0].getOwner() == PlayerIdentity.RIGHT_PLAYER) {
-				++rightRows;
-			} else if (boardRow[getWidth()-1].getOwner() == PlayerIdentity.LEFT_PLAYER) {
-				++leftRows;
-			}
-		}
-		if (rightRows >= majority) {
+		if (mRightRowCount >= majority) {
 			return PlayerIdentity.RIGHT_PLAYER;
-		} else if (leftRows >= majority) {
+		} else if (mLeftRowCount >= majority) {
 			return PlayerIdentity.LEFT_PLAYER;
 		}
-		
-		// see if we have super stalemated by each controlling 1/2 of the board rows
-		if (leftRows + rightRows == getHeight()) {
-			killBoard();
-		}
-		
 		return null;
 	}
 	
@@ -318,21 +903,64 @@ public class Board {
 	 * @return
 	 */
 	public List<Position> getPossibleMoves(PlayerIdentity player) {
-		List<Position> moves = new ArrayList<Position>();
-		int begin = player == PlayerIdentity.LEFT_PLAYER ? 0 : getWidth() - 1;
-		int end = player == PlayerIdentity.LEFT_PLAYER ? getWidth() - 1 : 0;
-		int increment = player == PlayerIdentity.LEFT_PLAYER ? 1 : -1;
+		List<Position> moves = new ArrayList<Position>(getHeight());
 		for (int row = 0; row < getHeight(); ++row) {
-			for (int col = begin; player == PlayerIdentity.LEFT_PLAYER ? col <= end : col >= end; col += increment) {
-				if (getBoardSlot(row, col).getOwner() == null) {
-					moves.add(new Position(row, col));
-					break;
-				}
+			int col = getOpenColumn(player, row);
+			if (col >= 0) {
+				moves.add(getPosition(row, col));
 			}
 		}
 		return moves;
 	}
 	
+	/**
+	 * Writes the slot index (row * width + column) of every position where a given player could
+	 *  currently place a card into a given buffer, in the same order as the list returned by
+	 *  getPossibleMoves. Nothing is allocated, and getPosition turns an index back into a Position.
+	 * @param player
+	 * @param moves must hold at least as many elements as the board has rows
+	 * @return the number of moves written
+	 */
+	public int getPossibleMoves(PlayerIdentity player, int[] moves) {
+		int moveCount = 0;
+		for (int row = 0; row < getHeight(); ++row) {
+			int col = getOpenColumn(player, row);
+			if (col >= 0) {
+				moves[moveCount++] = row * getWidth() + col;
+			}
+		}
+		return moveCount;
+	}
+	
+	/**
+	 * Gets the column in which a given player would place a card in a given row, which is the
+	 *  first slot without an owner counting from the player's own side of the board
+	 * @param player
+	 * @param row
+	 * @return -1 if the row has no slot without an owner
+	 */
+	public int getOpenColumn(PlayerIdentity player, int row) {
+		boolean left = player == PlayerIdentity.LEFT_PLAYER;
+		int width = getWidth();
+		if (mRowOccupancy != null) {
+			long open = ~mRowOccupancy[row] & (width == MAX_MASKED_WIDTH ? -1L : (1L << width) - 1);
+			if (open == 0) {
+				return -1;
+			}
+			return left ? Long.numberOfTrailingZeros(open) : MAX_MASKED_WIDTH - 1 - Long.numberOfLeadingZeros(open);
+		}
+		
+		// rows too wide for a mask are scanned instead
+		BoardSlot[] boardRow = getBoardRow(row);
+		for (int i = 0; i < width; ++i) {
+			int col = left ? i : width - 1 - i;
+			if (boardRow[col].getOwner() == null) {
+				return col;
+			}
+		}
+		return -1;
+	}
+	
 	/**
 	 * Indicates whether or not a given move is valid for a given player
 	 * @param player
@@ -340,16 +968,9 @@ public class Board {
 	 * @return
 	 */
 	public boolean isValidMove(PlayerIdentity player, Position move) {
-		if (move == null) {
+		if (move == null || move.getRow() < 0 || move.getRow() >= getHeight() || move.getColumn() < 0 || move.getColumn() >= getWidth()) {
 			return false;
 		}
-		
-		List<Position> moves = getPossibleMoves(player);
-		for (Position position : moves) {
-			if (position.getRow() == move.getRow() && position.getColumn() == move.getColumn()) {
-				return true;
-			}
-		}
-		return false;
+		return getOpenColumn(player, move.getRow()) == move.getColumn();
 	}
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.phantomrealm.cardbattle.model.board;
 
 import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
 import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.card.CardRegistry;
 
 /**
  * Model object used to represent a single position on the game board
@@ -10,6 +11,9 @@ import com.phantomrealm.cardbattle.model.card.Card;
  */
 public class BoardSlot {
 	
+	private final Board mBoard;
+	private final int mRow;
+	private final int mColumn;
 	private PlayerIdentity mOwner;
 	private Card mCard;
 	
@@ -17,6 +21,44 @@ public class BoardSlot {
 	 * Creates a new slot for the game board which is controlled by neither player
 	 */
 	public BoardSlot() {
+		this(null, -1, -1);
+	}
+	
+	/**
+	 * Creates a new slot which belongs to a given board, and which tells the board whenever its
+	 *  owner changes
+	 * @param board
+	 * @param row
+	 * @param column
+	 */
+	BoardSlot(Board board, int row, int column) {
+		mBoard = board;
+		mRow = row;
+		mColumn = column;
+	}
+	
+	/**
+	 * Gets the board this slot belongs to
+	 * @return null for slots which do not belong to any board
+	 */
+	Board getBoard() {
+		return mBoard;
+	}
+	
+	/**
+	 * Gets the row of this slot on its board
+	 * @return
+	 */
+	int getRow() {
+		return mRow;
+	}
+	
+	/**
+	 * Gets the column of this slot on its board
+	 * @return
+	 */
+	int getColumn() {
+		return mColumn;
 	}
 	
 	/**
@@ -32,7 +74,11 @@ public class BoardSlot {
 	 * @param owner
 	 */
 	public void setSlotOwner(PlayerIdentity owner) {
+		PlayerIdentity oldOwner = mOwner;
 		mOwner = owner;
+		if (mBoard != null && oldOwner != owner) {
+			mBoard.onSlotOwnerChanged(mRow, mColumn, oldOwner, owner);
+		}
 	}
 	
 	/**
@@ -44,15 +90,43 @@ public class BoardSlot {
 	}
 	
 	/**
-	 * Sets the card on this position in the board
+	 * Sets the card on this position in the board. A board plays with the stats the card has
+	 *  when it is set, so changing the card afterwards does not change the game.
 	 * @param card
+	 * @throws IllegalArgumentException if this slot belongs to a board and any stat of the card
+	 *  is negative or above CardRegistry.MAX_STAT
 	 */
 	public void setCard(Card card) {
+		if (mBoard != null && mCard != card) {
+			mBoard.onSlotCardChanged(mRow, mColumn, CardRegistry.pack(card));
+		}
+		mCard = card;
+	}
+	
+	/**
+	 * Sets the card on this slot when its board already has the packed form of the card
+	 * @param card
+	 * @param packedCard
+	 */
+	void setCard(Card card, int packedCard) {
+		if (mBoard != null && mCard != card) {
+			mBoard.onSlotCardChanged(mRow, mColumn, packedCard);
+		}
 		mCard = card;
 	}
 	
 	/**
-	 * Creates a copy of an existing BoardSlot
+	 * Takes the owner and card of another slot without telling the board, which copies the rest
+	 *  of its state itself
+	 * @param boardSlot
+	 */
+	void copyFrom(BoardSlot boardSlot) {
+		mOwner = boardSlot.mOwner;
+		mCard = boardSlot.mCard;
+	}
+	
+	/**
+	 * Creates a copy of an existing BoardSlot, which does not belong to any board
 	 */
 	public BoardSlot clone() {
 		final BoardSlot boardSlot = new BoardSlot();
@@ -78,7 +152,7 @@ public class BoardSlot {
 		} else if (slot.getCard() != null) {
 			return false;
 		}
-
+		
 		return true;
 	}
 	
@@ -0,0 +1,119 @@
+package com.phantomrealm.cardbattle.model.board;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.card.AttackType;
+import com.phantomrealm.cardbattle.model.card.BonusEffect;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.card.CardRegistry;
+
+/**
+ * Generates the keys used to build a Zobrist hash of a board. The hash of a board is the XOR
+ *  of the keys of all of its slots, so it can be updated incrementally as slots change. Rather
+ *  than storing a table of random keys for every possible slot state, each key is derived
+ *  by scrambling the slot state, which works for boards and cards of any size.
+ * 
+ * @author matthewpape
+ */
+public class ZobristHash {
+	
+	private static final long SLOT_SEED = 0x3C6EF372FE94F82BL;
+	private static final long CARD_SEED = 0xA54FF53A5F1D36F1L;
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	
+	/**
+	 * Gets the key of a single slot on the board. Empty slots have a key of 0.
+	 * @param row
+	 * @param column
+	 * @param owner
+	 * @param card
+	 * @return
+	 */
+	public static long getSlotKey(int row, int column, PlayerIdentity owner, Card card) {
+		if (owner == null && card == null) {
+			return 0;
+		}
+		long state = ((long) row << 48) ^ ((long) column << 32) ^ getCardCode(card);
+		state = state * 3 + (owner == null ? 0 : owner.ordinal() + 1);
+		return mix(state ^ SLOT_SEED);
+	}
+	
+	/**
+	 * Gets the key of a single slot on the board from the packed form of its card, which is the
+	 *  same key getSlotKey gives for the card itself
+	 * @param row
+	 * @param column
+	 * @param owner
+	 * @param packedCard CardRegistry.NO_CARD for a slot without a card
+	 * @return
+	 */
+	public static long getSlotKey(int row, int column, PlayerIdentity owner, int packedCard) {
+		if (owner == null && packedCard == CardRegistry.NO_CARD) {
+			return 0;
+		}
+		long state = ((long) row << 48) ^ ((long) column << 32) ^ getCardCode(packedCard);
+		state = state * 3 + (owner == null ? 0 : owner.ordinal() + 1);
+		return mix(state ^ SLOT_SEED);
+	}
+	
+	/**
+	 * Gets the key of a card at a given depth in a deck, so that the top cards of a deck can be
+	 *  hashed in the same way as a board
+	 * @param depth 0 for the top card of the deck
+	 * @param card
+	 * @return
+	 */
+	public static long getCardKey(int depth, Card card) {
+		return mix((((long) depth << 32) ^ getCardCode(card)) ^ CARD_SEED);
+	}
+	
+	/**
+	 * Scrambles a value so that similar inputs produce unrelated outputs (SplitMix64 finalizer)
+	 * @param value
+	 * @return
+	 */
+	public static long mix(long value) {
+		long z = value + GOLDEN_GAMMA;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+	/**
+	 * Gets a code for all of the qualities of a card which affect gameplay (the name does not)
+	 * @param card
+	 * @return
+	 */
+	private static long getCardCode(Card card) {
+		if (card == null) {
+			return 0;
+		}
+		AttackType attackType = card.getAttackType();
+		BonusEffect bonusEffect = card.getBonusEffect();
+		long code = attackType == null ? 0 : attackType.ordinal() + 1;
+		code |= (long) (bonusEffect == null ? 0 : bonusEffect.ordinal() + 1) << 2;
+		code |= (long) (card.getAttack() & 0xFF) << 8;
+		code |= (long) (card.getDefense() & 0xFF) << 16;
+		code |= (long) (card.getResistance() & 0xFF) << 24;
+		return code;
+	}
+	
+	/**
+	 * Gets the same code as for a card from the packed form of the card
+	 * @param packedCard
+	 * @return
+	 */
+	private static long getCardCode(int packedCard) {
+		if (packedCard == CardRegistry.NO_CARD) {
+			return 0;
+		}
+		AttackType attackType = CardRegistry.getAttackType(packedCard);
+		BonusEffect bonusEffect = CardRegistry.getBonusEffect(packedCard);
+		long code = attackType == null ? 0 : attackType.ordinal() + 1;
+		code |= (long) (bonusEffect == null ? 0 : bonusEffect.ordinal() + 1) << 2;
+		code |= (long) CardRegistry.getAttack(packedCard) << 8;
+		code |= (long) CardRegistry.getDefense(packedCard) << 16;
+		code |= (long) CardRegistry.getResistance(packedCard) << 24;
+		return code;
+	}
+
+}
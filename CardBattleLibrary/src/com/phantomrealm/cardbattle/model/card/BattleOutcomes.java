@@ -0,0 +1,151 @@
+package com.phantomrealm.cardbattle.model.card;
+
+/**
+ * A precomputed table of which cards die when two cards meet in a conflict, for every ordered
+ *  pair of archetypes from CardRegistry. Looking up a pair of archetypes is a single array read.
+ *  The table grows as new archetypes are registered, and may be read from any thread.
+ * 
+ * @author matthewpape
+ */
+public class BattleOutcomes {
+	
+	/**
+	 * Outcome in which both cards survive
+	 */
+	public static final int NEITHER_DIES = 0;
+	
+	/**
+	 * Outcome bit set when the card on the left dies
+	 */
+	public static final int LEFT_DIES = 0x1;
+	
+	/**
+	 * Outcome bit set when the card on the right dies
+	 */
+	public static final int RIGHT_DIES = 0x2;
+	
+	/**
+	 * Outcome in which both cards die
+	 */
+	public static final int BOTH_DIE = LEFT_DIES | RIGHT_DIES;
+	
+	private static final int INITIAL_CAPACITY = 64;
+	private static volatile OutcomeMatrix sMatrix = new OutcomeMatrix(0, 0, new byte[0]);
+	
+	/**
+	 * Gets the outcome of a conflict between two archetypes
+	 * @param leftArchetype the archetype owned by the left player
+	 * @param rightArchetype the archetype owned by the right player
+	 * @return a combination of LEFT_DIES and RIGHT_DIES
+	 */
+	public static int getOutcome(CardArchetype leftArchetype, CardArchetype rightArchetype) {
+		return getOutcome(leftArchetype.getIndex(), rightArchetype.getIndex());
+	}
+	
+	/**
+	 * Gets the outcome of a conflict between two archetypes
+	 * @param leftIndex the index of the archetype owned by the left player
+	 * @param rightIndex the index of the archetype owned by the right player
+	 * @return a combination of LEFT_DIES and RIGHT_DIES
+	 */
+	public static int getOutcome(int leftIndex, int rightIndex) {
+		OutcomeMatrix matrix = sMatrix;
+		if (leftIndex >= matrix.mSize || rightIndex >= matrix.mSize) {
+			matrix = grow();
+		}
+		return matrix.mOutcomes[leftIndex * matrix.mCapacity + rightIndex];
+	}
+	
+	/**
+	 * Works out the outcome of a conflict between two cards without the table. A card dies when
+	 *  the attack of the other card is greater than its defense against that attack type.
+	 * @param leftCard
+	 * @param rightCard
+	 * @return a combination of LEFT_DIES and RIGHT_DIES
+	 */
+	public static int computeOutcome(Card leftCard, Card rightCard) {
+		int outcome = NEITHER_DIES;
+		if (rightCard.getAttack() > leftCard.getDefenseForAttackType(rightCard.getAttackType())) {
+			outcome |= LEFT_DIES;
+		}
+		if (leftCard.getAttack() > rightCard.getDefenseForAttackType(leftCard.getAttackType())) {
+			outcome |= RIGHT_DIES;
+		}
+		return outcome;
+	}
+	
+	/**
+	 * Works out the outcome of a conflict between two packed cards without the table, as for cards
+	 * @param leftCard the packed card owned by the left player
+	 * @param rightCard the packed card owned by the right player
+	 * @return a combination of LEFT_DIES and RIGHT_DIES
+	 */
+	public static int computeOutcome(int leftCard, int rightCard) {
+		int outcome = NEITHER_DIES;
+		if (CardRegistry.defeats(rightCard, leftCard)) {
+			outcome |= LEFT_DIES;
+		}
+		if (CardRegistry.defeats(leftCard, rightCard)) {
+			outcome |= RIGHT_DIES;
+		}
+		return outcome;
+	}
+	
+	/**
+	 * Extends the table to cover every archetype registered so far. Only the outcomes of new
+	 *  pairs are computed, and the array is reallocated only when its capacity runs out, so
+	 *  outcomes already published are never written again.
+	 * @return
+	 */
+	private static synchronized OutcomeMatrix grow() {
+		OutcomeMatrix matrix = sMatrix;
+		int size = CardRegistry.getArchetypeCount();
+		if (size <= matrix.mSize) {
+			return matrix;
+		}
+		int capacity = matrix.mCapacity;
+		byte[] outcomes = matrix.mOutcomes;
+		if (size > capacity) {
+			capacity = Math.max(size, Math.max(capacity * 2, INITIAL_CAPACITY));
+			outcomes = new byte[capacity * capacity];
+			for (int row = 0; row < matrix.mSize; ++row) {
+				System.arraycopy(matrix.mOutcomes, row * matrix.mCapacity, outcomes, row * capacity, matrix.mSize);
+			}
+		}
+		for (int left = 0; left < size; ++left) {
+			int leftCard = CardRegistry.getArchetypeByIndex(left).getPackedCard();
+			for (int right = left < matrix.mSize ? matrix.mSize : 0; right < size; ++right) {
+				outcomes[left * capacity + right] = (byte) computeOutcome(leftCard, CardRegistry.getArchetypeByIndex(right).getPackedCard());
+			}
+		}
+		matrix = new OutcomeMatrix(size, capacity, outcomes);
+		sMatrix = matrix;
+		return matrix;
+	}
+	
+	/**
+	 * A snapshot of the table, holding the outcomes of the first archetypes
+	 * 
+	 * @author matthewpape
+	 */
+	private static class OutcomeMatrix {
+		
+		private final int mSize;
+		private final int mCapacity;
+		private final byte[] mOutcomes;
+		
+		/**
+		 * Creates a snapshot of the table
+		 * @param size the number of archetypes whose outcomes are filled in
+		 * @param capacity the length of each row of outcomes
+		 * @param outcomes indexed by (left * capacity + right)
+		 */
+		OutcomeMatrix(int size, int capacity, byte[] outcomes) {
+			mSize = size;
+			mCapacity = capacity;
+			mOutcomes = outcomes;
+		}
+	
+	}
+
+}
@@ -0,0 +1,167 @@
+package com.phantomrealm.cardbattle.model.card;
+
+/**
+ * Compiles each BonusEffect once into a small int of actions, so that boards can apply bonus
+ *  effects after a battle by reading a table rather than switching on the effect. A card wins a
+ *  battle when only its opponent dies, and loses when only it dies. The actions of an effect are
+ *  a combination of flags, plus the change to each stat of the card when it wins, which is
+ *  -1, 0 or 1 and is decoded with getAttackChange, getDefenseChange and getResistanceChange.
+ * 
+ * @author matthewpape
+ */
+public class BonusEffectTable {
+	
+	/**
+	 * Actions of a card with no bonus effect
+	 */
+	public static final int NO_ACTIONS = 0;
+	
+	/**
+	 * Action flag for a card which copies itself into the slot of the foe it defeats
+	 */
+	public static final int WIN_DUPLICATE = 0x1;
+	
+	/**
+	 * Action flag for a card which destroys itself and its foe when it wins
+	 */
+	public static final int WIN_DESTROY_BOTH = 0x2;
+	
+	/**
+	 * Action flag for a card which destroys itself and its foe when it loses
+	 */
+	public static final int LOSE_DESTROY_BOTH = 0x4;
+	
+	/**
+	 * Action flag for a card which changes any of its stats when it wins
+	 */
+	public static final int WIN_CHANGE_STATS = 0x8;
+	
+	private static final int ATTACK_CHANGE_SHIFT = 8;
+	private static final int DEFENSE_CHANGE_SHIFT = 10;
+	private static final int RESISTANCE_CHANGE_SHIFT = 12;
+	private static final int CHANGE_BITS = 2;
+	private static final int CHANGE_MASK = 0x3;
+	private static final int[] ACTIONS = compileActions();
+	
+	/**
+	 * Gets the compiled actions of a bonus effect
+	 * @param bonusEffect may be null
+	 * @return NO_ACTIONS for null
+	 */
+	public static int getActions(BonusEffect bonusEffect) {
+		return bonusEffect == null ? NO_ACTIONS : ACTIONS[bonusEffect.ordinal()];
+	}
+	
+	/**
+	 * Gets the change to the attack of a winning card
+	 * @param actions
+	 * @return -1, 0 or 1
+	 */
+	public static int getAttackChange(int actions) {
+		return (actions << (Integer.SIZE - CHANGE_BITS - ATTACK_CHANGE_SHIFT)) >> (Integer.SIZE - CHANGE_BITS);
+	}
+	
+	/**
+	 * Gets the change to the defense of a winning card
+	 * @param actions
+	 * @return -1, 0 or 1
+	 */
+	public static int getDefenseChange(int actions) {
+		return (actions << (Integer.SIZE - CHANGE_BITS - DEFENSE_CHANGE_SHIFT)) >> (Integer.SIZE - CHANGE_BITS);
+	}
+	
+	/**
+	 * Gets the change to the resistance of a winning card
+	 * @param actions
+	 * @return -1, 0 or 1
+	 */
+	public static int getResistanceChange(int actions) {
+		return (actions << (Integer.SIZE - CHANGE_BITS - RESISTANCE_CHANGE_SHIFT)) >> (Integer.SIZE - CHANGE_BITS);
+	}
+	
+	/**
+	 * Adjusts the outcome of a battle for the effects which destroy both cards
+	 * @param outcome from BattleOutcomes
+	 * @param leftActions the actions of the card owned by the left player
+	 * @param rightActions the actions of the card owned by the right player
+	 * @return the outcome once those effects are applied
+	 */
+	public static int adjustOutcome(int outcome, int leftActions, int rightActions) {
+		if (outcome == BattleOutcomes.RIGHT_DIES) {
+			if (((leftActions & WIN_DESTROY_BOTH) | (rightActions & LOSE_DESTROY_BOTH)) != 0) {
+				return BattleOutcomes.BOTH_DIE;
+			}
+		} else if (outcome == BattleOutcomes.LEFT_DIES) {
+			if (((rightActions & WIN_DESTROY_BOTH) | (leftActions & LOSE_DESTROY_BOTH)) != 0) {
+				return BattleOutcomes.BOTH_DIE;
+			}
+		}
+		return outcome;
+	}
+	
+	/**
+	 * Compiles the actions of every bonus effect, indexed by ordinal
+	 * @return
+	 */
+	private static int[] compileActions() {
+		BonusEffect[] bonusEffects = BonusEffect.values();
+		int[] actions = new int[bonusEffects.length];
+		for (BonusEffect bonusEffect : bonusEffects) {
+			int action;
+			switch (bonusEffect) {
+			case DUPLICATE:
+				action = WIN_DUPLICATE;
+				break;
+			case ATTACK_LEVEL_UP:
+				action = getStatChanges(1, 0, 0);
+				break;
+			case RESISTANCE_LEVEL_UP:
+				action = getStatChanges(0, 0, 1);
+				break;
+			case DEFENSE_LEVEL_UP:
+				action = getStatChanges(0, 1, 0);
+				break;
+			case FULL_LEVEL_UP:
+				action = getStatChanges(1, 1, 1);
+				break;
+			case ATTACK_LEVEL_DOWN:
+				action = getStatChanges(-1, 0, 0);
+				break;
+			case RESISTANCE_LEVEL_DOWN:
+				action = getStatChanges(0, 0, -1);
+				break;
+			case DEFENSE_LEVEL_DOWN:
+				action = getStatChanges(0, -1, 0);
+				break;
+			case FULL_LEVEL_DOWN:
+				action = getStatChanges(-1, -1, -1);
+				break;
+			case KAMIKAZE:
+				action = WIN_DESTROY_BOTH | LOSE_DESTROY_BOTH;
+				break;
+			case SELF_DESTRUCT:
+				action = LOSE_DESTROY_BOTH;
+				break;
+			default:
+				action = NO_ACTIONS;
+				break;
+			}
+			actions[bonusEffect.ordinal()] = action;
+		}
+		return actions;
+	}
+	
+	/**
+	 * Gets the actions of an effect which changes the stats of a winning card
+	 * @param attackChange
+	 * @param defenseChange
+	 * @param resistanceChange
+	 * @return
+	 */
+	private static int getStatChanges(int attackChange, int defenseChange, int resistanceChange) {
+		// each change is stored as a 2 bit two's complement number
+		return WIN_CHANGE_STATS | ((attackChange & CHANGE_MASK) << ATTACK_CHANGE_SHIFT) | ((defenseChange & CHANGE_MASK) << DEFENSE_CHANGE_SHIFT)
+				| ((resistanceChange & CHANGE_MASK) << RESISTANCE_CHANGE_SHIFT);
+	}
+
+}
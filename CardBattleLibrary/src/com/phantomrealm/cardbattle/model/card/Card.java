@@ -7,7 +7,7 @@ package com.phantomrealm.cardbattle.model.card;
  * @author matthewpape
  */
 public class Card {
-
+	
 	private String mName;
 	private BonusEffect mBonusEffect;
 	private AttackType mAttackType;
@@ -39,7 +39,7 @@ public class Card {
 	public Card clone() {
 		return new Card(mName, mBonusEffect, mAttackType, mAttack, mResistance, mDefense);
 	}
-
+	
 	/**
 	 * Gets the display name to be used for the card
 	 * @return
@@ -47,7 +47,7 @@ public class Card {
 	public String getName() {
 		return mName;
 	}
-
+	
 	/**
 	 * Sets the display name to be used for the card
 	 * @param name
@@ -55,7 +55,7 @@ public class Card {
 	public void setName(String name) {
 		mName = name;
 	}
-
+	
 	/**
 	 * Gets the bonus effect to be used for the card
 	 * @return
@@ -63,7 +63,7 @@ public class Card {
 	public BonusEffect getBonusEffect() {
 		return mBonusEffect;
 	}
-
+	
 	/**
 	 * Sets the bonus effect to be used for the card
 	 * @param bonusEffect
@@ -71,7 +71,7 @@ public class Card {
 	public void setBonusEffect(BonusEffect bonusEffect) {
 		mBonusEffect = bonusEffect;
 	}
-
+	
 	/**
 	 * Gets the type of attack that the card uses in battle
 	 * @return
@@ -79,7 +79,7 @@ public class Card {
 	public AttackType getAttackType() {
 		return mAttackType;
 	}
-
+	
 	/**
 	 * Sets the type of attack that the card uses in battle
 	 * @param attackType
@@ -87,7 +87,7 @@ public class Card {
 	public void setAttackType(AttackType attackType) {
 		mAttackType = attackType;
 	}
-
+	
 	/**
 	 * Gets the attack strength of the card
 	 * @return
@@ -95,7 +95,7 @@ public class Card {
 	public int getAttack() {
 		return mAttack;
 	}
-
+	
 	/**
 	 * Sets the attack strength of the card
 	 * @param attack
@@ -103,7 +103,7 @@ public class Card {
 	public void setAttack(int attack) {
 		mAttack = attack;
 	}
-
+	
 	/**
 	 * Gets the resistance of the card to magical attacks
 	 * @return
@@ -111,7 +111,7 @@ public class Card {
 	public int getResistance() {
 		return mResistance;
 	}
-
+	
 	/**
 	 * Sets the resistance of the card to magical attacks
 	 * @param resistance
@@ -119,7 +119,7 @@ public class Card {
 	public void setResistance(int resistance) {
 		mResistance = resistance;
 	}
-
+	
 	/**
 	 * Gets the defense of the card to physical attacks
 	 * @return
@@ -127,7 +127,7 @@ public class Card {
 	public int getDefense() {
 		return mDefense;
 	}
-
+	
 	/**
 	 * Sets the defense of the card to physical attacks
 	 * @param defense
@@ -169,5 +169,5 @@ public class Card {
 	public String toString() {
 		return getName() + " type: " + getAttackType() + ", atk: " + getAttack() + ", def: " + getDefense() + ", res: " + getResistance();
 	}
-	
+
 }
\ No newline at end of file
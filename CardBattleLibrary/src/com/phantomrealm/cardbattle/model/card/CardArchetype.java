@@ -0,0 +1,71 @@
+package com.phantomrealm.cardbattle.model.card;
+
+/**
+ * The single, immutable entry CardRegistry keeps for each packed form of a card. Every request
+ *  for the same packed form returns the same archetype, from any thread, so archetypes may be
+ *  compared by identity and shared freely. Archetypes are not cards themselves, since cards can
+ *  be changed; createCard makes an ordinary card with the qualities of an archetype.
+ * 
+ * @author matthewpape
+ */
+public final class CardArchetype {
+	
+	private final String mName;
+	private final int mPackedCard;
+	private final int mIndex;
+	
+	/**
+	 * Creates the archetype for a packed card
+	 * @param name
+	 * @param packedCard
+	 * @param index the position of the archetype in the order archetypes were registered
+	 */
+	CardArchetype(String name, int packedCard, int index) {
+		mName = name;
+		mPackedCard = packedCard;
+		mIndex = index;
+	}
+	
+	/**
+	 * Gets the display name of this archetype, which depends only on its qualities
+	 * @return
+	 */
+	public String getName() {
+		return mName;
+	}
+	
+	/**
+	 * Gets the packed form of this archetype, as read by the static methods of CardRegistry
+	 * @return
+	 */
+	public int getPackedCard() {
+		return mPackedCard;
+	}
+	
+	/**
+	 * Gets the position of this archetype in the order archetypes were registered, which never
+	 *  changes once the archetype exists
+	 * @return
+	 */
+	public int getIndex() {
+		return mIndex;
+	}
+	
+	/**
+	 * Creates a new card with the name and qualities of this archetype
+	 * @return
+	 */
+	public Card createCard() {
+		return new Card(mName, CardRegistry.getBonusEffect(mPackedCard), CardRegistry.getAttackType(mPackedCard),
+				CardRegistry.getAttack(mPackedCard), CardRegistry.getResistance(mPackedCard), CardRegistry.getDefense(mPackedCard));
+	}
+	
+	/**
+	 * Gets the string representation of an archetype
+	 */
+	public String toString() {
+		return mName + " type: " + CardRegistry.getAttackType(mPackedCard) + ", atk: " + CardRegistry.getAttack(mPackedCard)
+				+ ", def: " + CardRegistry.getDefense(mPackedCard) + ", res: " + CardRegistry.getResistance(mPackedCard);
+	}
+
+}
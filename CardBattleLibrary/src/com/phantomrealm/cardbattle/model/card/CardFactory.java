@@ -2,6 +2,8 @@ package com.phantomrealm.cardbattle.model.card;
 
 import java.util.Random;
 
+import com.phantomrealm.cardbattle.util.RandomSource;
+
 /**
  * Used to generate Cards for a variety of purposes
  * 
@@ -47,6 +49,22 @@ public class CardFactory {
 	 * @return 
 	 */
 	public static Card generateTestCard(int attackMax, int defenseMax, int attackMin, int defenseMin) {
+		return generateTestCard(attackMax, defenseMax, attackMin, defenseMin, RandomSource.current());
+	}
+	
+	/**
+	 * Creates a test card as for generateTestCard, drawing every random choice from a given generator
+	 *  so that the same sequence of cards can be generated again
+	 * @param attackMax max value for Attack (must be >= attackMin, <= 5)
+	 * @param defenseMax max value for both Defense and Resistance (must be >= defenseMin, <= 4)
+	 * @param attackMin min value for Attack (must be >= 1)
+	 * @param defenseMin min value for both Defense and Resistance (must be >= 0)
+	 * @param random the generator to use, or null for the RandomSource of the calling thread
+	 * @return 
+	 */
+	public static Card generateTestCard(int attackMax, int defenseMax, int attackMin, int defenseMin, Random random) {
+		random = RandomSource.orCurrent(random);
+		
 		// validate stat min/maxes
 		attackMin = Math.max(ATTACK_MIN, attackMin);
 		attackMin = Math.min(attackMin, ATTACK_MAX);
@@ -57,37 +75,90 @@ public class CardFactory {
 		defenseMax = Math.max(defenseMin, defenseMax);
 		defenseMax = Math.min(defenseMax, DEFENSE_MAX);
 		
-		Random randomGenerator = new Random();
-		int attack = getRandomIntBetween(attackMin, attackMax);
-		int defense = getRandomIntBetween(defenseMin, defenseMax);
-		int resistance = getRandomIntBetween(defenseMin, defenseMax);
-		AttackType attackType = randomGenerator.nextInt(2) == 0 ? AttackType.MAGICAL : AttackType.PHYSICAL;
-		String name = generateRandomName(attackType, attack, defense, resistance);
+		int attack = getRandomIntBetween(random, attackMin, attackMax);
+		int defense = getRandomIntBetween(random, defenseMin, defenseMax);
+		int resistance = getRandomIntBetween(random, defenseMin, defenseMax);
+		AttackType attackType = random.nextInt(2) == 0 ? AttackType.MAGICAL : AttackType.PHYSICAL;
+		String name = generateRandomName(random, attackType, attack, defense, resistance);
 		return new Card(name, null, attackType, attack, resistance, defense);
 	}
 	
+	/**
+	 * Gets the archetype with the given stats and no bonus effect. The same immutable archetype
+	 *  is returned for the same stats every time.
+	 * @param attackType
+	 * @param attack must be between 0 and CardRegistry.MAX_STAT inclusive
+	 * @param defense must be between 0 and CardRegistry.MAX_STAT inclusive
+	 * @param resistance must be between 0 and CardRegistry.MAX_STAT inclusive
+	 * @return
+	 */
+	public static CardArchetype getArchetype(AttackType attackType, int attack, int defense, int resistance) {
+		return CardRegistry.getArchetype(CardRegistry.pack(attackType, attack, defense, resistance, null));
+	}
+	
+	/**
+	 * Creates a card from a random archetype, with stats chosen as for generateTestCard
+	 * @param attackMax max value for Attack (must be >= attackMin, <= 5)
+	 * @param defenseMax max value for both Defense and Resistance (must be >= defenseMin, <= 4)
+	 * @param attackMin min value for Attack (must be >= 1)
+	 * @param defenseMin min value for both Defense and Resistance (must be >= 0)
+	 * @return
+	 */
+	public static Card generateTestArchetype(int attackMax, int defenseMax, int attackMin, int defenseMin) {
+		return generateTestArchetype(attackMax, defenseMax, attackMin, defenseMin, RandomSource.current());
+	}
+	
+	/**
+	 * Creates a card from a random archetype as for generateTestArchetype, drawing every random
+	 *  choice from a given generator
+	 * @param attackMax max value for Attack (must be >= attackMin, <= 5)
+	 * @param defenseMax max value for both Defense and Resistance (must be >= defenseMin, <= 4)
+	 * @param attackMin min value for Attack (must be >= 1)
+	 * @param defenseMin min value for both Defense and Resistance (must be >= 0)
+	 * @param random the generator to use, or null for the RandomSource of the calling thread
+	 * @return
+	 */
+	public static Card generateTestArchetype(int attackMax, int defenseMax, int attackMin, int defenseMin, Random random) {
+		return CardRegistry.getArchetype(generateTestCard(attackMax, defenseMax, attackMin, defenseMin, random)).createCard();
+	}
+	
+	/**
+	 * Generates the name of an archetype, which unlike the names of test cards depends only on
+	 *  the stats of the card
+	 * @param attackType may be null
+	 * @param attack
+	 * @param defense
+	 * @param resistance
+	 * @return
+	 */
+	static String generateArchetypeName(AttackType attackType, int attack, int defense, int resistance) {
+		String adjective = generateAdjectiveFromAllStats(attack + defense + resistance);
+		return attackType == null ? adjective : adjective + " " + generateNoun(attackType, attack);
+	}
+	
 	/**
 	 * Generates a psuedo-random int between two values inclusively
+	 * @param random
 	 * @param min lowest possible value for the int
 	 * @param max highest possible value for the int
 	 * @return
 	 */
-	private static int getRandomIntBetween(int min, int max) {
-		Random randomGenerator = new Random();
-		return randomGenerator.nextInt((max - min) + 1) + min;
+	private static int getRandomIntBetween(Random random, int min, int max) {
+		return random.nextInt((max - min) + 1) + min;
 	}
 	
 	/**
 	 * Generate a pseudo-random name based on the stats of a card
+	 * @param random
 	 * @param attackType
 	 * @param attack
 	 * @param defense
 	 * @param resistance
 	 * @return
 	 */
-	private static String generateRandomName(AttackType attackType, int attack, int defense, int resistance) {
+	private static String generateRandomName(Random random, AttackType attackType, int attack, int defense, int resistance) {
 		StringBuilder builder = new StringBuilder();
-		builder.append(generateAdjective(attack, defense, resistance));
+		builder.append(generateAdjective(random, attack, defense, resistance));
 		builder.append(" ");
 		builder.append(generateNoun(attackType, attack));
 		return builder.toString();
@@ -95,13 +166,14 @@ public class CardFactory {
 	
 	/**
 	 * Generate an adjective based on a pseudo-random set of the stats of a card
+	 * @param random
 	 * @param attack
 	 * @param defense
 	 * @param resistance
 	 * @return
 	 */
-	private static String generateAdjective(int attack, int defense, int resistance) {
-		int stat = getRandomIntBetween(0, 3);
+	private static String generateAdjective(Random random, int attack, int defense, int resistance) {
+		int stat = getRandomIntBetween(random, 0, 3);
 		if (stat == 1) {
 			return generateAdjectiveFromAttack(attack);
 		} else if (stat == 2) {
@@ -0,0 +1,241 @@
+package com.phantomrealm.cardbattle.model.card;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Packs the gameplay qualities of cards into ints, and keeps a single archetype for each packed
+ *  form. Every card with the same stats, attack type and bonus effect shares the same packed
+ *  form whatever its name, so searches and boards can copy and compare ints rather than
+ *  cloning Card objects. The layout of a packed card, from the lowest bit, is:
+ *  attack (8 bits), defense (8 bits), resistance (8 bits), attack type (2 bits, 0 for none),
+ *  bonus effect (4 bits, 0 for none), and a bit which is always set so that no card packs to 0.
+ *  Archetypes are also numbered densely in the order they are first requested, so that tables
+ *  such as BattleOutcomes can be indexed by archetype. Archetypes are immutable and interned,
+ *  so the same CardArchetype is returned for a packed form every time it is requested.
+ * 
+ * @author matthewpape
+ */
+public class CardRegistry {
+	
+	/**
+	 * The packed form of a missing card
+	 */
+	public static final int NO_CARD = 0;
+	
+	/**
+	 * The largest attack, defense or resistance a packed card may hold
+	 */
+	public static final int MAX_STAT = 0xFF;
+	
+	/**
+	 * An index which no archetype has, for tables indexed by archetype which need a placeholder
+	 */
+	public static final int NO_INDEX = -1;
+	
+	private static final int STAT_MASK = 0xFF;
+	private static final int DEFENSE_SHIFT = 8;
+	private static final int RESISTANCE_SHIFT = 16;
+	private static final int ATTACK_TYPE_SHIFT = 24;
+	private static final int ATTACK_TYPE_MASK = 0x3;
+	private static final int BONUS_EFFECT_SHIFT = 26;
+	private static final int BONUS_EFFECT_MASK = 0xF;
+	private static final int PRESENT_BIT = 1 << 30;
+	// the attack type bits of a magical card
+	private static final int MAGICAL_BITS = (AttackType.MAGICAL.ordinal() + 1) << ATTACK_TYPE_SHIFT;
+	private static final AttackType[] ATTACK_TYPES = AttackType.values();
+	private static final BonusEffect[] BONUS_EFFECTS = BonusEffect.values();
+	private static final int INITIAL_INDEX_CAPACITY = 64;
+	private static final ConcurrentMap<Integer, CardArchetype> sArchetypes = new ConcurrentHashMap<Integer, CardArchetype>();
+	private static volatile CardArchetype[] sIndexedArchetypes = new CardArchetype[INITIAL_INDEX_CAPACITY];
+	private static volatile int sArchetypeCount;
+	
+	/**
+	 * Gets the packed form of a card
+	 * @param card
+	 * @return NO_CARD for null
+	 * @throws IllegalArgumentException if any stat of the card is negative or above MAX_STAT
+	 */
+	public static int pack(Card card) {
+		if (card == null) {
+			return NO_CARD;
+		}
+		return pack(card.getAttackType(), card.getAttack(), card.getDefense(), card.getResistance(), card.getBonusEffect());
+	}
+	
+	/**
+	 * Gets the packed form of a card with the given qualities
+	 * @param attackType may be null
+	 * @param attack
+	 * @param defense
+	 * @param resistance
+	 * @param bonusEffect may be null
+	 * @return
+	 * @throws IllegalArgumentException if any stat is negative or above MAX_STAT
+	 */
+	public static int pack(AttackType attackType, int attack, int defense, int resistance, BonusEffect bonusEffect) {
+		// negative stats have bits above MAX_STAT set too, so a single mask checks both bounds
+		if (((attack | defense | resistance) & ~MAX_STAT) != 0) {
+			throw new IllegalArgumentException("card stats must be between 0 and " + MAX_STAT + " to be packed");
+		}
+		int packedCard = PRESENT_BIT | attack | (defense << DEFENSE_SHIFT) | (resistance << RESISTANCE_SHIFT);
+		packedCard |= (attackType == null ? 0 : attackType.ordinal() + 1) << ATTACK_TYPE_SHIFT;
+		packedCard |= (bonusEffect == null ? 0 : bonusEffect.ordinal() + 1) << BONUS_EFFECT_SHIFT;
+		return packedCard;
+	}
+	
+	/**
+	 * Gets the attack of a packed card
+	 * @param packedCard
+	 * @return
+	 */
+	public static int getAttack(int packedCard) {
+		return packedCard & STAT_MASK;
+	}
+	
+	/**
+	 * Gets the defense of a packed card
+	 * @param packedCard
+	 * @return
+	 */
+	public static int getDefense(int packedCard) {
+		return (packedCard >>> DEFENSE_SHIFT) & STAT_MASK;
+	}
+	
+	/**
+	 * Gets the resistance of a packed card
+	 * @param packedCard
+	 * @return
+	 */
+	public static int getResistance(int packedCard) {
+		return (packedCard >>> RESISTANCE_SHIFT) & STAT_MASK;
+	}
+	
+	/**
+	 * Gets the defense of a packed card against a given attack type, as for Card.getDefenseForAttackType
+	 * @param packedCard
+	 * @param attackType
+	 * @return
+	 */
+	public static int getDefenseForAttackType(int packedCard, AttackType attackType) {
+		return attackType == AttackType.MAGICAL ? getResistance(packedCard) : getDefense(packedCard);
+	}
+	
+	/**
+	 * Indicates whether or not one packed card defeats another in a conflict, by having a greater
+	 *  attack than the defense of the other card against its attack type
+	 * @param attacker
+	 * @param defender
+	 * @return
+	 */
+	public static boolean defeats(int attacker, int defender) {
+		int defenseShift = (attacker & (ATTACK_TYPE_MASK << ATTACK_TYPE_SHIFT)) == MAGICAL_BITS ? RESISTANCE_SHIFT : DEFENSE_SHIFT;
+		return (attacker & STAT_MASK) > ((defender >>> defenseShift) & STAT_MASK);
+	}
+	
+	/**
+	 * Gets the attack type of a packed card
+	 * @param packedCard
+	 * @return null if the card has no attack type
+	 */
+	public static AttackType getAttackType(int packedCard) {
+		int code = (packedCard >>> ATTACK_TYPE_SHIFT) & ATTACK_TYPE_MASK;
+		return code == 0 ? null : ATTACK_TYPES[code - 1];
+	}
+	
+	/**
+	 * Indicates whether or not a packed card has a bonus effect, without looking the effect up
+	 * @param packedCard
+	 * @return
+	 */
+	public static boolean hasBonusEffect(int packedCard) {
+		return (packedCard & (BONUS_EFFECT_MASK << BONUS_EFFECT_SHIFT)) != 0;
+	}
+	
+	/**
+	 * Gets the bonus effect of a packed card
+	 * @param packedCard
+	 * @return null if the card has no bonus effect
+	 */
+	public static BonusEffect getBonusEffect(int packedCard) {
+		int code = (packedCard >>> BONUS_EFFECT_SHIFT) & BONUS_EFFECT_MASK;
+		return code == 0 ? null : BONUS_EFFECTS[code - 1];
+	}
+	
+	/**
+	 * Gets the archetype for a packed card, registering it if this is the first request for it
+	 * @param packedCard
+	 * @return null for NO_CARD
+	 */
+	public static CardArchetype getArchetype(int packedCard) {
+		if (packedCard == NO_CARD) {
+			return null;
+		}
+		CardArchetype archetype = sArchetypes.get(packedCard);
+		if (archetype == null) {
+			archetype = registerArchetype(packedCard);
+		}
+		return archetype;
+	}
+	
+	/**
+	 * Creates the archetype for a packed card and gives it the next index, unless another
+	 *  thread registered it first. New archetypes are rare, so registering them is serialized,
+	 *  while looking them up is not.
+	 * @param packedCard
+	 * @return
+	 */
+	private static synchronized CardArchetype registerArchetype(int packedCard) {
+		CardArchetype archetype = sArchetypes.get(packedCard);
+		if (archetype == null) {
+			AttackType attackType = getAttackType(packedCard);
+			int attack = getAttack(packedCard);
+			int defense = getDefense(packedCard);
+			int resistance = getResistance(packedCard);
+			String name = CardFactory.generateArchetypeName(attackType, attack, defense, resistance);
+			int index = sArchetypeCount;
+			archetype = new CardArchetype(name, packedCard, index);
+			CardArchetype[] indexedArchetypes = sIndexedArchetypes;
+			if (index == indexedArchetypes.length) {
+				indexedArchetypes = Arrays.copyOf(indexedArchetypes, index * 2);
+			}
+			indexedArchetypes[index] = archetype;
+			sIndexedArchetypes = indexedArchetypes;
+			// the count is published last, so that any index below it may be read without locking
+			sArchetypeCount = index + 1;
+			sArchetypes.put(packedCard, archetype);
+		}
+		return archetype;
+	}
+	
+	/**
+	 * Gets the number of archetypes registered so far, which are indexed from 0
+	 * @return
+	 */
+	public static int getArchetypeCount() {
+		return sArchetypeCount;
+	}
+	
+	/**
+	 * Gets the archetype with a given index
+	 * @param index below getArchetypeCount
+	 * @return
+	 */
+	public static CardArchetype getArchetypeByIndex(int index) {
+		if (index < 0 || index >= sArchetypeCount) {
+			throw new IndexOutOfBoundsException("no archetype with index " + index);
+		}
+		return sIndexedArchetypes[index];
+	}
+	
+	/**
+	 * Gets the archetype of a card, which shares its stats, attack type and bonus effect
+	 * @param card
+	 * @return null for null
+	 */
+	public static CardArchetype getArchetype(Card card) {
+		return getArchetype(pack(card));
+	}
+
+}
@@ -1,9 +1,11 @@
 package com.phantomrealm.cardbattle.model.deck;
 
 import java.util.Collections;
+import java.util.Random;
 import java.util.Stack;
 
 import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.util.RandomSource;
 
 /**
  * Model object used to represent a deck of up to 100 Cards
@@ -41,9 +43,18 @@ public class Deck extends Stack<Card>{
 	}
 	
 	/**
-	 * Randomizes the order of the contents of this deck
+	 * Randomizes the order of the contents of this deck, using the RandomSource of the calling thread
 	 */
 	public void Shuffle() {
-		Collections.shuffle(this);
+		Shuffle(RandomSource.current());
+	}
+	
+	/**
+	 * Randomizes the order of the contents of this deck, drawing from a given generator so that
+	 *  the same order can be produced again
+	 * @param random the generator to use, or null for the RandomSource of the calling thread
+	 */
+	public void Shuffle(Random random) {
+		Collections.shuffle(this, RandomSource.orCurrent(random));
 	}
 }
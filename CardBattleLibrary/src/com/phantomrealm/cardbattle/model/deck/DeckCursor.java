@@ -0,0 +1,115 @@
+package com.phantomrealm.cardbattle.model.deck;
+
+import java.util.EmptyStackException;
+
+import com.phantomrealm.cardbattle.model.card.Card;
+
+/**
+ * A lightweight view of the cards left in a Deck, for use by searches. The cards are copied out
+ *  of the deck once into an array which is never modified, and the cards left are marked by an
+ *  index into it, so popping a card just moves the index. Cursors forked from each other share
+ *  the same array, which makes forking constant time. Unlike Deck, a cursor is not synchronized,
+ *  and must only be used by one thread at a time.
+ * 
+ * @author matthewpape
+ */
+public class DeckCursor {
+	
+	private final Card[] mCards;
+	private int mSize;
+	// the number of cards left when the cursor was created, which undoPop never goes past
+	private final int mStartSize;
+	
+	/**
+	 * Creates a cursor over the cards currently in a deck
+	 * @param deck is not modified, and later changes to it do not affect the cursor
+	 */
+	public DeckCursor(Deck deck) {
+		this(deck.toArray(new Card[deck.size()]), deck.size());
+	}
+	
+	/**
+	 * Creates a cursor over the first cards of a shared array
+	 * @param cards with the top of the deck last
+	 * @param size the number of cards left
+	 */
+	private DeckCursor(Card[] cards, int size) {
+		mCards = cards;
+		mSize = size;
+		mStartSize = size;
+	}
+	
+	/**
+	 * Creates another cursor over the same cards, which starts with the same cards left as this
+	 *  cursor but is popped separately from then on
+	 * @return
+	 */
+	public DeckCursor fork() {
+		return new DeckCursor(mCards, mSize);
+	}
+	
+	/**
+	 * Gets the number of cards left
+	 * @return
+	 */
+	public int size() {
+		return mSize;
+	}
+	
+	/**
+	 * Indicates whether or not any cards are left
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return mSize == 0;
+	}
+	
+	/**
+	 * Gets the card at a given index, counting from the bottom of the deck as for Deck.get
+	 * @param index
+	 * @return
+	 */
+	public Card get(int index) {
+		if (index >= mSize) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return mCards[index];
+	}
+	
+	/**
+	 * Gets the card on top of the cards left, without removing it
+	 * @return
+	 * @throws EmptyStackException if no cards are left
+	 */
+	public Card peek() {
+		if (mSize == 0) {
+			throw new EmptyStackException();
+		}
+		return mCards[mSize - 1];
+	}
+	
+	/**
+	 * Removes the card on top of the cards left
+	 * @return
+	 * @throws EmptyStackException if no cards are left
+	 */
+	public Card pop() {
+		if (mSize == 0) {
+			throw new EmptyStackException();
+		}
+		return mCards[--mSize];
+	}
+	
+	/**
+	 * Reverts the most recent call to pop, returning the popped card to the top
+	 * @throws IllegalStateException if every card popped from this cursor has already been
+	 *  returned, including when a forked cursor would return a card popped before the fork
+	 */
+	public void undoPop() {
+		if (mSize == mStartSize) {
+			throw new IllegalStateException("no pop to undo");
+		}
+		++mSize;
+	}
+
+}
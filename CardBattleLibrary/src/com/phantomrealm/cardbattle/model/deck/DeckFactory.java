@@ -1,6 +1,9 @@
 package com.phantomrealm.cardbattle.model.deck;
 
+import java.util.Random;
+
 import com.phantomrealm.cardbattle.model.card.CardFactory;
+import com.phantomrealm.cardbattle.util.RandomSource;
 
 /**
  * Used to generate Decks for a variety of purposes
@@ -70,6 +73,17 @@ public class DeckFactory {
 		return generateTestDeck(deckSize, ATTACK_MAX, DEFENSE_MAX, ATTACK_MIN, DEFENSE_MIN);
 	}
 	
+	/**
+	 * Generates a deck of a given size with average stats, drawing every random choice from a
+	 *  given generator so that the same deck can be generated again
+	 * @param deckSize
+	 * @param random the generator to use, or null for the RandomSource of the calling thread
+	 * @return
+	 */
+	public static Deck generateTestDeck(int deckSize, Random random) {
+		return generateTestDeck(deckSize, ATTACK_MAX, DEFENSE_MAX, ATTACK_MIN, DEFENSE_MIN, random);
+	}
+	
 	/**
 	 * Generates a deck of 100 cards, filled with cards using specified stats.
 	 * @param attackMax subject to same rules as CardFactory cards
@@ -92,12 +106,57 @@ public class DeckFactory {
 	 * @return
 	 */
 	public static Deck generateTestDeck(int deckSize, int attackMax, int defenseMax, int attackMin, int defenseMin) {
+		return generateTestDeck(deckSize, attackMax, defenseMax, attackMin, defenseMin, RandomSource.current());
+	}
+	
+	/**
+	 * Generates a deck of specified size, filled with cards using specified stats, drawing every
+	 *  random choice from a given generator
+	 * @param deckSize must be between 0 and 100 inclusive
+	 * @param attackMax subject to same rules as CardFactory cards
+	 * @param defenseMax subject to same rules as CardFactory cards
+	 * @param attackMin subject to same rules as CardFactory cards
+	 * @param defenseMin subject to same rules as CardFactory cards
+	 * @param random the generator to use, or null for the RandomSource of the calling thread
+	 * @return
+	 */
+	public static Deck generateTestDeck(int deckSize, int attackMax, int defenseMax, int attackMin, int defenseMin, Random random) {
+		deckSize = Math.min(100, deckSize);
+		deckSize = Math.max(deckSize, 0);
+		random = RandomSource.orCurrent(random);
+		
+		Deck deck = new Deck();
+		for (int i = 0; i < deckSize; ++i) {
+			deck.push(CardFactory.generateTestCard(attackMax, defenseMax, attackMin, defenseMin, random));
+		}
+		return deck;
+	}
+	
+	/**
+	 * Generates a deck of a given size with average stats, filled with cards made from the
+	 *  archetypes of CardRegistry, so that cards with the same stats also share the same name.
+	 * @param deckSize must be between 0 and 100 inclusive
+	 * @return
+	 */
+	public static Deck generateTestArchetypeDeck(int deckSize) {
+		return generateTestArchetypeDeck(deckSize, RandomSource.current());
+	}
+	
+	/**
+	 * Generates a deck of archetype cards as for generateTestArchetypeDeck, drawing every
+	 *  random choice from a given generator
+	 * @param deckSize must be between 0 and 100 inclusive
+	 * @param random the generator to use, or null for the RandomSource of the calling thread
+	 * @return
+	 */
+	public static Deck generateTestArchetypeDeck(int deckSize, Random random) {
 		deckSize = Math.min(100, deckSize);
 		deckSize = Math.max(deckSize, 0);
+		random = RandomSource.orCurrent(random);
 		
 		Deck deck = new Deck();
 		for (int i = 0; i < deckSize; ++i) {
-			deck.push(CardFactory.generateTestCard(attackMax, defenseMax, attackMin, defenseMin));
+			deck.push(CardFactory.generateTestArchetype(ATTACK_MAX, DEFENSE_MAX, ATTACK_MIN, DEFENSE_MIN, random));
 		}
 		return deck;
 	}
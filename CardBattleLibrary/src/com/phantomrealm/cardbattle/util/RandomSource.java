@@ -0,0 +1,116 @@
+package com.phantomrealm.cardbattle.util;
+
+import java.util.Random;
+
+/**
+ * A seeded, splittable generator of pseudo-random numbers, based on SplitMix64. Unlike Random it
+ *  is not safe to share between threads, which makes it cheap: each thread has its own source,
+ *  given by current(), and further independent sources can be split off any source. Anything
+ *  which only draws from the source of its thread can be replayed by seeding that source.
+ * 
+ * @author matthewpape
+ */
+public class RandomSource extends Random {
+	
+	/**
+	 * Serialization version identifier
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	
+	private static final Object sSeedLock = new Object();
+	private static long sNextSeed = mix(System.nanoTime());
+	private static final ThreadLocal<RandomSource> sCurrent = new ThreadLocal<RandomSource>() {
+		@Override
+		protected RandomSource initialValue() {
+			return new RandomSource(nextThreadSeed());
+		}
+	};
+	
+	private long mState;
+	
+	/**
+	 * Creates a source which will produce the same numbers as any other created with the same seed
+	 * @param seed
+	 */
+	public RandomSource(long seed) {
+		super(seed);
+	}
+	
+	/**
+	 * Gets the source of the calling thread. Each thread is given a different seed when it first
+	 *  calls this, which may be replaced with setSeed.
+	 * @return
+	 */
+	public static RandomSource current() {
+		return sCurrent.get();
+	}
+	
+	/**
+	 * Gets a given source, or the source of the calling thread if none is given
+	 * @param random may be null
+	 * @return
+	 */
+	public static Random orCurrent(Random random) {
+		return random != null ? random : current();
+	}
+	
+	/**
+	 * Gets the seed for the source of a new thread
+	 * @return
+	 */
+	private static long nextThreadSeed() {
+		synchronized (sSeedLock) {
+			sNextSeed += GOLDEN_GAMMA;
+			return mix(sNextSeed);
+		}
+	}
+	
+	/**
+	 * Scrambles the bits of a value, as SplitMix64 does to produce each number
+	 * @param value
+	 * @return
+	 */
+	public static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+	
+	/**
+	 * Creates a new source whose numbers are independent of those of this source, advancing this
+	 *  source by a single number. Splitting a source with a given seed always gives the same sources.
+	 * @return
+	 */
+	public RandomSource split() {
+		return new RandomSource(nextLong());
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.util.Random#setSeed(long)
+	 */
+	@Override
+	public void setSeed(long seed) {
+		// Random calls this from its constructor, so mState must not have an initializer
+		mState = seed;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.util.Random#nextLong()
+	 */
+	@Override
+	public long nextLong() {
+		mState += GOLDEN_GAMMA;
+		return mix(mState);
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.util.Random#next(int)
+	 */
+	@Override
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (Long.SIZE - bits));
+	}
+
+}
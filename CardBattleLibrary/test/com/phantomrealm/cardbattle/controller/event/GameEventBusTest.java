@@ -0,0 +1,356 @@
+package com.phantomrealm.cardbattle.controller.event;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.phantomrealm.cardbattle.controller.game.Game;
+import com.phantomrealm.cardbattle.controller.game.TurnListener;
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.controller.player.algorithmic.OrderedPlayer;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.AttackType;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+import com.phantomrealm.cardbattle.util.RandomSource;
+
+public class GameEventBusTest {
+	
+	private static final int TEST_CAPACITY = 4;
+	private static final int TEST_DECK_SIZE = 20;
+	private static final long TEST_SEED = 42;
+	
+	@Test
+	public void testPublish_AllSubscribersInOrder() throws InterruptedException {
+		final RecordingListener firstSubscriber = new RecordingListener();
+		final RecordingListener secondSubscriber = new RecordingListener();
+		final GameEventBus bus = new GameEventBus.Builder().setCapacity(TEST_CAPACITY).setBatchSize(3)
+				.addSubscriber(firstSubscriber).build();
+		bus.subscribe(secondSubscriber);
+		
+		bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, 1));
+		bus.onCardDefeated(new Position(1, 1), AttackType.MAGICAL);
+		bus.onTurnEnded();
+		for (int column = 0; column < 10; ++column) {
+			bus.onCardMoved(PlayerIdentity.RIGHT_PLAYER, new Position(2, column));
+		}
+		bus.close();
+		
+		assertThat(firstSubscriber.getEvents().size(), equalTo(13));
+		assertThat(firstSubscriber.getEvents().get(0), equalTo("moved LEFT_PLAYER row: 0, column: 1"));
+		assertThat(firstSubscriber.getEvents().get(1), equalTo("defeated MAGICAL row: 1, column: 1"));
+		assertThat(firstSubscriber.getEvents().get(2), equalTo("turn ended"));
+		assertThat(firstSubscriber.getEvents().get(12), equalTo("moved RIGHT_PLAYER row: 2, column: 9"));
+		assertThat(secondSubscriber.getEvents(), equalTo(firstSubscriber.getEvents()));
+		assertThat(bus.getDroppedCount(), equalTo(0L));
+	}
+	
+	@Test
+	public void testUnsubscribe() throws InterruptedException {
+		final RecordingListener subscriber = new RecordingListener();
+		final GameEventBus bus = new GameEventBus.Builder().addSubscriber(subscriber).build();
+		bus.onTurnEnded();
+		bus.flush();
+		assertThat(bus.unsubscribe(subscriber), equalTo(true));
+		assertThat(bus.unsubscribe(subscriber), equalTo(false));
+		bus.onTurnEnded();
+		bus.close();
+		assertThat(subscriber.getEvents().size(), equalTo(1));
+	}
+	
+	@Test
+	public void testGame_TurnBoundaries() throws InterruptedException {
+		final RecordingListener subscriber = new RecordingListener();
+		final GameEventBus bus = new GameEventBus.Builder().addSubscriber(subscriber).build();
+		final RandomSource random = new RandomSource(TEST_SEED);
+		final OrderedPlayer leftPlayer = new OrderedPlayer(PlayerIdentity.LEFT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE, random));
+		final OrderedPlayer rightPlayer = new OrderedPlayer(PlayerIdentity.RIGHT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE, random));
+		final Game game = new Game.Builder(leftPlayer, rightPlayer, new Board(3, 3)).setGameControllerListener(bus).build();
+		
+		int rounds = 0;
+		while (game.step() == Game.IN_PROGRESS) {
+			++rounds;
+		}
+		bus.flush();
+		
+		// every round starts with a move and ends with a boundary, the last round included
+		final List<String> events = subscriber.getEvents();
+		assertThat(Collections.frequency(events, "turn ended"), equalTo(rounds + 1));
+		assertThat(events.get(0).startsWith("moved LEFT_PLAYER"), equalTo(true));
+		assertThat(events.get(events.size() - 1), equalTo("turn ended"));
+		for (int i = 1; i < events.size(); ++i) {
+			if (events.get(i - 1).equals("turn ended")) {
+				assertThat(events.get(i).startsWith("moved"), equalTo(true));
+			}
+		}
+		bus.close();
+	}
+	
+	@Test
+	public void testBackpressure_Drop() throws InterruptedException {
+		final BlockingListener subscriber = new BlockingListener();
+		final GameEventBus bus = new GameEventBus.Builder().setCapacity(TEST_CAPACITY).setBatchSize(1)
+				.setBackpressurePolicy(BackpressurePolicy.DROP).addSubscriber(subscriber).build();
+		subscriber.holdConsumer(bus);
+		
+		// the ring fills up while the consumer is held, and the rest are dropped
+		for (int column = 0; column < TEST_CAPACITY + 2; ++column) {
+			bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, column));
+		}
+		assertThat(bus.getDroppedCount(), equalTo(2L));
+		
+		subscriber.release();
+		bus.close();
+		assertThat(subscriber.getEvents().size(), equalTo(TEST_CAPACITY + 1));
+		assertThat(subscriber.getEvents().get(TEST_CAPACITY), equalTo("moved LEFT_PLAYER row: 0, column: " + (TEST_CAPACITY - 1)));
+	}
+	
+	@Test
+	public void testBackpressure_Coalesce() throws InterruptedException {
+		final BlockingListener subscriber = new BlockingListener();
+		final GameEventBus bus = new GameEventBus.Builder().setCapacity(TEST_CAPACITY).setBatchSize(1)
+				.setBackpressurePolicy(BackpressurePolicy.COALESCE).addSubscriber(subscriber).build();
+		subscriber.holdConsumer(bus);
+		
+		bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		bus.onTurnEnded();
+		bus.onCardMoved(PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		bus.onCardDefeated(new Position(0, 1), AttackType.PHYSICAL);
+		
+		// replaces the pending defeat in the current turn
+		bus.onCardDefeated(new Position(0, 1), AttackType.MAGICAL);
+		// only matches a move from the previous turn, so is dropped
+		bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		assertThat(bus.getCoalescedCount(), equalTo(1L));
+		assertThat(bus.getDroppedCount(), equalTo(1L));
+		
+		subscriber.release();
+		bus.close();
+		assertThat(subscriber.getEvents().size(), equalTo(TEST_CAPACITY + 1));
+		assertThat(subscriber.getEvents().get(TEST_CAPACITY), equalTo("defeated MAGICAL row: 0, column: 1"));
+	}
+	
+	@Test
+	public void testBackpressure_CoalesceKeepsPositionOrder() throws InterruptedException {
+		final BlockingListener subscriber = new BlockingListener();
+		final GameEventBus bus = new GameEventBus.Builder().setCapacity(TEST_CAPACITY).setBatchSize(1)
+				.setBackpressurePolicy(BackpressurePolicy.COALESCE).addSubscriber(subscriber).build();
+		subscriber.holdConsumer(bus);
+		
+		bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, 1));
+		bus.onCardDefeated(new Position(0, 1), AttackType.PHYSICAL);
+		bus.onCardMoved(PlayerIdentity.RIGHT_PLAYER, new Position(0, 2));
+		bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		
+		// the older move may not jump ahead of the defeat which follows it, so is dropped
+		bus.onCardMoved(PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		assertThat(bus.getCoalescedCount(), equalTo(0L));
+		assertThat(bus.getDroppedCount(), equalTo(1L));
+		
+		subscriber.release();
+		bus.close();
+		assertThat(subscriber.getEvents().size(), equalTo(TEST_CAPACITY + 1));
+		assertThat(subscriber.getEvents().get(1), equalTo("moved LEFT_PLAYER row: 0, column: 1"));
+		assertThat(subscriber.getEvents().get(2), equalTo("defeated PHYSICAL row: 0, column: 1"));
+	}
+	
+	@Test
+	public void testBackpressure_CoalesceKeepsTurns() throws InterruptedException {
+		final BlockingListener subscriber = new BlockingListener();
+		final GameEventBus bus = new GameEventBus.Builder().setCapacity(TEST_CAPACITY).setBatchSize(1)
+				.setBackpressurePolicy(BackpressurePolicy.COALESCE).addSubscriber(subscriber).build();
+		subscriber.holdConsumer(bus);
+		
+		bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		bus.onTurnEnded();
+		bus.onCardMoved(PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, 2));
+		
+		// merging with the previous boundary would join two turns, so it is dropped
+		bus.onTurnEnded();
+		assertThat(bus.getCoalescedCount(), equalTo(0L));
+		assertThat(bus.getDroppedCount(), equalTo(1L));
+		
+		subscriber.release();
+		bus.close();
+		assertThat(Collections.frequency(subscriber.getEvents(), "turn ended"), equalTo(1));
+		assertThat(subscriber.getEvents().get(2), equalTo("turn ended"));
+	}
+	
+	@Test
+	public void testBackpressure_CoalesceTurnEnds() throws InterruptedException {
+		final BlockingListener subscriber = new BlockingListener();
+		final GameEventBus bus = new GameEventBus.Builder().setCapacity(TEST_CAPACITY).setBatchSize(1)
+				.setBackpressurePolicy(BackpressurePolicy.COALESCE).addSubscriber(subscriber).build();
+		subscriber.holdConsumer(bus);
+		
+		bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		bus.onCardMoved(PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, 2));
+		bus.onTurnEnded();
+		
+		// an empty turn merges with the boundary right before it
+		bus.onTurnEnded();
+		assertThat(bus.getCoalescedCount(), equalTo(1L));
+		assertThat(bus.getDroppedCount(), equalTo(0L));
+		
+		subscriber.release();
+		bus.close();
+		assertThat(subscriber.getEvents().size(), equalTo(TEST_CAPACITY + 1));
+		assertThat(subscriber.getEvents().get(TEST_CAPACITY), equalTo("turn ended"));
+	}
+	
+	@Test
+	public void testBackpressure_Block() throws InterruptedException {
+		final BlockingListener subscriber = new BlockingListener();
+		final GameEventBus bus = new GameEventBus.Builder().setCapacity(TEST_CAPACITY).setBatchSize(1)
+				.setBackpressurePolicy(BackpressurePolicy.BLOCK).addSubscriber(subscriber).build();
+		subscriber.holdConsumer(bus);
+		for (int column = 0; column < TEST_CAPACITY; ++column) {
+			bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, column));
+		}
+		
+		// the next event waits for space, which only appears once the consumer is released
+		final Thread publisher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				bus.onTurnEnded();
+			}
+		});
+		publisher.start();
+		publisher.join(100);
+		assertThat(publisher.isAlive(), equalTo(true));
+		
+		subscriber.release();
+		publisher.join();
+		bus.close();
+		assertThat(subscriber.getEvents().size(), equalTo(TEST_CAPACITY + 2));
+		assertThat(subscriber.getEvents().get(TEST_CAPACITY + 1), equalTo("turn ended"));
+		assertThat(bus.getDroppedCount(), equalTo(0L));
+	}
+	
+	@Test
+	public void testBackpressure_BlockInterrupted() throws InterruptedException {
+		final BlockingListener subscriber = new BlockingListener();
+		final GameEventBus bus = new GameEventBus.Builder().setCapacity(TEST_CAPACITY).setBatchSize(1)
+				.setBackpressurePolicy(BackpressurePolicy.BLOCK).addSubscriber(subscriber).build();
+		subscriber.holdConsumer(bus);
+		for (int column = 0; column < TEST_CAPACITY; ++column) {
+			bus.onCardMoved(PlayerIdentity.LEFT_PLAYER, new Position(0, column));
+		}
+		
+		// interrupting the waiting publisher neither drops the event nor clears the interrupt
+		final AtomicBoolean interrupted = new AtomicBoolean();
+		final Thread publisher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				bus.onTurnEnded();
+				interrupted.set(Thread.currentThread().isInterrupted());
+			}
+		});
+		publisher.start();
+		publisher.join(100);
+		publisher.interrupt();
+		publisher.join(100);
+		assertThat(publisher.isAlive(), equalTo(true));
+		
+		subscriber.release();
+		publisher.join();
+		bus.close();
+		assertThat(interrupted.get(), equalTo(true));
+		assertThat(subscriber.getEvents().size(), equalTo(TEST_CAPACITY + 2));
+		assertThat(subscriber.getEvents().get(TEST_CAPACITY + 1), equalTo("turn ended"));
+		assertThat(bus.getDroppedCount(), equalTo(0L));
+	}
+	
+	@Test
+	public void testClose_DropsLaterEvents() {
+		final RecordingListener subscriber = new RecordingListener();
+		final GameEventBus bus = new GameEventBus.Builder().addSubscriber(subscriber).build();
+		bus.close();
+		bus.onTurnEnded();
+		assertThat(bus.getDroppedCount(), equalTo(1L));
+		assertThat(subscriber.getEvents().size(), equalTo(0));
+	}
+	
+	@Test
+	public void testCapacity_PowerOfTwo() {
+		try (GameEventBus bus = new GameEventBus.Builder().setCapacity(100).build()) {
+			assertThat(bus.getCapacity(), equalTo(128));
+			assertThat(bus.getBackpressurePolicy(), equalTo(BackpressurePolicy.BLOCK));
+		}
+	}
+	
+	/**
+	 * Records every event it is sent as a string
+	 */
+	private static class RecordingListener implements TurnListener {
+		
+		private final List<String> mEvents = Collections.synchronizedList(new ArrayList<String>());
+		
+		@Override
+		public void onCardMoved(PlayerIdentity player, Position move) {
+			mEvents.add("moved " + player + " " + move);
+		}
+		
+		@Override
+		public void onCardDefeated(Position position, AttackType enemyAttackType) {
+			mEvents.add("defeated " + enemyAttackType + " " + position);
+		}
+		
+		@Override
+		public void onTurnEnded() {
+			mEvents.add("turn ended");
+		}
+		
+		List<String> getEvents() {
+			return mEvents;
+		}
+	
+	}
+	
+	/**
+	 * Records events, but holds up the consumer thread on the first one until released
+	 */
+	private static class BlockingListener extends RecordingListener {
+		
+		private final CountDownLatch mHeld = new CountDownLatch(1);
+		private final CountDownLatch mReleased = new CountDownLatch(1);
+		
+		/**
+		 * Publishes an event and waits until the consumer thread is stuck sending it, so the
+		 *  ring is empty and nothing more will be taken from it until release. The bus must
+		 *  have a batch size of 1 for the consumer to be woken by a single move.
+		 * @param bus
+		 * @throws InterruptedException
+		 */
+		void holdConsumer(GameEventBus bus) throws InterruptedException {
+			bus.onCardMoved(PlayerIdentity.RIGHT_PLAYER, new Position(1, 0));
+			mHeld.await();
+		}
+		
+		void release() {
+			mReleased.countDown();
+		}
+		
+		@Override
+		public void onCardMoved(PlayerIdentity player, Position move) {
+			super.onCardMoved(player, move);
+			mHeld.countDown();
+			try {
+				mReleased.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.phantomrealm.cardbattle.controller.game;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.controller.player.algorithmic.OrderedPlayer;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+import com.phantomrealm.cardbattle.util.RandomSource;
+
+public class GameTest {
+	
+	private static final int TEST_DECK_SIZE = 20;
+	private static final long TEST_SEED = 42;
+	
+	@Test
+	public void testStep_PlaysRound() {
+		final OrderedPlayer leftPlayer = new OrderedPlayer(PlayerIdentity.LEFT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE));
+		final OrderedPlayer rightPlayer = new OrderedPlayer(PlayerIdentity.RIGHT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE));
+		final Board board = new Board(3, 3);
+		final Game game = new Game.Builder(leftPlayer, rightPlayer, board).build();
+		assertThat(game.step(), equalTo(Game.IN_PROGRESS));
+		assertThat(leftPlayer.getDeck().size(), equalTo(TEST_DECK_SIZE - 1));
+		assertThat(rightPlayer.getDeck().size(), equalTo(TEST_DECK_SIZE));
+		assertThat(board.getOccupiedCount(), equalTo(1));
+	}
+	
+	@Test
+	public void testStep_StopsOnceWon() {
+		final Board board = new Board(3, 3);
+		final Game game = createGame(TEST_SEED, board, null);
+		int result = game.step();
+		while (result == Game.IN_PROGRESS) {
+			result = game.step();
+		}
+		assertThat(Game.getWinner(result), equalTo(game.getWinner()));
+		
+		// further steps neither move nor change the result
+		final long hash = board.getHash();
+		assertThat(game.step(), equalTo(result));
+		assertThat(board.getHash(), equalTo(hash));
+	}
+	
+	@Test
+	public void testStep_SeesBoardChangedBetweenSteps() {
+		final OrderedPlayer leftPlayer = new OrderedPlayer(PlayerIdentity.LEFT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE));
+		final OrderedPlayer rightPlayer = new OrderedPlayer(PlayerIdentity.RIGHT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE));
+		final Board board = new Board(3, 3);
+		final Game game = new Game.Builder(leftPlayer, rightPlayer, board).build();
+		assertThat(game.step(), equalTo(Game.IN_PROGRESS));
+		
+		// the left player is handed a majority of the rows outside of the game
+		for (int row = 0; row < 2; ++row) {
+			for (int col = 0; col < board.getWidth(); ++col) {
+				board.executeMove(leftPlayer.getDeck().peek(), PlayerIdentity.LEFT_PLAYER, board.getPosition(row, col));
+			}
+		}
+		assertThat(game.step(), equalTo(Game.LEFT_PLAYER_WON));
+		assertThat(rightPlayer.getDeck().size(), equalTo(TEST_DECK_SIZE));
+	}
+	
+	@Test
+	public void testPlayToCompletion_MatchesRounds() {
+		final Game steppedGame = createGame(TEST_SEED, new Board(3, 3), null);
+		while (steppedGame.getWinner() == null) {
+			steppedGame.takePlayerTurn();
+			steppedGame.resolveBoard();
+		}
+		final Game completedGame = createGame(TEST_SEED, new Board(3, 3), null);
+		assertThat(completedGame.playToCompletion(), equalTo(steppedGame.getWinner()));
+	}
+	
+	@Test
+	public void testPlayToCompletion_Listener() {
+		final AtomicInteger moveCount = new AtomicInteger();
+		final Game game = createGame(TEST_SEED, new Board(3, 3), new EmptyGameControllerListener() {
+			@Override
+			public void onCardMoved(PlayerIdentity player, Position move) {
+				moveCount.incrementAndGet();
+			}
+		});
+		assertThat(game.playToCompletion(), not(nullValue()));
+		assertThat(moveCount.get() > 0, equalTo(true));
+	}
+	
+	@Test
+	public void testGetWinner_Result() {
+		assertThat(Game.getWinner(Game.IN_PROGRESS), nullValue());
+		assertThat(Game.getWinner(Game.LEFT_PLAYER_WON), equalTo(PlayerIdentity.LEFT_PLAYER));
+		assertThat(Game.getWinner(Game.RIGHT_PLAYER_WON), equalTo(PlayerIdentity.RIGHT_PLAYER));
+	}
+	
+	/**
+	 * Creates a game between two ordered players with decks generated from a given seed
+	 * @param seed
+	 * @param board
+	 * @param listener may be null
+	 * @return
+	 */
+	private Game createGame(long seed, Board board, GameControllerListener listener) {
+		final RandomSource random = new RandomSource(seed);
+		final OrderedPlayer leftPlayer = new OrderedPlayer(PlayerIdentity.LEFT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE, random));
+		final OrderedPlayer rightPlayer = new OrderedPlayer(PlayerIdentity.RIGHT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE, random));
+		return new Game.Builder(leftPlayer, rightPlayer, board).setGameControllerListener(listener).build();
+	}
+
+}
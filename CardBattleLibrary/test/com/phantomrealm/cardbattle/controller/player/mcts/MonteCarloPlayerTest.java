@@ -0,0 +1,143 @@
+package com.phantomrealm.cardbattle.controller.player.mcts;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.controller.player.algorithmic.RandomPlayer;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.AttackType;
+import com.phantomrealm.cardbattle.model.card.BonusEffect;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+
+public class MonteCarloPlayerTest {
+	
+	private static final int TEST_DECK_SIZE = 30;
+	private static final int TEST_ITERATION_BUDGET = 200;
+	private static final int TEST_PARALLELISM = 4;
+	private static final long TEST_TIME_BUDGET = 50;
+	private static final long TEST_TIME_TOLERANCE = 200;
+	private static final int TEST_STRONG_STAT = 9;
+	private static final int TEST_WEAK_STAT = 0;
+	
+	@Test
+	public void testSetters_InvalidValues() {
+		final MonteCarloPlayer player = new MonteCarloPlayer(PlayerIdentity.LEFT_PLAYER, new Deck(), 0);
+		assertThat(player.getIterationBudget(), equalTo(1));
+		player.setTimeBudget(-5);
+		assertThat(player.getTimeBudget(), equalTo(0L));
+		player.setRolloutPolicy(null);
+		assertThat(player.getRolloutPolicy(), equalTo(RolloutPolicy.RANDOM));
+		player.setParallelMode(null);
+		assertThat(player.getParallelMode(), equalTo(ParallelMode.ROOT));
+		player.setExploration(-1);
+		assertThat(player.getExploration(), equalTo(Math.sqrt(2)));
+	}
+	
+	@Test
+	public void testGetMove_BlocksLosingMove() {
+		final Board board = new Board(2, 3);
+		final Deck playerDeck = createTestDeck(TEST_STRONG_STAT);
+		final Deck opponentDeck = createTestDeck(TEST_WEAK_STAT);
+		// the right player owns the first row, and would win by completing the last row
+		board.executeMove(createTestCard(TEST_WEAK_STAT), PlayerIdentity.RIGHT_PLAYER, new Position(0, 0));
+		board.executeMove(createTestCard(TEST_WEAK_STAT), PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		board.executeMove(createTestCard(TEST_WEAK_STAT), PlayerIdentity.RIGHT_PLAYER, new Position(2, 1));
+		for (RolloutPolicy policy : RolloutPolicy.values()) {
+			final MonteCarloPlayer player = new MonteCarloPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, TEST_ITERATION_BUDGET);
+			player.setRolloutPolicy(policy);
+			final Position testMove = player.getMove(board, opponentDeck);
+			assertThat(testMove.equals(new Position(2, 0)), equalTo(true));
+			assertThat(player.getIterationCount(), equalTo(TEST_ITERATION_BUDGET));
+		}
+	}
+	
+	@Test
+	public void testGetMove_TallBoard() {
+		final ForkJoinPool pool = new ForkJoinPool(TEST_PARALLELISM);
+		for (ParallelMode mode : ParallelMode.values()) {
+			final MonteCarloPlayer player = new MonteCarloPlayer(PlayerIdentity.LEFT_PLAYER, DeckFactory.generateTestDeck(), TEST_ITERATION_BUDGET);
+			player.setForkJoinPool(pool);
+			player.setParallelMode(mode);
+			playAgainstRandom(player, new Board(3, 15));
+		}
+		pool.shutdown();
+	}
+	
+	@Test
+	public void testGetMove_TimeBudgetRespected() {
+		final MonteCarloPlayer player = new MonteCarloPlayer(PlayerIdentity.LEFT_PLAYER, DeckFactory.generateTestDeck());
+		player.setTimeBudget(TEST_TIME_BUDGET);
+		final Board board = new Board(3, 15);
+		final long start = System.currentTimeMillis();
+		final Position testMove = player.getMove(board, DeckFactory.generateTestDeck());
+		final long elapsed = System.currentTimeMillis() - start;
+		assertThat(board.isValidMove(PlayerIdentity.LEFT_PLAYER, testMove), equalTo(true));
+		assertThat(player.getIterationCount(), greaterThanOrEqualTo(1));
+		assertThat(elapsed, lessThanOrEqualTo(TEST_TIME_BUDGET + TEST_TIME_TOLERANCE));
+	}
+	
+	/**
+	 * Plays a game between the given player and a RandomPlayer, asserting that every move picked
+	 *  by the given player is valid. The tree is reused between turns.
+	 * @param player
+	 * @param board
+	 */
+	private void playAgainstRandom(MonteCarloPlayer player, Board board) {
+		final PlayerIdentity identity = player.getIdentity();
+		final Deck opponentDeck = DeckFactory.generateTestDeck();
+		final RandomPlayer opponent = new RandomPlayer(PlayerIdentity.not(identity), opponentDeck);
+		while (board.getWinner() == null && !player.getDeck().isEmpty()) {
+			final Position testMove = player.getMove(board, opponentDeck);
+			assertThat(board.isValidMove(identity, testMove), equalTo(true));
+			
+			board.executeMove(player.getDeck().pop(), identity, testMove);
+			board.resolveBoardConflicts();
+			board.resolveBoardStalemates();
+			board.resolveBoardSuperStalemate();
+			if (board.getWinner() != null || opponentDeck.isEmpty()) {
+				return;
+			}
+			
+			board.executeMove(opponentDeck.pop(), opponent.getIdentity(), opponent.getMove(board, player.getDeck()));
+			board.resolveBoardConflicts();
+			board.resolveBoardStalemates();
+			board.resolveBoardSuperStalemate();
+		}
+	}
+	
+	/**
+	 * Creates a sample deck for testing, in which every card has the same stats
+	 * @param stat
+	 * @return
+	 */
+	private Deck createTestDeck(int stat) {
+		final Deck deck = new Deck();
+		for (int i = 0; i < TEST_DECK_SIZE; ++i) {
+			deck.push(createTestCard(stat));
+		}
+		return deck;
+	}
+	
+	/**
+	 * Creates a sample card for testing
+	 * @param stat the attack, resistance and defense of the card
+	 * @return
+	 */
+	private Card createTestCard(int stat) {
+		final String testName = "Steadfast Squire";
+		final BonusEffect testEffect = null;
+		final AttackType testType = AttackType.PHYSICAL;
+		return new Card(testName, testEffect, testType, stat, stat, stat);
+	}
+	
+}
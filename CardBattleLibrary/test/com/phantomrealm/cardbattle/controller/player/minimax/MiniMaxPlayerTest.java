@@ -0,0 +1,268 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.controller.player.algorithmic.OrderedPlayer;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+
+public class MiniMaxPlayerTest {
+	
+	private static final int TEST_DECK_SIZE = 30;
+	private static final int MAX_TEST_DEPTH = 8;
+	private static final int TEST_PARALLELISM = 4;
+	private static final long TEST_SHORT_TIME_BUDGET = 1;
+	private static final long TEST_LONG_TIME_BUDGET = 60000;
+	
+	@Test
+	public void testSetSearchMode_Null() {
+		final MiniMaxPlayer player = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, new Deck());
+		player.setSearchMode(null);
+		assertThat(player.getSearchMode(), equalTo(SearchMode.EXHAUSTIVE));
+	}
+	
+	@Test
+	public void testGetMove_AlphaBetaMatchesExhaustive() {
+		for (int depth = 1; depth <= MAX_TEST_DEPTH; ++depth) {
+			final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final MiniMaxPlayer exhaustive = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			final MiniMaxPlayer alphaBeta = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			alphaBeta.setSearchMode(SearchMode.ALPHA_BETA);
+			playAndCompare(exhaustive, alphaBeta, opponentDeck);
+		}
+	}
+	
+	@Test
+	public void testGetMove_TranspositionTableMatchesExhaustive() {
+		for (int depth = 1; depth <= MAX_TEST_DEPTH; ++depth) {
+			final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final MiniMaxPlayer exhaustive = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			final MiniMaxPlayer cached = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			cached.setTranspositionTable(new TranspositionTable());
+			playAndCompare(exhaustive, cached, opponentDeck);
+		}
+	}
+	
+	@Test
+	public void testGetMove_AlphaBetaTranspositionTableMatchesExhaustive() {
+		for (ReplacementPolicy policy : ReplacementPolicy.values()) {
+			for (int depth = 1; depth <= MAX_TEST_DEPTH; ++depth) {
+				final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+				final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+				final MiniMaxPlayer exhaustive = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+				final MiniMaxPlayer cached = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+				cached.setSearchMode(SearchMode.ALPHA_BETA);
+				cached.setTranspositionTable(new TranspositionTable(64, policy));
+				playAndCompare(exhaustive, cached, opponentDeck);
+			}
+		}
+	}
+	
+	@Test
+	public void testGetMove_ParallelMatchesExhaustive() {
+		final ForkJoinPool pool = new ForkJoinPool(TEST_PARALLELISM);
+		for (int depth = 1; depth <= MAX_TEST_DEPTH; ++depth) {
+			final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final MiniMaxPlayer exhaustive = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			final MiniMaxPlayer parallel = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			parallel.setSearchMode(SearchMode.ALPHA_BETA);
+			parallel.setTranspositionTable(new TranspositionTable());
+			parallel.setForkJoinPool(pool);
+			playAndCompare(exhaustive, parallel, opponentDeck);
+		}
+		pool.shutdown();
+	}
+	
+	@Test
+	public void testGetMove_ParallelSplitRepliesMatchesExhaustive() {
+		final ForkJoinPool pool = new ForkJoinPool(TEST_PARALLELISM);
+		for (int depth = 1; depth <= MAX_TEST_DEPTH; ++depth) {
+			final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final MiniMaxPlayer exhaustive = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			final MiniMaxPlayer parallel = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			parallel.setSearchMode(SearchMode.ALPHA_BETA);
+			parallel.setForkJoinPool(pool);
+			parallel.setSplittingReplies(true);
+			playAndCompare(exhaustive, parallel, opponentDeck);
+		}
+		pool.shutdown();
+	}
+	
+	@Test
+	public void testGetMove_MoveOrderingMatchesExhaustive() {
+		for (int depth = 1; depth <= MAX_TEST_DEPTH; ++depth) {
+			final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final MiniMaxPlayer exhaustive = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			final MiniMaxPlayer ordered = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			ordered.setSearchMode(SearchMode.ALPHA_BETA);
+			ordered.setTranspositionTable(new TranspositionTable());
+			ordered.setOrderingMoves(true);
+			playAndCompare(exhaustive, ordered, opponentDeck);
+		}
+	}
+	
+	@Test
+	public void testGetMove_ParallelMoveOrderingMatchesExhaustive() {
+		final ForkJoinPool pool = new ForkJoinPool(TEST_PARALLELISM);
+		for (int depth = 1; depth <= MAX_TEST_DEPTH; ++depth) {
+			final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final MiniMaxPlayer exhaustive = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			final MiniMaxPlayer parallel = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, depth);
+			parallel.setSearchMode(SearchMode.ALPHA_BETA);
+			parallel.setOrderingMoves(true);
+			parallel.setForkJoinPool(pool);
+			parallel.setSplittingReplies(depth % 2 == 0);
+			playAndCompare(exhaustive, parallel, opponentDeck);
+		}
+		pool.shutdown();
+	}
+	
+	@Test
+	public void testGetFirstMoveCutoffRate() {
+		final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final MiniMaxPlayer exhaustive = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, MAX_TEST_DEPTH);
+		final MiniMaxPlayer ordered = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, MAX_TEST_DEPTH);
+		ordered.setSearchMode(SearchMode.ALPHA_BETA);
+		ordered.setOrderingMoves(true);
+		final Board board = new Board();
+		exhaustive.getMove(board, opponentDeck);
+		ordered.getMove(board, opponentDeck);
+		assertThat(exhaustive.getFirstMoveCutoffRate(), equalTo(0.0));
+		assertThat(ordered.getFirstMoveCutoffRate(), greaterThan(0.0));
+		assertThat(ordered.getFirstMoveCutoffRate(), lessThanOrEqualTo(1.0));
+	}
+	
+	@Test
+	public void testGetSearchStatistics() {
+		final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final MiniMaxPlayer player = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, MAX_TEST_DEPTH);
+		player.getMove(new Board(), opponentDeck);
+		final SearchStatistics statistics = player.getSearchStatistics();
+		assertThat(statistics.getNodeCount(), equalTo(player.getNodeCount()));
+		// without pruning or a table, every node is either a leaf, the end of a game, or expanded
+		final long endCount = statistics.getLeafCount() + statistics.getWinCount() + statistics.getLossCount();
+		assertThat(statistics.getNodeCount(), equalTo(endCount + statistics.getExpandedCount() - 1));
+		assertThat(statistics.getBranchingFactor(), greaterThan(1.0));
+		assertThat(statistics.getMaxDepth(), greaterThanOrEqualTo(1));
+		assertThat(statistics.getMaxDepth(), lessThanOrEqualTo(MAX_TEST_DEPTH));
+		assertThat(statistics.getCompletedDepth(), equalTo(MAX_TEST_DEPTH));
+		assertThat(statistics.getBoardCloneCount(), equalTo(1L));
+		assertThat(statistics.getElapsedNanos(), greaterThan(0L));
+		assertThat(statistics.isBookMove(), equalTo(false));
+	}
+	
+	@Test
+	public void testSetSearchListener_Counters() {
+		final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final MiniMaxPlayer first = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE), MAX_TEST_DEPTH);
+		final MiniMaxPlayer second = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, DeckFactory.generateTestDeck(TEST_DECK_SIZE), MAX_TEST_DEPTH);
+		second.setSearchMode(SearchMode.ALPHA_BETA);
+		final SearchCounters counters = new SearchCounters();
+		first.setSearchListener(counters);
+		second.setSearchListener(counters);
+		final Board board = new Board();
+		first.getMove(board, opponentDeck);
+		second.getMove(board, opponentDeck);
+		assertThat(counters.getDecisionCount(), equalTo(2L));
+		assertThat(counters.getNodeCount(), equalTo(first.getNodeCount() + second.getNodeCount()));
+		assertThat(counters.getCutoffCount(), equalTo(second.getSearchStatistics().getCutoffCount()));
+		assertThat(counters.getMaxDepth(), equalTo(Math.max(first.getSearchStatistics().getMaxDepth(), second.getSearchStatistics().getMaxDepth())));
+		
+		first.setSearchListener(null);
+		first.getMove(board, opponentDeck);
+		assertThat(counters.getDecisionCount(), equalTo(2L));
+		counters.reset();
+		assertThat(counters.getNodeCount(), equalTo(0L));
+	}
+	
+	@Test
+	public void testSetTimeBudget_Negative() {
+		final MiniMaxPlayer player = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, new Deck());
+		player.setTimeBudget(-5);
+		assertThat(player.getTimeBudget(), equalTo(0L));
+	}
+	
+	@Test
+	public void testGetMove_TimeBudgetCompletesSmallGame() {
+		final int smallDeckSize = 3;
+		final Deck playerDeck = DeckFactory.generateTestDeck(smallDeckSize);
+		final Deck opponentDeck = DeckFactory.generateTestDeck(smallDeckSize);
+		final MiniMaxPlayer fixedDepth = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, 2 * smallDeckSize + 1);
+		final MiniMaxPlayer timed = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck);
+		timed.setTimeBudget(TEST_LONG_TIME_BUDGET);
+		final Board board = new Board();
+		final Position expectedMove = fixedDepth.getMove(board, opponentDeck);
+		final Position testMove = timed.getMove(board, opponentDeck);
+		// every line of play ends before the decks run out, so deepening stops long before the deadline
+		assertThat(testMove.equals(expectedMove), equalTo(true));
+		assertThat(timed.getCompletedDepth(), lessThanOrEqualTo(2 * smallDeckSize + 1));
+	}
+	
+	@Test
+	public void testGetMove_TimeBudgetRespected() {
+		final Deck playerDeck = DeckFactory.generateTestDeck();
+		final Deck opponentDeck = DeckFactory.generateTestDeck();
+		final MiniMaxPlayer timed = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck);
+		timed.setTimeBudget(TEST_SHORT_TIME_BUDGET);
+		final Board board = new Board(3, 15);
+		final Position testMove = timed.getMove(board, opponentDeck);
+		assertThat(board.isValidMove(PlayerIdentity.LEFT_PLAYER, testMove), equalTo(true));
+		// depth 1 is always completed, but no machine could search every line of a whole game in time
+		assertThat(timed.getCompletedDepth(), greaterThanOrEqualTo(1));
+		assertThat(timed.getCompletedDepth(), lessThan(playerDeck.size() + opponentDeck.size() + 1));
+	}
+	
+	/**
+	 * Plays a game between the given players and an OrderedPlayer, asserting at each turn that
+	 *  the testPlayer picks the same move as the referencePlayer without expanding more nodes.
+	 *  The game is driven by the moves of the testPlayer.
+	 * @param referencePlayer
+	 * @param testPlayer must share the same identity and deck as the referencePlayer
+	 * @param opponentDeck
+	 */
+	private void playAndCompare(MiniMaxPlayer referencePlayer, MiniMaxPlayer testPlayer, Deck opponentDeck) {
+		final Board board = new Board();
+		final PlayerIdentity identity = testPlayer.getIdentity();
+		final OrderedPlayer opponent = new OrderedPlayer(PlayerIdentity.not(identity), opponentDeck);
+		while (board.getWinner() == null && !testPlayer.getDeck().isEmpty()) {
+			final Position expectedMove = referencePlayer.getMove(board, opponentDeck);
+			final Position testMove = testPlayer.getMove(board, opponentDeck);
+			assertThat(testMove.equals(expectedMove), equalTo(true));
+			assertThat(testPlayer.getNodeCount(), lessThanOrEqualTo(referencePlayer.getNodeCount()));
+			
+			board.executeMove(testPlayer.getDeck().pop(), identity, testMove);
+			board.resolveBoardConflicts();
+			board.resolveBoardStalemates();
+			board.resolveBoardSuperStalemate();
+			if (board.getWinner() != null || opponentDeck.isEmpty()) {
+				return;
+			}
+			
+			board.executeMove(opponentDeck.pop(), opponent.getIdentity(), opponent.getMove(board, testPlayer.getDeck()));
+			board.resolveBoardConflicts();
+			board.resolveBoardStalemates();
+			board.resolveBoardSuperStalemate();
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+
+public class OpeningBookTest {
+
+	private static final int TEST_DECK_SIZE = 20;
+	private static final int TEST_BOOK_DEPTH = 3;
+	private static final int TEST_PREFIX_LENGTH = 4;
+	private static final int TEST_PLIES = 4;
+	
+	@Test
+	public void testGetMove_BookMatchesSearch() throws IOException {
+		final Board board = new Board();
+		final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final MiniMaxPlayer searcher = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, TEST_BOOK_DEPTH);
+		final OpeningBook book = generateBook(searcher, opponentDeck, board);
+		assertThat(book.getEntryCount(), greaterThan(1));
+		assertThat(book.getPrefixLength(), equalTo(TEST_PREFIX_LENGTH));
+		assertThat(playerDeck.size(), equalTo(TEST_DECK_SIZE));
+		
+		final MiniMaxPlayer reader = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, TEST_BOOK_DEPTH);
+		reader.setOpeningBook(book);
+		final Position bookMove = reader.getMove(board, opponentDeck);
+		assertThat(reader.getNodeCount(), equalTo(0L));
+		assertThat(bookMove, sameInstance(board.getPosition(bookMove.getRow(), bookMove.getColumn())));
+		final Position searchMove = searcher.getMove(board, opponentDeck);
+		assertThat(searcher.getNodeCount(), greaterThan(0L));
+		assertThat(bookMove.getRow(), equalTo(searchMove.getRow()));
+		assertThat(bookMove.getColumn(), equalTo(searchMove.getColumn()));
+	}
+	
+	@Test
+	public void testGetMove_FallsBackToSearch() throws IOException {
+		final Board board = new Board();
+		final Deck playerDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final Deck opponentDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final MiniMaxPlayer player = new CardCountDisparityPlayer(PlayerIdentity.LEFT_PLAYER, playerDeck, TEST_BOOK_DEPTH);
+		player.setOpeningBook(generateBook(player, opponentDeck, board));
+		
+		// a different deck for the opponent leads to positions which are not in the book
+		final Deck otherDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE - 1);
+		final long key = OpeningBook.getPositionKey(board, PlayerIdentity.LEFT_PLAYER, playerDeck, otherDeck, TEST_PREFIX_LENGTH);
+		assertThat(player.getOpeningBook().probe(key), equalTo(OpeningBook.MISSING));
+		final Position move = player.getMove(board, otherDeck);
+		assertThat(board.isValidMove(PlayerIdentity.LEFT_PLAYER, move), equalTo(true));
+		assertThat(player.getNodeCount(), greaterThan(0L));
+	}
+	
+	@Test(expected = IOException.class)
+	public void testOpen_InvalidFile() throws IOException {
+		final File file = File.createTempFile("book", ".bin");
+		file.deleteOnExit();
+		try (FileOutputStream output = new FileOutputStream(file)) {
+			output.write(new byte[OpeningBook.HEADER_SIZE]);
+		}
+		OpeningBook.open(file);
+	}
+	
+	/**
+	 * Generates a book for a given player and writes it to a temporary file
+	 * @param player
+	 * @param opponentDeck
+	 * @param board
+	 * @return the book, mapped from the file
+	 * @throws IOException
+	 */
+	private OpeningBook generateBook(MiniMaxPlayer player, Deck opponentDeck, Board board) throws IOException {
+		final OpeningBookGenerator generator = new OpeningBookGenerator(TEST_PREFIX_LENGTH, TEST_PLIES);
+		generator.addOpenings(player, opponentDeck, board);
+		final File file = File.createTempFile("book", ".bin");
+		file.deleteOnExit();
+		generator.write(file);
+		return OpeningBook.open(file);
+	}
+
+}
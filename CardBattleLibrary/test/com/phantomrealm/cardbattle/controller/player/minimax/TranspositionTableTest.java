@@ -0,0 +1,83 @@
+package com.phantomrealm.cardbattle.controller.player.minimax;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import org.junit.Test;
+
+public class TranspositionTableTest {
+
+	private static final long TEST_KEY = 0x123456789ABCDEFL;
+	
+	@Test
+	public void testConstructor_Capacity() {
+		assertThat(new TranspositionTable(100, ReplacementPolicy.ALWAYS_REPLACE).getCapacity(), equalTo(128));
+		assertThat(new TranspositionTable(128, ReplacementPolicy.ALWAYS_REPLACE).getCapacity(), equalTo(128));
+		assertThat(new TranspositionTable(0, ReplacementPolicy.ALWAYS_REPLACE).getCapacity(), equalTo(2));
+		assertThat(new TranspositionTable(16, null).getReplacementPolicy(), equalTo(ReplacementPolicy.TWO_TIER));
+	}
+	
+	@Test
+	public void testProbe_Missing() {
+		final TranspositionTable table = new TranspositionTable();
+		assertThat(table.probe(TEST_KEY), equalTo(TranspositionTable.MISSING));
+	}
+	
+	@Test
+	public void testStore_RoundTrip() {
+		final TranspositionTable table = new TranspositionTable();
+		table.store(TEST_KEY, 7, -1, TranspositionTable.UPPER_BOUND, 12);
+		final long entry = table.probe(TEST_KEY);
+		assertThat(TranspositionTable.getDepth(entry), equalTo(7));
+		assertThat(TranspositionTable.getScore(entry), equalTo(-1));
+		assertThat(TranspositionTable.getBound(entry), equalTo(TranspositionTable.UPPER_BOUND));
+		assertThat(TranspositionTable.getMoveRow(entry), equalTo(12));
+		
+		table.store(TEST_KEY, 0, Integer.MAX_VALUE, TranspositionTable.EXACT, -1);
+		final long replaced = table.probe(TEST_KEY);
+		assertThat(TranspositionTable.getScore(replaced), equalTo(Integer.MAX_VALUE));
+		assertThat(TranspositionTable.getMoveRow(replaced), equalTo(-1));
+	}
+	
+	@Test
+	public void testStore_AlwaysReplace() {
+		final TranspositionTable table = new TranspositionTable(2, ReplacementPolicy.ALWAYS_REPLACE);
+		table.store(0, 5, 1, TranspositionTable.EXACT, 0);
+		table.store(2, 1, 2, TranspositionTable.EXACT, 0);
+		assertThat(table.probe(0), equalTo(TranspositionTable.MISSING));
+		assertThat(TranspositionTable.getScore(table.probe(2)), equalTo(2));
+	}
+	
+	@Test
+	public void testStore_DepthPreferred() {
+		final TranspositionTable table = new TranspositionTable(2, ReplacementPolicy.DEPTH_PREFERRED);
+		table.store(0, 5, 1, TranspositionTable.EXACT, 0);
+		table.store(2, 1, 2, TranspositionTable.EXACT, 0);
+		assertThat(TranspositionTable.getScore(table.probe(0)), equalTo(1));
+		assertThat(table.probe(2), equalTo(TranspositionTable.MISSING));
+		table.store(2, 5, 3, TranspositionTable.EXACT, 0);
+		assertThat(table.probe(0), equalTo(TranspositionTable.MISSING));
+		assertThat(TranspositionTable.getScore(table.probe(2)), equalTo(3));
+	}
+	
+	@Test
+	public void testStore_TwoTier() {
+		final TranspositionTable table = new TranspositionTable(2, ReplacementPolicy.TWO_TIER);
+		table.store(0, 5, 1, TranspositionTable.EXACT, 0);
+		table.store(2, 1, 2, TranspositionTable.EXACT, 0);
+		table.store(4, 1, 3, TranspositionTable.EXACT, 0);
+		// the deep entry keeps its slot while shallow entries share the other one
+		assertThat(TranspositionTable.getScore(table.probe(0)), equalTo(1));
+		assertThat(table.probe(2), equalTo(TranspositionTable.MISSING));
+		assertThat(TranspositionTable.getScore(table.probe(4)), equalTo(3));
+	}
+	
+	@Test
+	public void testClear() {
+		final TranspositionTable table = new TranspositionTable();
+		table.store(TEST_KEY, 1, 1, TranspositionTable.EXACT, 0);
+		table.clear();
+		assertThat(table.probe(TEST_KEY), equalTo(TranspositionTable.MISSING));
+	}
+	
+}
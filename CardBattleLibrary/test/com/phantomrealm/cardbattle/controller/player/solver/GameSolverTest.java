@@ -0,0 +1,141 @@
+package com.phantomrealm.cardbattle.controller.player.solver;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import org.junit.Test;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.board.Board;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.AttackType;
+import com.phantomrealm.cardbattle.model.card.BonusEffect;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+
+public class GameSolverTest {
+	
+	private static final int TEST_DECK_SIZE = 4;
+	private static final int TEST_GAMES = 20;
+	private static final int TEST_BOARD_WIDTH = 2;
+	private static final int TEST_BOARD_HEIGHT = 3;
+	
+	@Test
+	public void testGetWinner_MatchesBruteForce() {
+		for (int game = 0; game < TEST_GAMES; ++game) {
+			final Deck leftDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final Deck rightDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final GameSolver solver = new GameSolver(leftDeck, rightDeck);
+			final Board board = new Board(TEST_BOARD_WIDTH, TEST_BOARD_HEIGHT);
+			final PlayerIdentity expectedWinner = solveByBruteForce(board, PlayerIdentity.LEFT_PLAYER, leftDeck.clone(), rightDeck.clone());
+			assertThat(solver.getWinner(board, PlayerIdentity.LEFT_PLAYER, TEST_DECK_SIZE, TEST_DECK_SIZE), equalTo(expectedWinner));
+		}
+	}
+	
+	@Test
+	public void testGetWinner_RowOrderIgnored() {
+		final Deck leftDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final Deck rightDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+		final GameSolver solver = new GameSolver(leftDeck, rightDeck);
+		final Board topBoard = new Board(TEST_BOARD_WIDTH, TEST_BOARD_HEIGHT);
+		final Board bottomBoard = new Board(TEST_BOARD_WIDTH, TEST_BOARD_HEIGHT);
+		topBoard.executeMove(leftDeck.peek(), PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		bottomBoard.executeMove(leftDeck.peek(), PlayerIdentity.LEFT_PLAYER, new Position(TEST_BOARD_HEIGHT - 1, 0));
+		final PlayerIdentity winner = solver.getWinner(topBoard, PlayerIdentity.RIGHT_PLAYER, TEST_DECK_SIZE - 1, TEST_DECK_SIZE);
+		final int solvedCount = solver.getSolvedCount();
+		// the second board is the first with its rows swapped, so it has already been solved
+		assertThat(solver.getWinner(bottomBoard, PlayerIdentity.RIGHT_PLAYER, TEST_DECK_SIZE - 1, TEST_DECK_SIZE), equalTo(winner));
+		assertThat(solver.getSolvedCount(), equalTo(solvedCount));
+	}
+	
+	@Test
+	public void testGetMove_SolverPlayersReachSolvedOutcome() {
+		for (int game = 0; game < TEST_GAMES; ++game) {
+			final Deck leftDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final Deck rightDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+			final GameSolver solver = new GameSolver(leftDeck, rightDeck);
+			final Board board = new Board(TEST_BOARD_WIDTH, TEST_BOARD_HEIGHT);
+			final PlayerIdentity expectedWinner = solver.getWinner(board, PlayerIdentity.LEFT_PLAYER, TEST_DECK_SIZE, TEST_DECK_SIZE);
+			final SolverPlayer leftPlayer = new SolverPlayer(PlayerIdentity.LEFT_PLAYER, leftDeck, solver);
+			final SolverPlayer rightPlayer = new SolverPlayer(PlayerIdentity.RIGHT_PLAYER, rightDeck);
+			assertThat(playGame(board, leftPlayer, rightPlayer), equalTo(expectedWinner));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetWinner_BoardTooWide() {
+		final GameSolver solver = new GameSolver(new Deck(), new Deck());
+		solver.getWinner(new Board(9, 1), PlayerIdentity.LEFT_PLAYER, 0, 0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetWinner_LevelingCardOnBoard() {
+		final GameSolver solver = new GameSolver(DeckFactory.generateTestDeck(TEST_DECK_SIZE), DeckFactory.generateTestDeck(TEST_DECK_SIZE));
+		final Board board = new Board(TEST_BOARD_WIDTH, TEST_BOARD_HEIGHT);
+		// played before the solver took over, so it was never in the decks of the solver
+		board.executeMove(new Card("level", BonusEffect.FULL_LEVEL_UP, AttackType.PHYSICAL, 2, 2, 2), PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		solver.getWinner(board, PlayerIdentity.RIGHT_PLAYER, TEST_DECK_SIZE, TEST_DECK_SIZE);
+	}
+	
+	/**
+	 * Plays a game to the end between two players, starting with the left player
+	 * @param board
+	 * @param leftPlayer
+	 * @param rightPlayer
+	 * @return the winner of the game
+	 */
+	private PlayerIdentity playGame(Board board, SolverPlayer leftPlayer, SolverPlayer rightPlayer) {
+		SolverPlayer player = leftPlayer;
+		SolverPlayer opponent = rightPlayer;
+		while (true) {
+			final Position move = player.getMove(board, opponent.getDeck());
+			assertThat(board.isValidMove(player.getIdentity(), move), equalTo(true));
+			board.executeMove(player.getDeck().pop(), player.getIdentity(), move);
+			board.resolveBoardConflicts();
+			board.resolveBoardStalemates();
+			board.resolveBoardSuperStalemate();
+			final PlayerIdentity winner = board.getWinner();
+			if (winner != null) {
+				return winner;
+			} else if (opponent.getDeck().isEmpty()) {
+				return player.getIdentity();
+			}
+			final SolverPlayer nextPlayer = opponent;
+			opponent = player;
+			player = nextPlayer;
+		}
+	}
+	
+	/**
+	 * Finds the winner of a position by trying every line of play, without remembering positions
+	 * @param board is not modified
+	 * @param nextPlayer
+	 * @param leftDeck is not modified
+	 * @param rightDeck is not modified
+	 * @return
+	 */
+	private PlayerIdentity solveByBruteForce(Board board, PlayerIdentity nextPlayer, Deck leftDeck, Deck rightDeck) {
+		final PlayerIdentity opponent = PlayerIdentity.not(nextPlayer);
+		for (Position move : board.getPossibleMoves(nextPlayer)) {
+			final Board newBoard = board.clone();
+			final Deck newLeftDeck = leftDeck.clone();
+			final Deck newRightDeck = rightDeck.clone();
+			final Deck deck = nextPlayer == PlayerIdentity.LEFT_PLAYER ? newLeftDeck : newRightDeck;
+			final Deck opponentDeck = nextPlayer == PlayerIdentity.LEFT_PLAYER ? newRightDeck : newLeftDeck;
+			newBoard.executeMove(deck.pop(), nextPlayer, move);
+			newBoard.resolveBoardConflicts();
+			newBoard.resolveBoardStalemates();
+			newBoard.resolveBoardSuperStalemate();
+			PlayerIdentity winner = newBoard.getWinner();
+			if (winner == null) {
+				winner = opponentDeck.isEmpty() ? nextPlayer : solveByBruteForce(newBoard, opponent, newLeftDeck, newRightDeck);
+			}
+			if (winner == nextPlayer) {
+				return nextPlayer;
+			}
+		}
+		return opponent;
+	}
+	
+}
@@ -0,0 +1,136 @@
+package com.phantomrealm.cardbattle.controller.tournament;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.phantomrealm.cardbattle.controller.game.GameControllerListener;
+import com.phantomrealm.cardbattle.controller.player.Player;
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.controller.player.algorithmic.OrderedPlayer;
+import com.phantomrealm.cardbattle.controller.player.algorithmic.RandomPlayer;
+import com.phantomrealm.cardbattle.model.board.Position;
+import com.phantomrealm.cardbattle.model.card.AttackType;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+
+public class TournamentTest {
+	
+	private static final int TEST_DECK_SIZE = 20;
+	private static final int TEST_GAMES_PER_PAIRING = 40;
+	private static final int TEST_THREAD_COUNT = 2;
+	private static final long TEST_SEED = 42;
+	
+	@Test
+	public void testRun_CountsEveryGame() {
+		final Tournament tournament = createBuilder().addBoardSize(3, 3).addBoardSize(5, 3).build();
+		assertThat(tournament.isThroughputMode(), equalTo(true));
+		assertThat(tournament.getGameCount(), equalTo(6L * 2 * TEST_GAMES_PER_PAIRING));
+		
+		final TournamentResults results = tournament.run();
+		assertThat(results.getGameCount(), equalTo(tournament.getGameCount()));
+		assertThat(results.getPairingResults().size(), equalTo(6));
+		for (PairingResult pairing : results.getPairingResults()) {
+			assertThat(pairing.getGameCount(), equalTo(2L * TEST_GAMES_PER_PAIRING));
+			assertThat(pairing.getDrawCount(), equalTo(0L));
+		}
+		
+		// each game is won by one entrant and lost by another
+		long winCount = 0;
+		long lossCount = 0;
+		for (String entrant : results.getEntrants()) {
+			assertThat(results.getWinCount(entrant) + results.getLossCount(entrant), equalTo(4L * 2 * TEST_GAMES_PER_PAIRING));
+			winCount += results.getWinCount(entrant);
+			lossCount += results.getLossCount(entrant);
+		}
+		assertThat(winCount, equalTo(results.getGameCount()));
+		assertThat(lossCount, equalTo(results.getGameCount()));
+		assertThat(results.getGamesPerSecond(), greaterThan(0.0));
+	}
+	
+	@Test
+	public void testRun_MaxRoundsDraws() {
+		final TournamentResults results = createBuilder().setMaxRounds(1).build().run();
+		final PairingResult pairing = results.getPairingResult("ordered", "random");
+		assertThat(pairing.getDrawCount(), equalTo((long) TEST_GAMES_PER_PAIRING));
+		assertThat(results.getDrawCount("random"), equalTo(4L * TEST_GAMES_PER_PAIRING));
+		assertThat(results.getWinCount("random"), equalTo(0L));
+	}
+	
+	@Test
+	public void testRun_Listener() {
+		final AtomicInteger moveCount = new AtomicInteger();
+		final Tournament tournament = createBuilder().setMaxRounds(2).setGameControllerListener(new GameControllerListener() {
+			@Override
+			public void onCardMoved(PlayerIdentity player, Position move) {
+				moveCount.incrementAndGet();
+			}
+			
+			@Override
+			public void onCardDefeated(Position position, AttackType enemyAttackType) {
+			}
+		}).build();
+		assertThat(tournament.isThroughputMode(), equalTo(false));
+		tournament.run();
+		assertThat(moveCount.get(), equalTo(2 * (int) tournament.getGameCount()));
+	}
+	
+	@Test
+	public void testRun_SameSeed() {
+		final TournamentResults results = createBuilder().setSeed(TEST_SEED).build().run();
+		final TournamentResults otherResults = createBuilder().setSeed(TEST_SEED).setForkJoinPool(new ForkJoinPool(1)).build().run();
+		for (PairingResult pairing : results.getPairingResults()) {
+			final PairingResult otherPairing = otherResults.getPairingResult(pairing.getLeftEntrant(), pairing.getRightEntrant());
+			assertThat(otherPairing.getLeftWinCount(), equalTo(pairing.getLeftWinCount()));
+			assertThat(otherPairing.getRightWinCount(), equalTo(pairing.getRightWinCount()));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuild_DuplicateEntrant() {
+		createBuilder().addEntrant("random", createRandomFactory());
+	}
+	
+	/**
+	 * Creates a builder for a tournament between a random, an ordered and a second random player
+	 * @return
+	 */
+	private static Tournament.Builder createBuilder() {
+		return new Tournament.Builder()
+				.addEntrant("random", createRandomFactory())
+				.addEntrant("ordered", new PlayerFactory() {
+					@Override
+					public Player createPlayer(PlayerIdentity identity, Deck deck) {
+						return new OrderedPlayer(identity, deck);
+					}
+				})
+				.addEntrant("random2", createRandomFactory())
+				.setDeckGenerator(new DeckGenerator() {
+					@Override
+					public Deck generateDeck() {
+						return DeckFactory.generateTestDeck(TEST_DECK_SIZE);
+					}
+				})
+				.setGamesPerPairing(TEST_GAMES_PER_PAIRING)
+				.setForkJoinPool(new ForkJoinPool(TEST_THREAD_COUNT));
+	}
+	
+	/**
+	 * Creates a factory for RandomPlayers
+	 * @return
+	 */
+	private static PlayerFactory createRandomFactory() {
+		return new PlayerFactory() {
+			@Override
+			public Player createPlayer(PlayerIdentity identity, Deck deck) {
+				return new RandomPlayer(identity, deck);
+			}
+		};
+	}
+
+}
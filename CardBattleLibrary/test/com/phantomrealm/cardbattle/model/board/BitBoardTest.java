@@ -0,0 +1,145 @@
+package com.phantomrealm.cardbattle.model.board;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
+import com.phantomrealm.cardbattle.model.card.AttackType;
+import com.phantomrealm.cardbattle.model.card.BonusEffect;
+import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.model.deck.Deck;
+import com.phantomrealm.cardbattle.model.deck.DeckFactory;
+
+public class BitBoardTest {
+
+	private static final int TEST_GAMES = 50;
+	private static final long TEST_SEED = 12345L;
+	private static final int[][] TEST_SIZES = { { 3, 3 }, { 4, 7 }, { 15, 3 }, { 8, 8 }, { 64, 1 }, { 2, 32 } };
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_TooManySlots() {
+		new BitBoard(9, 8);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testFromBoard_BonusEffect() {
+		final Board board = new Board(3, 1);
+		board.executeMove(new Card("duplicate", BonusEffect.DUPLICATE, AttackType.PHYSICAL, 5, 5, 5), PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		BitBoard.fromBoard(board);
+	}
+	
+	@Test
+	public void testFromBoard_RoundTrip() {
+		final Board board = new Board(4, 3);
+		final Deck deck = DeckFactory.generateTestDeck(3);
+		board.executeMove(deck.pop(), PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		board.executeMove(deck.pop(), PlayerIdentity.RIGHT_PLAYER, new Position(0, 3));
+		board.executeMove(deck.pop(), PlayerIdentity.RIGHT_PLAYER, new Position(2, 3));
+		final BitBoard bitBoard = BitBoard.fromBoard(board);
+		assertThat(bitBoard.getCardCount(PlayerIdentity.LEFT_PLAYER), equalTo(1));
+		assertThat(bitBoard.getCardCount(PlayerIdentity.RIGHT_PLAYER), equalTo(2));
+		assertThat(bitBoard.getCard(0, 3), equalTo(board.getBoardSlot(0, 3).getCard()));
+		assertSameState(board, bitBoard);
+		assertSameState(bitBoard.toBoard(), bitBoard);
+	}
+	
+	@Test
+	public void testGetPossibleMoves_MatchesBoard() {
+		final Board board = new Board(5, 2);
+		final Card card = DeckFactory.generateTestDeck(1).pop();
+		board.executeMove(card, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		board.executeMove(card, PlayerIdentity.LEFT_PLAYER, new Position(0, 1));
+		board.executeMove(card, PlayerIdentity.RIGHT_PLAYER, new Position(1, 4));
+		final BitBoard bitBoard = BitBoard.fromBoard(board);
+		for (PlayerIdentity player : PlayerIdentity.values()) {
+			assertSameMoves(board.getPossibleMoves(player), bitBoard.getPossibleMoves(player));
+		}
+		assertThat(bitBoard.isValidMove(PlayerIdentity.LEFT_PLAYER, new Position(0, 2)), equalTo(true));
+		assertThat(bitBoard.isValidMove(PlayerIdentity.LEFT_PLAYER, new Position(0, 3)), equalTo(false));
+		assertThat(bitBoard.isValidMove(PlayerIdentity.RIGHT_PLAYER, new Position(1, 3)), equalTo(true));
+	}
+	
+	@Test
+	public void testPlayedGames_MatchBoard() {
+		final Random random = new Random(TEST_SEED);
+		for (int[] size : TEST_SIZES) {
+			for (int game = 0; game < TEST_GAMES; ++game) {
+				playAndCompare(new Board(size[0], size[1]), random);
+			}
+		}
+	}
+	
+	/**
+	 * Plays random moves on a Board and a BitBoard side by side until the game ends, asserting
+	 *  that both boards stay in the same state
+	 * @param board
+	 * @param random
+	 */
+	private void playAndCompare(Board board, Random random) {
+		final BitBoard bitBoard = BitBoard.fromBoard(board);
+		final Deck leftDeck = DeckFactory.generateTestDeck(board.getWidth() * board.getHeight() * 2);
+		final Deck rightDeck = DeckFactory.generateTestDeck(board.getWidth() * board.getHeight() * 2);
+		PlayerIdentity player = PlayerIdentity.LEFT_PLAYER;
+		while (!leftDeck.isEmpty() && !rightDeck.isEmpty()) {
+			final List<Position> moves = board.getPossibleMoves(player);
+			assertSameMoves(moves, bitBoard.getPossibleMoves(player));
+			final Position move = moves.get(random.nextInt(moves.size()));
+			final Card card = (player == PlayerIdentity.LEFT_PLAYER ? leftDeck : rightDeck).pop();
+			board.executeMove(card, player, move);
+			bitBoard.executeMove(card, player, move);
+			board.resolveBoardConflicts();
+			bitBoard.resolveBoardConflicts();
+			assertSameState(board, bitBoard);
+			board.resolveBoardStalemates();
+			bitBoard.resolveBoardStalemates();
+			assertSameState(board, bitBoard);
+			final PlayerIdentity winner = board.getWinner();
+			assertThat(bitBoard.getWinner(), equalTo(winner));
+			board.resolveBoardSuperStalemate();
+			bitBoard.resolveBoardSuperStalemate();
+			assertSameState(board, bitBoard);
+			if (winner != null) {
+				return;
+			}
+			player = PlayerIdentity.not(player);
+		}
+	}
+	
+	/**
+	 * Asserts that a Board and a BitBoard hold the same cards with the same owners
+	 * @param board
+	 * @param bitBoard
+	 */
+	private void assertSameState(Board board, BitBoard bitBoard) {
+		assertThat(bitBoard.getWidth(), equalTo(board.getWidth()));
+		assertThat(bitBoard.getHeight(), equalTo(board.getHeight()));
+		for (int row = 0; row < board.getHeight(); ++row) {
+			for (int col = 0; col < board.getWidth(); ++col) {
+				final BoardSlot boardSlot = board.getBoardSlot(row, col);
+				assertThat(bitBoard.getOwner(row, col), equalTo(boardSlot.getOwner()));
+				final Card card = bitBoard.getCard(row, col);
+				assertThat(card == null ? boardSlot.getCard() == null : card.equalTo(boardSlot.getCard()), equalTo(true));
+			}
+		}
+		assertThat(bitBoard.isFull(), equalTo(board.isFull()));
+	}
+	
+	/**
+	 * Asserts that two lists of moves hold the same shared positions in the same order
+	 * @param expected
+	 * @param actual
+	 */
+	private void assertSameMoves(List<Position> expected, List<Position> actual) {
+		assertThat(actual.size(), equalTo(expected.size()));
+		for (int i = 0; i < expected.size(); ++i) {
+			assertThat(actual.get(i), sameInstance(expected.get(i)));
+		}
+	}
+
+}
@@ -2,19 +2,23 @@ package com.phantomrealm.cardbattle.model.board;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
 
+import com.phantomrealm.cardbattle.controller.game.EmptyGameControllerListener;
 import com.phantomrealm.cardbattle.controller.player.PlayerIdentity;
 import com.phantomrealm.cardbattle.model.card.AttackType;
 import com.phantomrealm.cardbattle.model.card.BonusEffect;
 import com.phantomrealm.cardbattle.model.card.Card;
 
 public class BoardTest {
-
+	
 	private static final int DEFAULT_BOARD_WIDTH = 3;
 	private static final int DEFAULT_BOARD_HEIGHT = 3;
 	private static final int MIN_BOARD_WIDTH = 2;
@@ -59,6 +63,29 @@ public class BoardTest {
 		}
 	}
 	
+	@Test
+	public void testClone_SharesCards() {
+		final Board board = new Board();
+		final Card leftCard = createTestCard();
+		board.executeMove(leftCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		final Board clone = board.clone();
+		assertThat(clone.getBoardSlot(0, 0).getCard(), sameInstance(leftCard));
+		assertThat(clone.getHash(), equalTo(board.getHash()));
+		assertThat(clone.getCardCount(PlayerIdentity.LEFT_PLAYER), equalTo(1));
+		
+		// both boards play with the stats the card had when it was placed
+		leftCard.setDefense(0);
+		final Card rightCard = createTestCard();
+		rightCard.setAttack(1);
+		clone.executeMove(rightCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		clone.resolveBoardConflicts();
+		assertThat(clone.getBoardSlot(0, 0).getCard(), sameInstance(leftCard));
+		assertThat(clone.getBoardSlot(0, 1).getCard(), nullValue());
+		assertThat(clone.getDefense(0, 0), equalTo(board.getDefense(0, 0)));
+		assertThat(board.getBoardSlot(0, 1).getCard(), nullValue());
+		assertCountsMatchSlots(clone);
+	}
+	
 	@Test
 	public void testGetPosition_Valid() {
 		final Board testBoard = createTestBoard();
@@ -79,6 +106,15 @@ public class BoardTest {
 		assertThat(testBoard.getPosition(testSlot), nullValue());
 	}
 	
+	@Test
+	public void testGetPosition_SlotOfOtherBoard() {
+		final Board testBoard = createTestBoard();
+		final Board otherBoard = testBoard.clone();
+		assertThat(testBoard.getPosition(otherBoard.getBoardSlot(1, 1)), nullValue());
+		assertThat(otherBoard.getPosition(otherBoard.getBoardSlot(1, 1)).equals(new Position(1, 1)), equalTo(true));
+		assertThat(testBoard.getPosition(testBoard.getBoardSlot(0, 0).clone()), nullValue());
+	}
+	
 	@Test
 	public void testIsFull_NotFull() {
 		final Board testBoard = createTestBoard();
@@ -99,6 +135,48 @@ public class BoardTest {
 		assertThat(testBoard.isFull(), equalTo(true));
 	}
 	
+	@Test
+	public void testGetCardCount_DirectSlotChanges() {
+		final Board testBoard = new Board();
+		final Card testCard = createTestCard();
+		testBoard.getBoardSlot(0, 0).setSlotOwner(PlayerIdentity.RIGHT_PLAYER);
+		testBoard.getBoardSlot(0, 2).setSlotOwner(PlayerIdentity.LEFT_PLAYER);
+		testBoard.getBoardSlot(1, 2).setCard(testCard);
+		testBoard.getBoardSlot(1, 2).setSlotOwner(PlayerIdentity.LEFT_PLAYER);
+		testBoard.getBoardSlot(1, 2).setSlotOwner(PlayerIdentity.LEFT_PLAYER);
+		assertThat(testBoard.getOccupiedCount(), equalTo(3));
+		assertThat(testBoard.getCardCount(PlayerIdentity.LEFT_PLAYER), equalTo(2));
+		assertThat(testBoard.getCardCount(PlayerIdentity.RIGHT_PLAYER), equalTo(1));
+		// the right player owning the leftmost slot takes precedence
+		assertThat(testBoard.getRowController(0), equalTo(PlayerIdentity.RIGHT_PLAYER));
+		assertThat(testBoard.getRowController(1), equalTo(PlayerIdentity.LEFT_PLAYER));
+		assertThat(testBoard.getRowController(2), nullValue());
+		assertThat(testBoard.getControlledRowCount(PlayerIdentity.LEFT_PLAYER), equalTo(1));
+		assertThat(testBoard.getControlledRowCount(PlayerIdentity.RIGHT_PLAYER), equalTo(1));
+		
+		testBoard.getBoardSlot(0, 0).setSlotOwner(null);
+		assertThat(testBoard.getRowController(0), equalTo(PlayerIdentity.LEFT_PLAYER));
+		assertThat(testBoard.getControlledRowCount(PlayerIdentity.LEFT_PLAYER), equalTo(2));
+		assertThat(testBoard.getControlledRowCount(PlayerIdentity.RIGHT_PLAYER), equalTo(0));
+		assertThat(testBoard.getOccupiedCount(), equalTo(2));
+	}
+	
+	@Test
+	public void testGetCardCount_MovesAndUndo() {
+		final Board testBoard = new Board(4, 3);
+		final Card strongCard = new Card("strong", null, AttackType.PHYSICAL, 9, 9, 9);
+		final Card weakCard = new Card("weak", null, AttackType.PHYSICAL, 0, 0, 0);
+		final int firstMarker = testBoard.applyMove(weakCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		testBoard.applyMove(strongCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 3));
+		testBoard.applyMove(strongCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 2));
+		testBoard.applyMove(weakCard, PlayerIdentity.LEFT_PLAYER, new Position(1, 0));
+		assertCountsMatchSlots(testBoard);
+		testBoard.undoMove(firstMarker);
+		assertCountsMatchSlots(testBoard);
+		assertThat(testBoard.getOccupiedCount(), equalTo(0));
+		assertCountsMatchSlots(testBoard.clone());
+	}
+	
 	@Test
 	public void testExecuteMove_NullMove() {
 		final Board testBoard = createTestBoard();
@@ -130,6 +208,107 @@ public class BoardTest {
 		assertThat(testBoard.getBoardSlot(testRow, testCol).getCard(), equalTo(testCard));
 	}
 	
+	@Test
+	public void testGetHash_EmptyBoard() {
+		final Board testBoard = new Board();
+		assertThat(testBoard.getHash(), equalTo(0L));
+	}
+	
+	@Test
+	public void testGetHash_MoveOrderIndependent() {
+		final Board firstBoard = new Board();
+		final Board secondBoard = new Board();
+		final Card leftCard = createTestCard();
+		final Card rightCard = createTestCard();
+		rightCard.setAttack(1);
+		firstBoard.executeMove(leftCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		firstBoard.executeMove(rightCard, PlayerIdentity.RIGHT_PLAYER, new Position(2, 2));
+		secondBoard.executeMove(rightCard, PlayerIdentity.RIGHT_PLAYER, new Position(2, 2));
+		secondBoard.executeMove(leftCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		assertThat(firstBoard.getHash(), equalTo(secondBoard.getHash()));
+		assertThat(firstBoard.clone().getHash(), equalTo(firstBoard.getHash()));
+	}
+	
+	@Test
+	public void testGetHash_DistinguishesOwnerAndCard() {
+		final Board leftBoard = new Board();
+		final Board rightBoard = new Board();
+		final Board weakBoard = new Board();
+		final Card weakCard = createTestCard();
+		weakCard.setDefense(0);
+		leftBoard.executeMove(createTestCard(), PlayerIdentity.LEFT_PLAYER, new Position(1, 1));
+		rightBoard.executeMove(createTestCard(), PlayerIdentity.RIGHT_PLAYER, new Position(1, 1));
+		weakBoard.executeMove(weakCard, PlayerIdentity.LEFT_PLAYER, new Position(1, 1));
+		assertThat(leftBoard.getHash() == rightBoard.getHash(), equalTo(false));
+		assertThat(leftBoard.getHash() == weakBoard.getHash(), equalTo(false));
+		// the board keys its slots by packed card, which gives the same key as the card itself
+		assertThat(leftBoard.getHash(), equalTo(ZobristHash.getSlotKey(1, 1, PlayerIdentity.LEFT_PLAYER, createTestCard())));
+	}
+	
+	@Test
+	public void testGetHash_ConflictResolution() {
+		final Board testBoard = new Board();
+		final Card weakCard = createTestCard();
+		weakCard.setAttack(1);
+		weakCard.setDefense(0);
+		testBoard.executeMove(createTestCard(), PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		final long expectedHash = testBoard.getHash();
+		testBoard.executeMove(weakCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		testBoard.resolveBoardConflicts();
+		// the right card is defeated, leaving the same board as before it was played
+		assertThat(testBoard.getBoardSlot(0, 1).getOwner(), nullValue());
+		assertThat(testBoard.getHash(), equalTo(expectedHash));
+	}
+	
+	@Test
+	public void testUndoMove_SingleMove() {
+		final Board testBoard = createTestBoard();
+		final long expectedHash = testBoard.getHash();
+		final int undoMarker = testBoard.applyMove(createTestCard(), PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		assertThat(testBoard.getBoardSlot(0, 1).getOwner(), equalTo(PlayerIdentity.RIGHT_PLAYER));
+		testBoard.undoMove(undoMarker);
+		assertThat(testBoard.getBoardSlot(0, 1).getCard(), nullValue());
+		assertThat(testBoard.getBoardSlot(0, 1).getOwner(), nullValue());
+		assertThat(testBoard.getBoardSlot(1, 0).getOwner(), equalTo(PlayerIdentity.LEFT_PLAYER));
+		assertThat(testBoard.getHash(), equalTo(expectedHash));
+	}
+	
+	@Test
+	public void testUndoMove_ConflictResolution() {
+		final Board testBoard = new Board();
+		final Card leftCard = createTestCard();
+		final Card strongCard = createTestCard();
+		strongCard.setAttack(10);
+		testBoard.executeMove(leftCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		final long expectedHash = testBoard.getHash();
+		final int undoMarker = testBoard.applyMove(strongCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		// the left card is defeated when the move is applied, and restored when it is undone
+		assertThat(testBoard.getBoardSlot(0, 0).getCard(), nullValue());
+		testBoard.undoMove(undoMarker);
+		assertThat(testBoard.getBoardSlot(0, 0).getCard(), equalTo(leftCard));
+		assertThat(testBoard.getBoardSlot(0, 0).getOwner(), equalTo(PlayerIdentity.LEFT_PLAYER));
+		assertThat(testBoard.getBoardSlot(0, 1).getCard(), nullValue());
+		assertThat(testBoard.getHash(), equalTo(expectedHash));
+	}
+	
+	@Test
+	public void testUndoMove_NestedMoves() {
+		final Board testBoard = new Board();
+		final Card leftCard = createTestCard();
+		final Card rightCard = createTestCard();
+		rightCard.setAttack(1);
+		final int firstMarker = testBoard.applyMove(leftCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		final long firstHash = testBoard.getHash();
+		final int secondMarker = testBoard.applyMove(rightCard, PlayerIdentity.RIGHT_PLAYER, new Position(2, 2));
+		testBoard.undoMove(secondMarker);
+		assertThat(testBoard.getBoardSlot(2, 2).getCard(), nullValue());
+		assertThat(testBoard.getBoardSlot(0, 0).getCard(), equalTo(leftCard));
+		assertThat(testBoard.getHash(), equalTo(firstHash));
+		testBoard.undoMove(firstMarker);
+		assertThat(testBoard.getBoardSlot(0, 0).getCard(), nullValue());
+		assertThat(testBoard.getHash(), equalTo(0L));
+	}
+	
 	@Test
 	public void testResolveBoardConflicts_NoConflicts() {
 		final Board testBoard = createTestBoard();
@@ -221,6 +400,116 @@ public class BoardTest {
 		assertThat(testRightSlot.getCard().equalTo(testCard), equalTo(true));
 	}
 	
+	@Test
+	public void testResolveBoardConflicts_FirstConflictPerCall() {
+		final Board testBoard = new Board(4, 2);
+		final Card strongCard = new Card("strong", null, AttackType.PHYSICAL, 9, 9, 9);
+		final Card weakCard = new Card("weak", null, AttackType.PHYSICAL, 0, 0, 0);
+		final Card[] testCards = { strongCard, weakCard, weakCard, strongCard };
+		for (int col = 0; col < testCards.length; ++col) {
+			testBoard.getBoardSlot(1, col).setCard(testCards[col]);
+			testBoard.getBoardSlot(1, col).setSlotOwner(col % 2 == 0 ? PlayerIdentity.LEFT_PLAYER : PlayerIdentity.RIGHT_PLAYER);
+		}
+		final List<Position> defeated = new ArrayList<Position>();
+		testBoard.setGameControllerListener(new EmptyGameControllerListener() {
+			@Override
+			public void onCardDefeated(Position position, AttackType enemyAttackType) {
+				defeated.add(position);
+			}
+		});
+		// each call settles the first conflict of a row, even when the row was not changed since
+		testBoard.resolveBoardConflicts();
+		assertThat(defeated.size(), equalTo(1));
+		assertThat(defeated.get(0).equals(new Position(1, 1)), equalTo(true));
+		testBoard.resolveBoardConflicts();
+		assertThat(defeated.size(), equalTo(2));
+		assertThat(defeated.get(1).equals(new Position(1, 2)), equalTo(true));
+		testBoard.resolveBoardConflicts();
+		assertThat(defeated.size(), equalTo(2));
+	}
+	
+	@Test
+	public void testResolveBoardConflicts_Duplicate() {
+		final Board testBoard = new Board(4, 1);
+		final Card duplicateCard = new Card("duplicate", BonusEffect.DUPLICATE, AttackType.PHYSICAL, 5, 5, 5);
+		final Card weakCard = new Card("weak", null, AttackType.PHYSICAL, 0, 0, 0);
+		testBoard.applyMove(duplicateCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		final int undoMarker = testBoard.applyMove(weakCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 3));
+		final long hash = testBoard.getHash();
+		testBoard.applyMove(weakCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		// the winner takes the slot of the fallen foe
+		assertThat(testBoard.getBoardSlot(0, 1).getOwner(), equalTo(PlayerIdentity.LEFT_PLAYER));
+		assertThat(testBoard.getBoardSlot(0, 1).getCard().equalTo(duplicateCard), equalTo(true));
+		assertThat(testBoard.getBoardSlot(0, 1).getCard(), not(sameInstance(duplicateCard)));
+		testBoard.undoMove(undoMarker);
+		testBoard.undoMove(undoMarker);
+		assertThat(testBoard.getBoardSlot(0, 1).getOwner(), nullValue());
+		assertThat(testBoard.getOccupiedCount(), equalTo(1));
+		testBoard.applyMove(weakCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 3));
+		assertThat(testBoard.getHash(), equalTo(hash));
+	}
+	
+	@Test
+	public void testResolveBoardConflicts_LevelUp() {
+		final Board testBoard = new Board(4, 1);
+		final Card levelCard = new Card("level", BonusEffect.FULL_LEVEL_UP, AttackType.PHYSICAL, 2, 2, 2);
+		final Card weakCard = new Card("weak", null, AttackType.PHYSICAL, 0, 0, 0);
+		testBoard.applyMove(levelCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		final long hash = testBoard.getHash();
+		final int undoMarker = testBoard.applyMove(weakCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		assertThat(testBoard.getAttack(0, 0), equalTo(3));
+		assertThat(testBoard.getDefense(0, 0), equalTo(3));
+		assertThat(testBoard.getResistance(0, 0), equalTo(3));
+		// the card itself is never changed
+		assertThat(levelCard.getAttack(), equalTo(2));
+		assertThat(testBoard.getHash() == hash, equalTo(false));
+		testBoard.undoMove(undoMarker);
+		assertThat(testBoard.getAttack(0, 0), equalTo(2));
+		assertThat(testBoard.getHash(), equalTo(hash));
+		// the level is dropped along with the card once it leaves the slot
+		testBoard.applyMove(weakCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		testBoard.getBoardSlot(0, 0).setCard(weakCard);
+		assertThat(testBoard.getAttack(0, 0), equalTo(0));
+	}
+	
+	@Test
+	public void testResolveBoardConflicts_LevelDownStopsAtZero() {
+		final Board testBoard = new Board(3, 1);
+		final Card levelCard = new Card("level", BonusEffect.ATTACK_LEVEL_DOWN, AttackType.PHYSICAL, 1, 0, 5);
+		final Card weakCard = new Card("weak", null, AttackType.PHYSICAL, 0, 0, 0);
+		testBoard.applyMove(levelCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		testBoard.applyMove(weakCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		assertThat(testBoard.getAttack(0, 0), equalTo(0));
+		// with no attack left, the card can no longer win
+		testBoard.applyMove(weakCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		assertThat(testBoard.getAttack(0, 0), equalTo(0));
+		assertThat(testBoard.getBoardSlot(0, 1).getOwner(), equalTo(PlayerIdentity.RIGHT_PLAYER));
+	}
+	
+	@Test
+	public void testResolveBoardConflicts_Kamikaze() {
+		final Board testBoard = new Board(2, 1);
+		final Card kamikazeCard = new Card("kamikaze", BonusEffect.KAMIKAZE, AttackType.PHYSICAL, 5, 5, 5);
+		final Card weakCard = new Card("weak", null, AttackType.PHYSICAL, 0, 0, 0);
+		testBoard.applyMove(kamikazeCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		testBoard.applyMove(weakCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		assertThat(testBoard.getOccupiedCount(), equalTo(0));
+	}
+	
+	@Test
+	public void testResolveBoardConflicts_SelfDestruct() {
+		final Board testBoard = new Board(2, 1);
+		final Card selfDestructCard = new Card("self destruct", BonusEffect.SELF_DESTRUCT, AttackType.PHYSICAL, 0, 0, 0);
+		final Card strongCard = new Card("strong", null, AttackType.PHYSICAL, 5, 5, 5);
+		testBoard.applyMove(strongCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		testBoard.applyMove(selfDestructCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		assertThat(testBoard.getOccupiedCount(), equalTo(0));
+		// winning does not set it off
+		testBoard.applyMove(selfDestructCard, PlayerIdentity.LEFT_PLAYER, new Position(0, 0));
+		testBoard.applyMove(strongCard, PlayerIdentity.RIGHT_PLAYER, new Position(0, 1));
+		assertThat(testBoard.getOccupiedCount(), equalTo(0));
+	}
+	
 	@Test
 	public void testResolveBoardStalemates_NoStalemates() {
 		final Board testBoard = createTestBoard();
@@ -329,6 +618,33 @@ public class BoardTest {
 		assertThat(testBoard.getWinner(), nullValue());
 	}
 	
+	@Test
+	public void testGetWinner_SuperStalemate() {
+		final Board testBoard = new Board(2, 2);
+		final Card testCard = createTestCard();
+		testBoard.getBoardSlot(0, 0).setCard(testCard);
+		testBoard.getBoardSlot(0, 0).setSlotOwner(PlayerIdentity.RIGHT_PLAYER);
+		testBoard.getBoardSlot(1, 1).setCard(testCard);
+		testBoard.getBoardSlot(1, 1).setSlotOwner(PlayerIdentity.LEFT_PLAYER);
+		// asking for the winner leaves the board as it is
+		assertThat(testBoard.getWinner(), nullValue());
+		assertThat(testBoard.getOccupiedCount(), equalTo(2));
+		testBoard.resolveBoardSuperStalemate();
+		assertThat(testBoard.getOccupiedCount(), equalTo(0));
+		assertThat(testBoard.getBoardSlot(0, 0).getCard(), nullValue());
+		assertThat(testBoard.getWinner(), nullValue());
+	}
+	
+	@Test
+	public void testResolveBoardSuperStalemate_Winner() {
+		final Board testBoard = new Board(2, 1);
+		testBoard.getBoardSlot(0, 0).setCard(createTestCard());
+		testBoard.getBoardSlot(0, 0).setSlotOwner(PlayerIdentity.RIGHT_PLAYER);
+		testBoard.resolveBoardSuperStalemate();
+		assertThat(testBoard.getOccupiedCount(), equalTo(1));
+		assertThat(testBoard.getWinner(), equalTo(PlayerIdentity.RIGHT_PLAYER));
+	}
+	
 	@Test
 	public void testGetWinner_MajorityOfRowsOwned() {
 		final Board testBoard = new Board();
@@ -383,6 +699,54 @@ public class BoardTest {
 		assertThat(moves.get(1).equals(new Position(2, 0)), equalTo(true));
 	}
 	
+	@Test
+	public void testGetPossibleMoves_Buffer() {
+		final Board testBoard = createTestBoard();
+		final Card testCard = createTestCard();
+		testBoard.getBoardSlot(1, 0).setCard(testCard);
+		testBoard.getBoardSlot(1, 0).setSlotOwner(PlayerIdentity.LEFT_PLAYER);
+		testBoard.getBoardSlot(2, 1).setCard(testCard);
+		testBoard.getBoardSlot(2, 1).setSlotOwner(PlayerIdentity.RIGHT_PLAYER);
+		final int[] buffer = new int[testBoard.getHeight()];
+		for (PlayerIdentity testPlayer : PlayerIdentity.values()) {
+			final List<Position> moves = testBoard.getPossibleMoves(testPlayer);
+			final int moveCount = testBoard.getPossibleMoves(testPlayer, buffer);
+			assertThat(moveCount, equalTo(moves.size()));
+			for (int i = 0; i < moveCount; ++i) {
+				assertThat(testBoard.getPosition(buffer[i]), sameInstance(moves.get(i)));
+				assertThat(testBoard.isValidMove(testPlayer, moves.get(i)), equalTo(true));
+			}
+		}
+	}
+	
+	@Test
+	public void testGetPosition_SharedBetweenBoards() {
+		final Board testBoard = new Board(4, 2);
+		final Position testPosition = testBoard.getPosition(1, 3);
+		assertThat(testPosition.equals(new Position(1, 3)), equalTo(true));
+		assertThat(new Board(4, 2).getPosition(1, 3), sameInstance(testPosition));
+		assertThat(testBoard.clone().getPosition(7), sameInstance(testPosition));
+		assertThat(testBoard.getPosition(testBoard.getBoardSlot(1, 3)), sameInstance(testPosition));
+	}
+	
+	@Test
+	public void testGetOpenColumn_WideBoard() {
+		final Board testBoard = new Board(70, 1);
+		final Card testCard = createTestCard();
+		testBoard.getBoardSlot(0, 0).setCard(testCard);
+		testBoard.getBoardSlot(0, 0).setSlotOwner(PlayerIdentity.LEFT_PLAYER);
+		assertThat(testBoard.getOpenColumn(PlayerIdentity.LEFT_PLAYER, 0), equalTo(1));
+		assertThat(testBoard.getOpenColumn(PlayerIdentity.RIGHT_PLAYER, 0), equalTo(69));
+		assertThat(testBoard.isValidMove(PlayerIdentity.RIGHT_PLAYER, new Position(0, 69)), equalTo(true));
+	}
+	
+	@Test
+	public void testIsValidMove_OutOfBounds() {
+		final Board testBoard = new Board();
+		assertThat(testBoard.isValidMove(PlayerIdentity.LEFT_PLAYER, new Position(3, 0)), equalTo(false));
+		assertThat(testBoard.isValidMove(PlayerIdentity.RIGHT_PLAYER, new Position(0, -1)), equalTo(false));
+	}
+	
 	@Test
 	public void testIsValidMove_ValidLeftPlayerMove() {
 		final Board testBoard = new Board();
@@ -407,6 +771,33 @@ public class BoardTest {
 		assertThat(testBoard.isValidMove(PlayerIdentity.RIGHT_PLAYER, testMove), equalTo(false));
 	}
 	
+	/**
+	 * Asserts that the counts kept by a board match the contents of its slots
+	 * @param board
+	 */
+	private void assertCountsMatchSlots(Board board) {
+		int leftCards = 0;
+		int rightCards = 0;
+		for (int row = 0; row < board.getHeight(); ++row) {
+			for (int col = 0; col < board.getWidth(); ++col) {
+				final PlayerIdentity owner = board.getBoardSlot(row, col).getOwner();
+				leftCards += owner == PlayerIdentity.LEFT_PLAYER ? 1 : 0;
+				rightCards += owner == PlayerIdentity.RIGHT_PLAYER ? 1 : 0;
+			}
+			final BoardSlot[] boardRow = board.getBoardRow(row);
+			PlayerIdentity controller = null;
+			if (boardRow[0].getOwner() == PlayerIdentity.RIGHT_PLAYER) {
+				controller = PlayerIdentity.RIGHT_PLAYER;
+			} else if (boardRow[boardRow.length - 1].getOwner() == PlayerIdentity.LEFT_PLAYER) {
+				controller = PlayerIdentity.LEFT_PLAYER;
+			}
+			assertThat(board.getRowController(row), equalTo(controller));
+		}
+		assertThat(board.getCardCount(PlayerIdentity.LEFT_PLAYER), equalTo(leftCards));
+		assertThat(board.getCardCount(PlayerIdentity.RIGHT_PLAYER), equalTo(rightCards));
+		assertThat(board.getOccupiedCount(), equalTo(leftCards + rightCards));
+	}
+	
 	/**
 	 * Create a sample board for testing. The sample board will have a card in one slot.
 	 * @return
@@ -0,0 +1,47 @@
+package com.phantomrealm.cardbattle.model.card;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import org.junit.Test;
+
+public class BattleOutcomesTest {
+	
+	@Test
+	public void testGetOutcome_MatchesComputedOutcome() {
+		final CardArchetype[] archetypes = new CardArchetype[40];
+		for (int i = 0; i < archetypes.length; ++i) {
+			archetypes[i] = CardFactory.getArchetype(i % 2 == 0 ? AttackType.PHYSICAL : AttackType.MAGICAL, i % 7, i % 5, i % 3);
+		}
+		for (CardArchetype leftArchetype : archetypes) {
+			for (CardArchetype rightArchetype : archetypes) {
+				final int expectedOutcome = BattleOutcomes.computeOutcome(leftArchetype.createCard(), rightArchetype.createCard());
+				assertThat(BattleOutcomes.getOutcome(leftArchetype, rightArchetype), equalTo(expectedOutcome));
+				assertThat(BattleOutcomes.getOutcome(leftArchetype.getIndex(), rightArchetype.getIndex()), equalTo(expectedOutcome));
+				assertThat(BattleOutcomes.computeOutcome(leftArchetype.getPackedCard(), rightArchetype.getPackedCard()), equalTo(expectedOutcome));
+			}
+		}
+	}
+	
+	@Test
+	public void testComputeOutcome() {
+		final Card strongCard = new Card("strong", null, AttackType.MAGICAL, 9, 1, 9);
+		final Card weakCard = new Card("weak", null, AttackType.PHYSICAL, 0, 0, 0);
+		assertThat(BattleOutcomes.computeOutcome(strongCard, weakCard), equalTo(BattleOutcomes.RIGHT_DIES));
+		assertThat(BattleOutcomes.computeOutcome(weakCard, strongCard), equalTo(BattleOutcomes.LEFT_DIES));
+		assertThat(BattleOutcomes.computeOutcome(strongCard, strongCard), equalTo(BattleOutcomes.BOTH_DIE));
+		assertThat(BattleOutcomes.computeOutcome(weakCard, weakCard), equalTo(BattleOutcomes.NEITHER_DIES));
+	}
+	
+	@Test
+	public void testComputeOutcome_Packed() {
+		final Card strongCard = new Card("strong", null, AttackType.MAGICAL, 9, 1, 9);
+		final Card weakCard = new Card("weak", null, AttackType.PHYSICAL, 3, 0, 0);
+		final int strong = CardRegistry.pack(strongCard);
+		final int weak = CardRegistry.pack(weakCard);
+		assertThat(BattleOutcomes.computeOutcome(strong, weak), equalTo(BattleOutcomes.computeOutcome(strongCard, weakCard)));
+		assertThat(BattleOutcomes.computeOutcome(weak, strong), equalTo(BattleOutcomes.computeOutcome(weakCard, strongCard)));
+		assertThat(BattleOutcomes.computeOutcome(weak, weak), equalTo(BattleOutcomes.BOTH_DIE));
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.phantomrealm.cardbattle.model.card;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import org.junit.Test;
+
+public class BonusEffectTableTest {
+
+	@Test
+	public void testGetActions_StatChanges() {
+		final int actions = BonusEffectTable.getActions(BonusEffect.RESISTANCE_LEVEL_DOWN);
+		assertThat((actions & BonusEffectTable.WIN_CHANGE_STATS) != 0, equalTo(true));
+		assertThat(BonusEffectTable.getAttackChange(actions), equalTo(0));
+		assertThat(BonusEffectTable.getDefenseChange(actions), equalTo(0));
+		assertThat(BonusEffectTable.getResistanceChange(actions), equalTo(-1));
+		final int fullActions = BonusEffectTable.getActions(BonusEffect.FULL_LEVEL_UP);
+		assertThat(BonusEffectTable.getAttackChange(fullActions), equalTo(1));
+		assertThat(BonusEffectTable.getDefenseChange(fullActions), equalTo(1));
+		assertThat(BonusEffectTable.getResistanceChange(fullActions), equalTo(1));
+	}
+	
+	@Test
+	public void testGetActions_NoEffect() {
+		assertThat(BonusEffectTable.getActions(null), equalTo(BonusEffectTable.NO_ACTIONS));
+		assertThat(BonusEffectTable.getAttackChange(BonusEffectTable.NO_ACTIONS), equalTo(0));
+	}
+	
+	@Test
+	public void testAdjustOutcome() {
+		final int kamikaze = BonusEffectTable.getActions(BonusEffect.KAMIKAZE);
+		final int selfDestruct = BonusEffectTable.getActions(BonusEffect.SELF_DESTRUCT);
+		final int none = BonusEffectTable.NO_ACTIONS;
+		assertThat(BonusEffectTable.adjustOutcome(BattleOutcomes.RIGHT_DIES, kamikaze, none), equalTo(BattleOutcomes.BOTH_DIE));
+		assertThat(BonusEffectTable.adjustOutcome(BattleOutcomes.LEFT_DIES, kamikaze, none), equalTo(BattleOutcomes.BOTH_DIE));
+		assertThat(BonusEffectTable.adjustOutcome(BattleOutcomes.NEITHER_DIES, kamikaze, none), equalTo(BattleOutcomes.NEITHER_DIES));
+		assertThat(BonusEffectTable.adjustOutcome(BattleOutcomes.RIGHT_DIES, none, selfDestruct), equalTo(BattleOutcomes.BOTH_DIE));
+		assertThat(BonusEffectTable.adjustOutcome(BattleOutcomes.LEFT_DIES, none, selfDestruct), equalTo(BattleOutcomes.LEFT_DIES));
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.phantomrealm.cardbattle.model.card;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import org.junit.Test;
+
+public class CardRegistryTest {
+	
+	@Test
+	public void testPack_RoundTrip() {
+		final Card card = new Card("Test Card", BonusEffect.KAMIKAZE, AttackType.MAGICAL, 5, 3, 4);
+		final int packedCard = CardRegistry.pack(card);
+		assertThat(CardRegistry.getAttack(packedCard), equalTo(5));
+		assertThat(CardRegistry.getResistance(packedCard), equalTo(3));
+		assertThat(CardRegistry.getDefense(packedCard), equalTo(4));
+		assertThat(CardRegistry.getAttackType(packedCard), equalTo(AttackType.MAGICAL));
+		assertThat(CardRegistry.getBonusEffect(packedCard), equalTo(BonusEffect.KAMIKAZE));
+		assertThat(CardRegistry.hasBonusEffect(packedCard), equalTo(true));
+		assertThat(CardRegistry.getDefenseForAttackType(packedCard, AttackType.MAGICAL), equalTo(card.getDefenseForAttackType(AttackType.MAGICAL)));
+	}
+	
+	@Test
+	public void testPack_NoCard() {
+		final int packedCard = CardRegistry.pack(new Card("Test Card", null, null, 0, 0, 0));
+		assertThat(packedCard == CardRegistry.NO_CARD, equalTo(false));
+		assertThat(CardRegistry.getAttackType(packedCard), nullValue());
+		assertThat(CardRegistry.getBonusEffect(packedCard), nullValue());
+		assertThat(CardRegistry.hasBonusEffect(packedCard), equalTo(false));
+		assertThat(CardRegistry.pack(null), equalTo(CardRegistry.NO_CARD));
+		assertThat(CardRegistry.getArchetype(CardRegistry.NO_CARD), nullValue());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testPack_StatOutOfRange() {
+		CardRegistry.pack(AttackType.PHYSICAL, CardRegistry.MAX_STAT + 1, 0, 0, null);
+	}
+	
+	@Test
+	public void testGetArchetype_Interned() {
+		final Card card = new Card("Test Card", null, AttackType.PHYSICAL, 4, 1, 2);
+		final CardArchetype archetype = CardRegistry.getArchetype(card);
+		final CardArchetype otherArchetype = CardFactory.getArchetype(AttackType.PHYSICAL, 4, 2, 1);
+		assertThat(archetype == otherArchetype, equalTo(true));
+		assertThat(archetype == CardRegistry.getArchetype(archetype.getPackedCard()), equalTo(true));
+		assertThat(archetype.getPackedCard(), equalTo(CardRegistry.pack(card)));
+		assertThat(CardRegistry.getArchetype((Card) null), nullValue());
+	}
+	
+	@Test
+	public void testGetArchetypeByIndex() {
+		final CardArchetype archetype = CardFactory.getArchetype(AttackType.MAGICAL, 7, 3, 5);
+		final int index = archetype.getIndex();
+		assertThat(index < CardRegistry.getArchetypeCount(), equalTo(true));
+		assertThat(CardRegistry.getArchetypeByIndex(index) == archetype, equalTo(true));
+		assertThat(CardFactory.getArchetype(AttackType.MAGICAL, 7, 5, 3).getIndex() == index, equalTo(false));
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetArchetypeByIndex_OutOfRange() {
+		CardRegistry.getArchetypeByIndex(CardRegistry.getArchetypeCount());
+	}
+	
+	@Test
+	public void testCreateCard() {
+		final CardArchetype archetype = CardFactory.getArchetype(AttackType.MAGICAL, 1, 2, 3);
+		final Card card = archetype.createCard();
+		assertThat(card.getName(), equalTo(archetype.getName()));
+		assertThat(card.getAttackType(), equalTo(AttackType.MAGICAL));
+		assertThat(card.getAttack(), equalTo(1));
+		assertThat(card.getDefense(), equalTo(2));
+		assertThat(card.getResistance(), equalTo(3));
+		assertThat(card == archetype.createCard(), equalTo(false));
+		
+		// changing a card made from an archetype leaves the archetype as it was
+		card.setAttack(5);
+		assertThat(CardRegistry.getAttack(archetype.getPackedCard()), equalTo(1));
+		assertThat(archetype.createCard().getAttack(), equalTo(1));
+		assertThat(CardRegistry.getArchetype(card) == archetype, equalTo(false));
+	}
+	
+	@Test
+	public void testDefeats() {
+		final Card magicalCard = new Card("Test Card", null, AttackType.MAGICAL, 3, 0, 4);
+		final Card physicalCard = new Card("Test Card", null, AttackType.PHYSICAL, 2, 2, 1);
+		final int magical = CardRegistry.pack(magicalCard);
+		final int physical = CardRegistry.pack(physicalCard);
+		assertThat(CardRegistry.defeats(magical, physical), equalTo(magicalCard.getAttack() > physicalCard.getResistance()));
+		assertThat(CardRegistry.defeats(physical, magical), equalTo(physicalCard.getAttack() > magicalCard.getDefense()));
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.phantomrealm.cardbattle.model.deck;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+import java.util.EmptyStackException;
+
+import org.junit.Test;
+
+import com.phantomrealm.cardbattle.model.card.Card;
+
+public class DeckCursorTest {
+
+	@Test
+	public void testPop_MatchesDeck() {
+		final Deck deck = DeckFactory.generateTestDeck(5);
+		final Deck expectedDeck = deck.clone();
+		final DeckCursor cursor = new DeckCursor(deck);
+		assertThat(cursor.size(), equalTo(5));
+		while (!expectedDeck.isEmpty()) {
+			assertThat(cursor.peek(), sameInstance(expectedDeck.peek()));
+			assertThat(cursor.pop(), sameInstance(expectedDeck.pop()));
+			assertThat(cursor.size(), equalTo(expectedDeck.size()));
+		}
+		assertThat(cursor.isEmpty(), equalTo(true));
+		assertThat(deck.size(), equalTo(5));
+	}
+	
+	@Test
+	public void testUndoPop() {
+		final Deck deck = DeckFactory.generateTestDeck(3);
+		final DeckCursor cursor = new DeckCursor(deck);
+		final Card card = cursor.pop();
+		cursor.pop();
+		cursor.undoPop();
+		cursor.undoPop();
+		assertThat(cursor.size(), equalTo(3));
+		assertThat(cursor.peek(), sameInstance(card));
+		for (int i = 0; i < deck.size(); ++i) {
+			assertThat(cursor.get(i), sameInstance(deck.get(i)));
+		}
+	}
+	
+	@Test
+	public void testFork_Independent() {
+		final Deck deck = DeckFactory.generateTestDeck(4);
+		final DeckCursor cursor = new DeckCursor(deck);
+		cursor.pop();
+		final DeckCursor fork = cursor.fork();
+		assertThat(fork.size(), equalTo(3));
+		fork.pop();
+		fork.pop();
+		assertThat(cursor.size(), equalTo(3));
+		assertThat(cursor.peek(), sameInstance(deck.get(2)));
+		assertThat(fork.peek(), sameInstance(deck.get(0)));
+	}
+	
+	@Test(expected = EmptyStackException.class)
+	public void testPop_Empty() {
+		new DeckCursor(new Deck()).pop();
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testUndoPop_Unmatched() {
+		final DeckCursor cursor = new DeckCursor(DeckFactory.generateTestDeck(3));
+		cursor.pop();
+		cursor.undoPop();
+		cursor.undoPop();
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testUndoPop_BeforeFork() {
+		final DeckCursor cursor = new DeckCursor(DeckFactory.generateTestDeck(3));
+		cursor.pop();
+		cursor.fork().undoPop();
+	}
+
+}
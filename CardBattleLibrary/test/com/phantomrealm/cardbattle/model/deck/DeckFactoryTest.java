@@ -9,6 +9,7 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import org.junit.Test;
 
 import com.phantomrealm.cardbattle.model.card.Card;
+import com.phantomrealm.cardbattle.util.RandomSource;
 
 public class DeckFactoryTest {
 
@@ -22,6 +23,7 @@ public class DeckFactoryTest {
 	private static final int POWERFUL_DECK_DEFENSE_MIN = 1;
 	private static final int WEAK_DECK_ATTACK_MAX = 3;
 	private static final int WEAK_DECK_DEFENSE_MAX = 4;
+	private static final long TEST_SEED = 42;
 	
 	@Test
 	public void testGeneratePowerfulTestDeck_SizeWithNoParams() {
@@ -142,5 +144,19 @@ public class DeckFactoryTest {
 			assertThat(testCard.getDefense(), allOf(greaterThanOrEqualTo(POWERFUL_DECK_DEFENSE_MIN), lessThanOrEqualTo(WEAK_DECK_DEFENSE_MAX)));
 		}
 	}
+	
+	@Test
+	public void testGenerateTestDeck_SameSeed() {
+		final Deck testDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE, new RandomSource(TEST_SEED));
+		final Deck otherDeck = DeckFactory.generateTestDeck(TEST_DECK_SIZE, new RandomSource(TEST_SEED));
+		assertThat(otherDeck.size(), equalTo(testDeck.size()));
+		for (int i = 0; i < testDeck.size(); ++i) {
+			assertThat(otherDeck.get(i).getName(), equalTo(testDeck.get(i).getName()));
+			assertThat(otherDeck.get(i).getAttackType(), equalTo(testDeck.get(i).getAttackType()));
+			assertThat(otherDeck.get(i).getAttack(), equalTo(testDeck.get(i).getAttack()));
+			assertThat(otherDeck.get(i).getDefense(), equalTo(testDeck.get(i).getDefense()));
+			assertThat(otherDeck.get(i).getResistance(), equalTo(testDeck.get(i).getResistance()));
+		}
+	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.phantomrealm.cardbattle.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+
+import org.junit.Test;
+
+public class RandomSourceTest {
+	
+	private static final long TEST_SEED = 42;
+	private static final int TEST_COUNT = 1000;
+	private static final int TEST_BOUND = 7;
+	
+	@Test
+	public void testNextLong_SameSeed() {
+		final RandomSource testSource = new RandomSource(TEST_SEED);
+		final RandomSource otherSource = new RandomSource(TEST_SEED);
+		for (int i = 0; i < TEST_COUNT; ++i) {
+			assertThat(otherSource.nextLong(), equalTo(testSource.nextLong()));
+		}
+	}
+	
+	@Test
+	public void testSetSeed_Restarts() {
+		final RandomSource testSource = new RandomSource(TEST_SEED);
+		final int first = testSource.nextInt();
+		testSource.nextInt();
+		testSource.setSeed(TEST_SEED);
+		assertThat(testSource.nextInt(), equalTo(first));
+	}
+	
+	@Test
+	public void testSplit_Independent() {
+		final RandomSource testSource = new RandomSource(TEST_SEED);
+		final RandomSource splitSource = testSource.split();
+		final RandomSource otherSplitSource = new RandomSource(TEST_SEED).split();
+		final long splitValue = splitSource.nextLong();
+		assertThat(otherSplitSource.nextLong(), equalTo(splitValue));
+		assertThat(testSource.nextLong(), not(equalTo(splitValue)));
+	}
+	
+	@Test
+	public void testNextInt_Bound() {
+		final RandomSource testSource = new RandomSource(TEST_SEED);
+		final int[] counts = new int[TEST_BOUND];
+		for (int i = 0; i < TEST_COUNT; ++i) {
+			final int value = testSource.nextInt(TEST_BOUND);
+			assertThat(value, allOf(greaterThanOrEqualTo(0), lessThan(TEST_BOUND)));
+			++counts[value];
+		}
+		for (int count : counts) {
+			assertThat(count > 0, equalTo(true));
+		}
+	}
+	
+	@Test
+	public void testCurrent_PerThread() throws InterruptedException {
+		final RandomSource[] otherSource = new RandomSource[1];
+		final Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				otherSource[0] = RandomSource.current();
+			}
+		});
+		thread.start();
+		thread.join();
+		assertThat(RandomSource.current(), equalTo(RandomSource.current()));
+		assertThat(otherSource[0] != RandomSource.current(), equalTo(true));
+	}
+
+}